@@ -0,0 +1,98 @@
+package am.greenbank.config;
+
+import am.greenbank.responses.Response;
+import am.greenbank.responses.ResponseStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.util.AntPathMatcher;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The per-request work {@link JwtAuthenticationFilter} does before it reaches the token checks,
+ * the way it was done before and after {@link PublicPathMatcher}: the public-path check for
+ * public and protected URIs, and the 401 body built with a fresh {@code ObjectMapper} against
+ * the cached bytes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtAuthenticationFilterBenchmark {
+    private static final List<String> WITHOUT_AUTH_ENDPOINTS = List.of(
+        "/",
+        "/api/auth/**",
+        "/api/currencies",
+        "/v1/api-docs/**",
+        "/v2/api-docs/**",
+        "/v3/api-docs/**",
+        "/swagger-resources",
+        "/swagger-resources/**",
+        "/configuration/ui",
+        "/configuration/security",
+        "/swagger-ui/**",
+        "/webjars/**",
+        "/swagger-ui.html"
+    );
+
+    @State(Scope.Benchmark)
+    public static class PublicPath {
+        @Param({"/api/auth/login", "/swagger-ui/index.html", "/api/accounts/65a1f0c2e4b0a1b2c3d4e5f6/transactions"})
+        public String requestURI;
+
+        private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+        private final PublicPathMatcher publicPathMatcher = new PublicPathMatcher(WITHOUT_AUTH_ENDPOINTS);
+    }
+
+    @State(Scope.Benchmark)
+    public static class ErrorBody {
+        private final ObjectMapper objectMapper = new ObjectMapper();
+        private final Map<String, byte[]> errorBodies = new ConcurrentHashMap<>();
+        private final String message = "Access token is not valid";
+
+        private byte[] serialize(String message) {
+            try {
+                return objectMapper.writeValueAsString(response(message)).getBytes(StandardCharsets.UTF_8);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean antPathMatcher(PublicPath state) {
+        return WITHOUT_AUTH_ENDPOINTS.stream().anyMatch(pattern -> state.antPathMatcher.match(pattern, state.requestURI));
+    }
+
+    @Benchmark
+    public boolean publicPathMatcher(PublicPath state) {
+        return state.publicPathMatcher.matches(state.requestURI);
+    }
+
+    @Benchmark
+    public String freshObjectMapper(ErrorBody state) throws JsonProcessingException {
+        return new ObjectMapper().writeValueAsString(response(state.message));
+    }
+
+    @Benchmark
+    public byte[] cachedErrorBody(ErrorBody state) {
+        return state.errorBodies.computeIfAbsent(state.message, state::serialize);
+    }
+
+    private static Response response(String message) {
+        return Response
+            .builder()
+            .status(ResponseStatus.ERROR.getValue())
+            .message(message)
+            .build();
+    }
+}
@@ -0,0 +1,108 @@
+package am.greenbank.repositories.mongo.codecs;
+
+import am.greenbank.entities.account.Currency;
+import am.greenbank.entities.transaction.Transaction;
+import am.greenbank.entities.transaction.TransactionEntity;
+import am.greenbank.entities.transaction.TransactionType;
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes one page of 1000 transactions, as written by {@code MappingMongoConverter}, the way
+ * the driver hands them over: through {@link TransactionCodec}, or into a {@link Document}
+ * that the converter then maps. No database is involved, only the decoding is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionPageDecodeBenchmark {
+    private static final int PAGE_SIZE = 1000;
+
+    private final TransactionCodec transactionCodec = new TransactionCodec();
+    private final DocumentCodec documentCodec = new DocumentCodec();
+    private MappingMongoConverter converter;
+    private List<RawBsonDocument> page;
+
+    @Setup
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        page = new ArrayList<>(PAGE_SIZE);
+        LocalDateTime date = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Document document = new Document();
+            converter.write(transaction(i, date.plusMinutes(i)), document);
+            page.add(new RawBsonDocument(document, documentCodec));
+        }
+    }
+
+    private static Transaction transaction(int i, LocalDateTime date) {
+        return Transaction.builder()
+            .id(new ObjectId().toHexString())
+            .from(TransactionEntity.builder()
+                .number(String.format("4000%012d", i))
+                .userId(new ObjectId().toHexString())
+                .type(TransactionType.CARD)
+                .build())
+            .to(TransactionEntity.builder()
+                .number(String.format("2200%012d", i))
+                .userId(new ObjectId().toHexString())
+                .type(TransactionType.ACCOUNT)
+                .build())
+            .amount(100.0 + i)
+            .currency(Currency.values()[i % Currency.values().length])
+            .description("Transfer " + i)
+            .date(date)
+            .done(true)
+            .build();
+    }
+
+    @Benchmark
+    public List<Transaction> codec() {
+        List<Transaction> result = new ArrayList<>(PAGE_SIZE);
+        for (RawBsonDocument raw : page) {
+            try (BsonBinaryReader reader = new BsonBinaryReader(raw.getByteBuffer().asNIO())) {
+                result.add(transactionCodec.decode(reader, DecoderContext.builder().build()));
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<Transaction> mappingConverter() {
+        List<Transaction> result = new ArrayList<>(PAGE_SIZE);
+        for (RawBsonDocument raw : page) {
+            try (BsonBinaryReader reader = new BsonBinaryReader(raw.getByteBuffer().asNIO())) {
+                Document document = documentCodec.decode(reader, DecoderContext.builder().build());
+                result.add(converter.read(Transaction.class, document));
+            }
+        }
+        return result;
+    }
+}
@@ -1,11 +1,14 @@
 package am.greenbank;
 
+import am.greenbank.repositories.mongo.SoftDeleteMongoRepositoryImpl;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableScheduling
+@EnableMongoRepositories(repositoryBaseClass = SoftDeleteMongoRepositoryImpl.class)
 public class GreenBankApplication {
     public static void main(String[] args) {
         SpringApplication.run(GreenBankApplication.class, args);
@@ -1,28 +1,26 @@
 package am.greenbank.config;
 
+import am.greenbank.entities.user.User;
 import am.greenbank.repositories.interfaces.UserRepository;
-import io.github.bucket4j.Bandwidth;
-import io.github.bucket4j.Bucket;
-import io.github.bucket4j.Bucket4j;
-import io.github.bucket4j.local.LocalBucket;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.text.DecimalFormat;
-import java.time.Duration;
+import java.time.Clock;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
@@ -38,10 +36,22 @@ public class ApplicationConfig {
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (userDetails, newPassword) -> {
+            User user = (User) userDetails;
+            user.setPassword(newPassword);
+            userRepository.updatePassword(user.getId(), newPassword);
+            return user;
+        };
+    }
+
+    @Bean
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService());
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        // rehashes passwords stored with a lower bcrypt cost than configured on successful login
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService());
         return authProvider;
     }
 
@@ -50,11 +60,6 @@ public class ApplicationConfig {
         return config.getAuthenticationManager();
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public ModelMapper getModelMapper() {
         return new ModelMapper();
@@ -87,10 +92,13 @@ public class ApplicationConfig {
         return new DecimalFormat("#.##");
     }
 
+    /**
+     * The time the jobs and money services work with, the simulation profile swaps in one it
+     * can move forward.
+     */
     @Bean
-    public LocalBucket rateLimiter() {
-        return Bucket.builder()
-            .addLimit(Bandwidth.simple(1, Duration.ofMinutes(1))) // 1 request per minute
-            .build();
+    @Profile("!simulation")
+    public Clock clock() {
+        return Clock.systemDefaultZone();
     }
 }
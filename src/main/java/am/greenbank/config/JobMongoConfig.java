@@ -0,0 +1,47 @@
+package am.greenbank.config;
+
+import am.greenbank.repositories.mongo.JobMongoTemplate;
+import com.mongodb.MongoClientSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientFactory;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+@Configuration
+public class JobMongoConfig {
+    /**
+     * Declared here because a second template switches off the auto-configured one.
+     */
+    @Bean
+    @Primary
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory mongoDatabaseFactory, MongoConverter mongoConverter) {
+        return new MongoTemplate(mongoDatabaseFactory, mongoConverter);
+    }
+
+    /**
+     * Same connection string, database and command listeners as the main client, with a pool
+     * capped at {@code am.greenbank.jobs.pool.max-size} connections.
+     */
+    @Bean
+    public JobMongoTemplate jobMongoTemplate(
+        MongoProperties mongoProperties,
+        ObjectProvider<MongoClientSettingsBuilderCustomizer> customizers,
+        MongoConverter mongoConverter,
+        @Value("${am.greenbank.jobs.pool.max-size:4}") int maxSize
+    ) {
+        MongoClientSettings settings = MongoClientSettings.builder()
+            .applyToConnectionPoolSettings(pool -> pool.minSize(0).maxSize(maxSize))
+            .build();
+        MongoClientFactory factory = new MongoClientFactory(customizers.orderedStream().toList());
+        return new JobMongoTemplate(
+            factory.createMongoClient(settings), mongoProperties.getMongoClientDatabase(), mongoConverter
+        );
+    }
+}
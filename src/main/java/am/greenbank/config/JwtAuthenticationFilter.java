@@ -1,12 +1,16 @@
 package am.greenbank.config;
 
+import am.greenbank.entities.user.User;
+import am.greenbank.entities.user.UserPrincipal;
 import am.greenbank.exceptions.exceptions.UnauthorizedException;
 import am.greenbank.repositories.interfaces.TokenRepository;
 import am.greenbank.repositories.interfaces.UserRepository;
 import am.greenbank.responses.Response;
 import am.greenbank.responses.ResponseStatus;
 import am.greenbank.services.JwtService;
+import am.greenbank.services.UserReferenceResolver;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -17,26 +21,32 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
-import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
-import java.util.Enumeration;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final Logger headerLog = LoggerFactory.getLogger("am.greenbank.requests.headers");
+    private static final List<String> maskedHeaders = List.of("authorization", "cookie");
+
     @RequiredArgsConstructor
     @Getter
     private enum AuthConstants {
@@ -49,9 +59,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
     private final UserRepository userRepository;
     private final TokenRepository tokenRepository;
+    private final ObjectMapper objectMapper;
+    private final UserReferenceResolver userReferenceResolver;
     private final List<String> endpointsForRefreshToken = List.of("/api/auth/logout", "/api/auth/refreshToken");
     private final List<String> withoutAuthEndpoints = List.of(
         "/",
@@ -74,7 +85,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         "/swagger-ui.html"
     );
 
-    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final PublicPathMatcher publicPathMatcher = new PublicPathMatcher(withoutAuthEndpoints);
+    private final Map<String, byte[]> errorBodies = new ConcurrentHashMap<>();
+
+    @Value("${am.greenbank.logging.header-sample-rate:0.0}")
+    private double headerSampleRate;
 
     @Override
     protected void doFilterInternal(
@@ -83,65 +98,70 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         @NonNull FilterChain filterChain
     ) throws ServletException, IOException {
         String requestURI = request.getRequestURI();
-        log.info("request to endpoint {} endpoint", requestURI);
-
-        Enumeration<String> headerNames = request.getHeaderNames();
-
-        Iterator<String> iterator = headerNames.asIterator();
-
-        System.out.println("{");
-        while (iterator.hasNext()) {
-            var header = iterator.next();
-            var val = request.getHeader(header);
-            System.out.printf("%s: %s%n", header, val);
-        }
-        System.out.println("}");
+        log.debug("request to endpoint {} endpoint", requestURI);
+        logHeadersSampled(request, requestURI);
 
         try {
-            if (matchesWithoutAuthPattern(requestURI)) {
-                System.out.println("Point 1");
+            if (publicPathMatcher.matches(requestURI)) {
                 filterChain.doFilter(request, response);
                 return;
             } else if (endpointsForRefreshToken.contains(requestURI)) {
-                System.out.println("Point 2");
                 processRefreshToken(request);
             } else if (requestURI.startsWith("/ws")) {
-                System.out.println("Point 3");
                 processSocketToken(request);
             } else {
-                System.out.println("Point 4");
                 processAccessToken(request);
             }
-            System.out.println("Point 5");
             filterChain.doFilter(request, response);
         } catch (UnauthorizedException e) {
-            System.out.println("Point 6");
             errorReturn(response, e);
         }
     }
 
+    private void logHeadersSampled(HttpServletRequest request, String requestURI) {
+        if (headerSampleRate <= 0
+            || !headerLog.isDebugEnabled()
+            || ThreadLocalRandom.current().nextDouble() >= headerSampleRate) {
+            return;
+        }
+
+        StringBuilder headers = new StringBuilder();
+        Iterator<String> iterator = request.getHeaderNames().asIterator();
+        while (iterator.hasNext()) {
+            String header = iterator.next();
+            String value = maskedHeaders.contains(header.toLowerCase()) ? "***" : request.getHeader(header);
+            headers.append(header).append('=').append(value);
+            if (iterator.hasNext()) {
+                headers.append(", ");
+            }
+        }
+        headerLog.debug("method={} uri={} headers={{}}", request.getMethod(), requestURI, headers);
+    }
+
     private void processSocketToken(HttpServletRequest request) {
         String accessToken = request.getParameter("access_token");
         tokenValidation(request, accessToken);
     }
 
-    private boolean matchesWithoutAuthPattern(String requestURI) {
-        return withoutAuthEndpoints.stream()
-            .anyMatch(pattern -> pathMatcher.match(pattern, requestURI));
+    private void errorReturn(HttpServletResponse httpServletResponse, UnauthorizedException exception) throws IOException {
+        byte[] body = errorBodies.computeIfAbsent(String.valueOf(exception.getMessage()), this::serializeErrorBody);
+        httpServletResponse.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        httpServletResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        httpServletResponse.setContentLength(body.length);
+        httpServletResponse.getOutputStream().write(body);
     }
 
-    private void errorReturn(HttpServletResponse httpServletResponse, UnauthorizedException exception) throws IOException {
-        final String status = ResponseStatus.ERROR.getValue();
-        String message = exception.getMessage();
-        System.out.println(message);
+    private byte[] serializeErrorBody(String message) {
         Response response = Response
             .builder()
-            .status(status)
+            .status(ResponseStatus.ERROR.getValue())
             .message(message)
             .build();
-        httpServletResponse.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        httpServletResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
-        httpServletResponse.getWriter().write(new ObjectMapper().writeValueAsString(response));
+        try {
+            return objectMapper.writeValueAsString(response).getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     private void processRefreshToken(HttpServletRequest request) {
@@ -163,10 +183,10 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throw new UnauthorizedException("Refresh token is not valid");
         }
 
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        User user = loadUser(userEmail);
 
-        if (tokenRepository.findByToken(refreshToken).isPresent() || jwtService.isTokenValid(refreshToken, userDetails)) {
-            authenticateUserWithValidToken(request, userDetails);
+        if (tokenRepository.findByToken(refreshToken).isPresent() || jwtService.isTokenValid(refreshToken, user)) {
+            authenticateUserWithValidToken(request, user);
         } else {
             throw new UnauthorizedException("Refresh token is not valid");
         }
@@ -208,17 +228,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
-            Boolean refreshTokenExists = userRepository.findByEmail(userEmail)
-                .map(
-                    user -> !tokenRepository
-                        .findAllValidTokensByUserId(user.getId())
-                        .isEmpty()
-                ).orElse(false);
+            User user = loadUser(userEmail);
+            boolean refreshTokenExists = !tokenRepository
+                .findAllValidTokensByUserId(user.getId())
+                .isEmpty();
 
             if (refreshTokenExists) {
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    authenticateUserWithValidToken(request, userDetails);
+                if (jwtService.isTokenValid(jwt, user)) {
+                    authenticateUserWithValidToken(request, user);
                 } else {
                     throw new UnauthorizedException("Access token is not valid");
                 }
@@ -228,10 +245,16 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
     }
 
-    private void authenticateUserWithValidToken(HttpServletRequest request, UserDetails userDetails) {
-        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails,
+    private User loadUser(String userEmail) {
+        return userRepository.findByEmail(userEmail)
+            .orElseThrow(() -> new UnauthorizedException("User not found"));
+    }
+
+    private void authenticateUserWithValidToken(HttpServletRequest request, User user) {
+        UserPrincipal principal = UserPrincipal.of(userReferenceResolver.resolveReferences(user));
+        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(principal,
             null,
-            userDetails.getAuthorities()
+            principal.getAuthorities()
         );
         authToken.setDetails(
             new WebAuthenticationDetailsSource().buildDetails(request)
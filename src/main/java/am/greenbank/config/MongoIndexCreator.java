@@ -0,0 +1,131 @@
+package am.greenbank.config;
+
+import am.greenbank.entities.Notification;
+import am.greenbank.entities.RateLimitCounter;
+import am.greenbank.entities.account.Account;
+import am.greenbank.entities.cards.Card;
+import am.greenbank.entities.deposit.Deposit;
+import am.greenbank.entities.image.Image;
+import am.greenbank.entities.job.JobPartition;
+import am.greenbank.entities.loan.Loan;
+import am.greenbank.entities.loan.LoanPaymentBucket;
+import am.greenbank.entities.user.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.PartialIndexFilter;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MongoIndexCreator implements CommandLineRunner {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(String... args) {
+        mongoTemplate.indexOps(RateLimitCounter.class).ensureIndex(
+            new Index()
+                .on("expiresAt", Sort.Direction.ASC)
+                .expire(Duration.ZERO)
+                .named("expiresAt_ttl")
+        );
+        mongoTemplate.indexOps(Notification.class).ensureIndex(
+            new Index()
+                .on("userId", Sort.Direction.ASC)
+                .on("time", Sort.Direction.DESC)
+                .named("userId_time")
+        );
+        mongoTemplate.indexOps(Deposit.class).ensureIndex(
+            new Index()
+                .on("status", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named("status_id")
+        );
+        mongoTemplate.indexOps(Loan.class).ensureIndex(
+            new Index()
+                .on("userId", Sort.Direction.ASC)
+                .named("userId")
+        );
+        mongoTemplate.indexOps(LoanPaymentBucket.class).ensureIndex(
+            new Index()
+                .on("loanId", Sort.Direction.ASC)
+                .on("month", Sort.Direction.ASC)
+                .named("loanId_month")
+        );
+        mongoTemplate.indexOps(JobPartition.class).ensureIndex(
+            new Index()
+                .on("runId", Sort.Direction.ASC)
+                .on("index", Sort.Direction.ASC)
+                .named("runId_index")
+        );
+
+        ensureActiveIndex(User.class, "email");
+        ensureActiveIndex(User.class, "phone");
+        ensureUniqueActiveIndex(Account.class, "accountNumber");
+        ensureUniqueActiveIndex(Card.class, "cardNumber");
+        for (Class<?> type : List.of(User.class, Account.class, Card.class, Image.class)) {
+            ensureTombstoneIndex(type);
+        }
+    }
+
+    /**
+     * Lookup index holding live documents only, tombstones never enter it.
+     */
+    private void ensureActiveIndex(Class<?> type, String field) {
+        mongoTemplate.indexOps(type).ensureIndex(
+            new Index()
+                .on(field, Sort.Direction.ASC)
+                .partial(PartialIndexFilter.of(Criteria.where("deleted").is(false)))
+                .named(field + "_active")
+        );
+    }
+
+    /**
+     * Unique version of the lookup index. It replaces the plain one once it is built, when live
+     * documents already share a value the build fails and the plain one stays until they are
+     * fixed.
+     */
+    private void ensureUniqueActiveIndex(Class<?> type, String field) {
+        try {
+            mongoTemplate.indexOps(type).ensureIndex(
+                new Index()
+                    .on(field, Sort.Direction.ASC)
+                    .unique()
+                    .partial(PartialIndexFilter.of(Criteria.where("deleted").is(false)))
+                    .named(field + "_unique")
+            );
+        } catch (DuplicateKeyException e) {
+            log.error("Live {} documents share a {}, it is not unique until they are fixed: ", type.getSimpleName(), field, e);
+            ensureActiveIndex(type, field);
+            return;
+        }
+        boolean plainIndexExists = mongoTemplate.indexOps(type)
+            .getIndexInfo()
+            .stream()
+            .anyMatch(index -> index.getName().equals(field + "_active"));
+        if (plainIndexExists) {
+            mongoTemplate.indexOps(type).dropIndex(field + "_active");
+        }
+    }
+
+    /**
+     * Index the purge job walks, holding tombstones only.
+     */
+    private void ensureTombstoneIndex(Class<?> type) {
+        mongoTemplate.indexOps(type).ensureIndex(
+            new Index()
+                .on("deletedAt", Sort.Direction.ASC)
+                .partial(PartialIndexFilter.of(Criteria.where("deleted").is(true)))
+                .named("deletedAt_tombstone")
+        );
+    }
+}
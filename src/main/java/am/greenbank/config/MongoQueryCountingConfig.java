@@ -0,0 +1,35 @@
+package am.greenbank.config;
+
+import am.greenbank.repositories.identity.IdentityMap;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+@Configuration
+public class MongoQueryCountingConfig {
+    private static final Set<String> WRITE_COMMANDS = Set.of("insert", "update", "delete", "findAndModify");
+
+    /**
+     * The synchronous driver reports a command on the thread that sent it, so the command is
+     * counted against the request running on that thread. A write drops the identity map
+     * entries of its collection whichever template or bulk writer sent it.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer requestQueryCounter() {
+        return builder -> builder.addCommandListener(new CommandListener() {
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                IdentityMap.current().ifPresent(identityMap -> {
+                    identityMap.countQuery();
+                    if (WRITE_COMMANDS.contains(event.getCommandName())) {
+                        identityMap.evict(event.getCommand().getString(event.getCommandName()).getValue());
+                    }
+                });
+            }
+        });
+    }
+}
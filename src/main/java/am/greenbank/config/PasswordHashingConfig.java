@@ -0,0 +1,58 @@
+package am.greenbank.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class PasswordHashingConfig {
+    @Value("${am.greenbank.security.bcrypt.strength:10}")
+    private int bcryptStrength;
+    @Value("${am.greenbank.security.password-hashing.threads:4}")
+    private int threads;
+    @Value("${am.greenbank.security.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+    @Value("${am.greenbank.security.password-hashing.timeout:PT5S}")
+    private Duration timeout;
+
+    @Bean(name = "passwordHashingExecutor", destroyMethod = "shutdown")
+    public ThreadPoolExecutor passwordHashingExecutor() {
+        return new ThreadPoolExecutor(
+            threads,
+            threads,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("password-hashing-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    @Bean
+    public BulkheadPasswordEncoder passwordEncoder(ThreadPoolExecutor passwordHashingExecutor, MeterRegistry meterRegistry) {
+        ExecutorService monitoredExecutor = ExecutorServiceMetrics.monitor(
+            meterRegistry, passwordHashingExecutor, "password-hashing"
+        );
+        Counter rejectedCounter = Counter.builder("password.hashing.rejected")
+            .description("Password hashing tasks rejected because the pool and its queue were full")
+            .register(meterRegistry);
+
+        return new BulkheadPasswordEncoder(
+            new BCryptPasswordEncoder(bcryptStrength),
+            monitoredExecutor,
+            timeout,
+            rejectedCounter
+        );
+    }
+}
@@ -0,0 +1,59 @@
+package am.greenbank.config;
+
+import org.springframework.util.AntPathMatcher;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Ant-style matcher for the filter's public paths, compiled once. Exact paths become a hash lookup
+ * and {@code /prefix/**} patterns a prefix check; anything else falls back to {@link AntPathMatcher}.
+ */
+public final class PublicPathMatcher {
+    private static final String ANY_SUFFIX = "/**";
+
+    private final Set<String> exactPaths = new HashSet<>();
+    private final List<String> prefixes = new ArrayList<>();
+    private final List<String> antPatterns = new ArrayList<>();
+    private final AntPathMatcher antPathMatcher = new AntPathMatcher();
+
+    public PublicPathMatcher(List<String> patterns) {
+        for (String pattern : patterns) {
+            if (pattern.endsWith(ANY_SUFFIX) && isLiteral(pattern.substring(0, pattern.length() - ANY_SUFFIX.length()))) {
+                String prefix = pattern.substring(0, pattern.length() - ANY_SUFFIX.length());
+                exactPaths.add(prefix);
+                prefixes.add(prefix + "/");
+            } else if (isLiteral(pattern)) {
+                exactPaths.add(pattern);
+            } else {
+                antPatterns.add(pattern);
+            }
+        }
+    }
+
+    public boolean matches(String path) {
+        if (exactPaths.contains(path)) {
+            return true;
+        }
+
+        for (int i = 0; i < prefixes.size(); i++) {
+            if (path.startsWith(prefixes.get(i))) {
+                return true;
+            }
+        }
+
+        for (int i = 0; i < antPatterns.size(); i++) {
+            if (antPathMatcher.match(antPatterns.get(i), path)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isLiteral(String pattern) {
+        return pattern.indexOf('*') < 0 && pattern.indexOf('?') < 0 && pattern.indexOf('{') < 0;
+    }
+}
@@ -0,0 +1,66 @@
+package am.greenbank.config;
+
+import am.greenbank.repositories.identity.IdentityMap;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens the repository identity map for each request, ahead of authentication which already
+ * loads the user, and records how many Mongo commands the request sent and how many lookups
+ * the map answered.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class RequestIdentityMapFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    protected void doFilterInternal(
+        @NonNull HttpServletRequest request,
+        @NonNull HttpServletResponse response,
+        @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        try (IdentityMap.Scope scope = IdentityMap.open()) {
+            try {
+                filterChain.doFilter(request, response);
+            } finally {
+                record(request, scope.identityMap());
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, IdentityMap identityMap) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "unknown" : pattern.toString();
+        DistributionSummary.builder("greenbank.request.queries")
+            .description("Mongo commands sent while serving one request")
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(identityMap.getQueries());
+        DistributionSummary.builder("greenbank.request.identity-map.hits")
+            .description("Repository lookups answered from the request identity map")
+            .tag("uri", uri)
+            .register(meterRegistry)
+            .record(identityMap.getHits());
+        log.debug(
+            "{} {} sent {} queries, identity map hits {}, misses {}",
+            request.getMethod(), uri, identityMap.getQueries(), identityMap.getHits(), identityMap.getMisses()
+        );
+    }
+}
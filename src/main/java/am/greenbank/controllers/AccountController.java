@@ -2,7 +2,7 @@ package am.greenbank.controllers;
 
 import am.greenbank.dtos.AccountDto;
 import am.greenbank.entities.account.Account;
-import am.greenbank.entities.user.User;
+import am.greenbank.entities.user.UserPrincipal;
 import am.greenbank.entities.user.UserRole;
 import am.greenbank.exceptions.exceptions.AccountNotFoundException;
 import am.greenbank.helpers.mappers.AccountMapper;
@@ -30,7 +30,6 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Optional;
 
 @Validated
 @RestController
@@ -146,12 +145,12 @@ public class AccountController {
         }
     )
     public ResponseEntity<Response> getAccounts(Authentication authentication, @PathVariable String userId) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         if (principal.getRole() != UserRole.ADMIN && !principal.getId().equals(userId)) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
 
-        List<Account> accounts = userService.getUserById(userId).getAccounts();
+        List<Account> accounts = userService.getUserAccounts(userId);
         List<AccountDto> allCardDtosByUserId = accounts.stream().map(accountMapper::mapAccountToAccountDto).toList();
         Response response = Response.getSuccessResponse(allCardDtosByUserId, "all user accounts are returned");
 
@@ -338,7 +337,7 @@ public class AccountController {
         }
     )
     public ResponseEntity<Response> createAccount(@RequestBody @Valid CreateAccountRequest accountRequest, Authentication authentication) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         if (!principal.getId().equals(accountRequest.getOwnerId()) && !principal.getRole().equals(UserRole.ADMIN)) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
@@ -542,16 +541,9 @@ public class AccountController {
         }
     )
     public ResponseEntity<Response> updateAccountName(@PathVariable String accountId, @RequestBody @Valid UpdateNameRequest request, Authentication authentication) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
 
-        Optional<String> accountIdOptional = principal
-            .getAccounts()
-            .stream()
-            .map(Account::getId)
-            .filter(streamAccountId -> streamAccountId.equals(accountId))
-            .findAny();
-
-        if (accountIdOptional.isEmpty() && !principal.getRole().equals(UserRole.ADMIN)) {
+        if (!principal.ownsAccount(accountId) && !principal.isAdmin()) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
 
@@ -761,9 +753,9 @@ public class AccountController {
         }
     )
     public ResponseEntity<Response> getAccountById(@PathVariable String accountId, Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
         Account account = accountService.getAccountById(accountId);
-        if (user.getRole() != UserRole.ADMIN && !user.getAccounts().contains(account)) {
+        if (!user.isAdmin() && !user.ownsAccount(account.getId())) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
 
@@ -923,9 +915,9 @@ public class AccountController {
         }
     )
     public ResponseEntity<Response> deleteAccountById(@PathVariable String accountId, Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
         Account account = accountService.getAccountById(accountId);
-        if (user.getRole() != UserRole.ADMIN && !user.getAccounts().contains(account)) {
+        if (!user.isAdmin() && !user.ownsAccount(account.getId())) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
 
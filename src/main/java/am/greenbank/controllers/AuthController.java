@@ -3,12 +3,14 @@ package am.greenbank.controllers;
 import am.greenbank.dtos.UserDto;
 import am.greenbank.entities.user.User;
 import am.greenbank.entities.user.VerificationNumber;
+import am.greenbank.exceptions.exceptions.TooManyRequestsException;
 import am.greenbank.helpers.mappers.UserMapper;
 import am.greenbank.requests.*;
 import am.greenbank.responses.*;
 import am.greenbank.services.*;
 import am.greenbank.services.email.EmailSender;
-import io.github.bucket4j.local.LocalBucket;
+import am.greenbank.services.ratelimit.RateLimitedOperation;
+import am.greenbank.services.ratelimit.RateLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -39,7 +41,7 @@ public class AuthController {
     private final EmailSender emailSender;
     private final JwtService jwtService;
     private final TokenService tokenService;
-    private final LocalBucket localBucket;
+    private final RateLimiter rateLimiter;
 
     @PostMapping("/register")
     @Operation(
@@ -474,6 +476,7 @@ public class AuthController {
         @PathVariable String userId,
         @RequestHeader(name = "X-platform") String platformName
     ) {
+        checkRateLimit(RateLimitedOperation.RESET_VERIFY_NUMBER, userId);
         User userById = userService.getUserById(userId);
 
         verificationNumberService.deleteNumbersByUserId(userId);
@@ -671,7 +674,7 @@ public class AuthController {
         @RequestBody @Valid LoginRequest request,
         HttpServletResponse httpServletResponse
     ) {
-
+        checkRateLimit(RateLimitedOperation.LOGIN, request.getEmail().toLowerCase());
         User user = authenticationService.authenticate(request, httpServletResponse);
         Response response = getResponse(platformName, httpServletResponse, user);
         response.setMessage("user successfully logged in");
@@ -916,6 +919,7 @@ public class AuthController {
 
     @PatchMapping("/forgetPassword")
     public ResponseEntity<Response> forgetPasswordEmail(@RequestBody SendEmailRequest sendEmailRequest) {
+        checkRateLimit(RateLimitedOperation.FORGET_PASSWORD, String.valueOf(sendEmailRequest.getEmail()).toLowerCase());
         String userId = authenticationService.forgetPasswordEmail(sendEmailRequest.getEmail());
 
         Response response = Response.getSuccessResponse(new SendEmailResponse(userId), "email send successfully");
@@ -947,6 +951,12 @@ public class AuthController {
         return ResponseEntity.ok(response);
     }
 
+    private void checkRateLimit(RateLimitedOperation operation, String key) {
+        if (!rateLimiter.tryAcquire(operation, key)) {
+            throw new TooManyRequestsException("Too many requests, please try again later");
+        }
+    }
+
     private static String getRefreshToken(String cookieRefreshToken, String authorizationHeader, String platformName) {
         if (platformName.equals("web")) {
             return cookieRefreshToken;
@@ -1,9 +1,8 @@
 package am.greenbank.controllers;
 
 import am.greenbank.dtos.CardDto;
-import am.greenbank.entities.account.Account;
 import am.greenbank.entities.cards.Card;
-import am.greenbank.entities.user.User;
+import am.greenbank.entities.user.UserPrincipal;
 import am.greenbank.entities.user.UserRole;
 import am.greenbank.exceptions.exceptions.CardNotFoundException;
 import am.greenbank.helpers.mappers.CardMapper;
@@ -33,7 +32,6 @@ import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.Optional;
 
 @Validated
 @RestController
@@ -210,15 +208,15 @@ public class CardController {
         }
     )
     public ResponseEntity<Response> getCardById(@PathVariable String cardId, Authentication authentication) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
 
-        if (principal.getCards() == null || principal.getCards().isEmpty()) {
+        if (principal.getCardIds().isEmpty()) {
             throw new CardNotFoundException();
         }
 
         Card cardById = cardService.getCardById(cardId);
 
-        if (!principal.getRole().equals(UserRole.ADMIN) && !principal.getCards().contains(cardById)) {
+        if (!principal.isAdmin() && !principal.ownsCard(cardById.getId())) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
 
@@ -437,7 +435,7 @@ public class CardController {
         Authentication authentication
     ) {
 
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         if (!principal.getId().equals(createCardRequest.getOwnerId()) && !principal.getRole().equals(UserRole.ADMIN)) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
@@ -567,14 +565,13 @@ public class CardController {
         }
     )
     public ResponseEntity<Response> getCardsByUserId(Authentication authentication, @PathVariable String userId) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         if (principal.getRole() != UserRole.ADMIN && !principal.getId().equals(userId)) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
 
         List<CardDto> allCardDtosByUserId = userService
-            .getUserById(userId)
-            .getCards()
+            .getUserCards(userId)
             .stream()
             .map(cardMapper::mapCardToCardDto)
             .toList();
@@ -783,16 +780,9 @@ public class CardController {
         @RequestBody @Valid UpdateNameRequest request,
         Authentication authentication
     ) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
 
-        Optional<String> cardIdOptional = principal
-            .getCards()
-            .stream()
-            .map(Card::getId)
-            .filter(streamCardId -> streamCardId.equals(cardId))
-            .findAny();
-
-        if (cardIdOptional.isEmpty() && !principal.getRole().equals(UserRole.ADMIN)) {
+        if (!principal.ownsCard(cardId) && !principal.isAdmin()) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
 
@@ -954,9 +944,9 @@ public class CardController {
     )
 
     public ResponseEntity<Response> deleteCardById(@PathVariable String cardId, Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
         Card card = cardService.getCardById(cardId);
-        if (user.getRole() != UserRole.ADMIN && !user.getCards().contains(card)) {
+        if (!user.isAdmin() && !user.ownsCard(card.getId())) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
 
@@ -3,6 +3,7 @@ package am.greenbank.controllers;
 import am.greenbank.dtos.DepositDto;
 import am.greenbank.entities.Notification;
 import am.greenbank.entities.user.User;
+import am.greenbank.entities.user.UserPrincipal;
 import am.greenbank.entities.user.UserRole;
 import am.greenbank.exceptions.exceptions.UnsupportedValueException;
 import am.greenbank.helpers.mappers.DepositMapper;
@@ -257,12 +258,12 @@ public class DepositController {
         @RequestBody @Valid CreateDepositRequest createDepositRequest,
         Authentication authentication
     ) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         User userById = userService.getUserById(createDepositRequest.getUserId());
         if (!userById.getId().equals(principal.getId()) && principal.getRole() != UserRole.ADMIN) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
-        boolean userHasAccount = userById.getAccounts().stream()
+        boolean userHasAccount = userService.getUserAccounts(userById).stream()
             .anyMatch(account -> account.getAccountNumber().equals(createDepositRequest.getFrom()));
         if (!userHasAccount) {
             throw new AccessDeniedException("User can access to data connected to him");
@@ -450,7 +451,7 @@ public class DepositController {
         }
     )
     public ResponseEntity<Response> getDepositsByUserId(@PathVariable String userId, Authentication authentication) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         User userById = userService.getUserById(userId);
         if (!userById.getId().equals(principal.getId()) && principal.getRole() != UserRole.ADMIN) {
             throw new AccessDeniedException("User can access to data connected to him");
@@ -738,12 +739,9 @@ public class DepositController {
     ) {
         validateUpdateType(updateType);
 
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         if (principal.getRole() == UserRole.USER) {
-            boolean userHasAccount = principal
-                .getAccounts()
-                .stream()
-                .anyMatch(account -> account.getAccountNumber().equals(updateDepositRequest.getFrom()));
+            boolean userHasAccount = principal.ownsAccountNumber(updateDepositRequest.getFrom());
             if (!userHasAccount) {
                 throw new AccessDeniedException("User can access to data connected to him");
             }
@@ -967,7 +965,7 @@ public class DepositController {
         @PathVariable String depositId,
         Authentication authentication
     ) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         if (principal.getRole() == UserRole.USER) {
             boolean userHasDeposit = depositService
                 .getDepositsByUserId(principal.getId())
@@ -1,5 +1,6 @@
 package am.greenbank.controllers;
 
+import am.greenbank.dtos.DepositQuoteDto;
 import am.greenbank.dtos.DepositTypeDto;
 import am.greenbank.entities.Option;
 import am.greenbank.entities.deposit.DepositType;
@@ -8,6 +9,7 @@ import am.greenbank.requests.CreateDepositTypeRequest;
 import am.greenbank.requests.UpdateDepositTypeRequest;
 import am.greenbank.responses.Response;
 import am.greenbank.services.DepositTypeService;
+import am.greenbank.services.quote.QuoteEngine;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -32,6 +34,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class DepositTypeController {
     private final DepositTypeService depositTypeService;
+    private final QuoteEngine quoteEngine;
     private final DepositTypeMapper depositTypeMapper;
 
     @PostMapping("")
@@ -354,6 +357,178 @@ public class DepositTypeController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{depositName}/quote")
+    @Operation(
+        description = "Quote for an amount on one deposit type option, the monthly schedule is added when asked for",
+        parameters = {
+            @Parameter(
+                name = "X-platform",
+                description = "Platform name either \"ios\" or \"web\"",
+                examples = {
+                    @ExampleObject(
+                        name = "Web browser",
+                        value = "web"
+
+                    ),
+                    @ExampleObject(
+                        name = "Apple smartphone",
+                        value = "ios"
+                    )
+                },
+                in = ParameterIn.HEADER
+            ),
+            @Parameter(
+                name = "depositName",
+                description = "Deposit type name",
+                examples = {
+                    @ExampleObject(
+                        name = "Deposit Name",
+                        value = "some deposit"
+                    ),
+                },
+                in = ParameterIn.PATH
+            ),
+            @Parameter(
+                name = "duration",
+                description = "Option duration in months",
+                example = "4",
+                in = ParameterIn.QUERY
+            ),
+            @Parameter(
+                name = "percent",
+                description = "Option percent",
+                example = "0.8",
+                in = ParameterIn.QUERY
+            ),
+            @Parameter(
+                name = "amount",
+                description = "Amount to quote",
+                example = "1000",
+                in = ParameterIn.QUERY
+            ),
+            @Parameter(
+                name = "schedule",
+                description = "Whether the monthly schedule is returned",
+                example = "true",
+                in = ParameterIn.QUERY
+            ),
+        },
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Success response for deposit quote request",
+                content = @Content(
+                    schema = @Schema(
+                        implementation = ResponseEntity.class
+                    ),
+                    examples = {
+                        @ExampleObject(
+                            name = "Success response for deposit quote request",
+                            description = "Success response for deposit quote request",
+                            value = """
+                                {
+                                    "status": "success",
+                                    "value" : {
+                                        "depositName": "some deposit",
+                                        "duration": 2,
+                                        "percent": 0.01,
+                                        "amount": 1000.0,
+                                        "interest": 5.9,
+                                        "total": 1005.9,
+                                        "schedule": [
+                                            {
+                                                "month": 1,
+                                                "interest": 2.9,
+                                                "balance": 1002.9
+                                            },
+                                            {
+                                                "month": 2,
+                                                "interest": 3.0,
+                                                "balance": 1005.9
+                                            }
+                                        ]
+                                    },
+                                    "message": "Deposit quote returned successfully"
+                                }
+                                """
+                        )
+                    }
+                )
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Bad Request",
+                content = @Content(
+                    schema = @Schema(
+                        implementation = ResponseEntity.class
+                    ),
+                    examples = {
+                        @ExampleObject(
+                            name = "Amount is not positive",
+                            description = "when the amount is zero or negative",
+                            value = """
+                                {
+                                    "status" : "error",
+                                    "value" : null,
+                                    "message" : "Amount must be positive"
+                                }
+                                """
+                        )
+                    }
+                )
+            ),
+            @ApiResponse(
+                responseCode = "404",
+                description = "Not Found",
+                content = @Content(
+                    schema = @Schema(
+                        implementation = ResponseEntity.class
+                    ),
+                    examples = {
+                        @ExampleObject(
+                            name = "Deposit type not found",
+                            description = "when there is no deposit type with the name",
+                            value = """
+                                {
+                                    "status" : "error",
+                                    "value" : null,
+                                    "message" : "Deposit type not found"
+                                }
+                                """
+                        ),
+                        @ExampleObject(
+                            name = "Deposit type option not found",
+                            description = "when the deposit type has no option with the duration and percent",
+                            value = """
+                                {
+                                    "status" : "error",
+                                    "value" : null,
+                                    "message" : "This option for this deposit type doesn't exist"
+                                }
+                                """
+                        )
+                    }
+                )
+            ),
+        },
+        security = {
+            @SecurityRequirement(
+                name = "bearerAuth"
+            )
+        }
+    )
+    public ResponseEntity<Response> quoteDeposit(
+        @PathVariable String depositName,
+        @RequestParam Integer duration,
+        @RequestParam Double percent,
+        @RequestParam Double amount,
+        @RequestParam(defaultValue = "false") boolean schedule
+    ) {
+        DepositQuoteDto quote = quoteEngine.quoteDeposit(depositName, new Option(duration, percent), amount, schedule);
+        Response response = Response.getSuccessResponse(quote, "Deposit quote returned successfully");
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/{depositName}/addOption")
     @Operation(
         description = "This is admin endpoint for getting all deposit type states",
@@ -4,6 +4,7 @@ import am.greenbank.dtos.LoanDto;
 import am.greenbank.entities.Notification;
 import am.greenbank.entities.loan.Loan;
 import am.greenbank.entities.user.User;
+import am.greenbank.entities.user.UserPrincipal;
 import am.greenbank.entities.user.UserRole;
 import am.greenbank.exceptions.exceptions.LoanException;
 import am.greenbank.helpers.mappers.LoanMapper;
@@ -260,12 +261,12 @@ public class LoanController {
         @RequestBody @Valid CreateLoanRequest createLoanRequest,
         Authentication authentication
     ) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         User userById = userService.getUserById(createLoanRequest.getUserId());
         if (!userById.getId().equals(principal.getId()) && principal.getRole() != UserRole.ADMIN) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
-        boolean userHasAccount = userById.getAccounts().stream()
+        boolean userHasAccount = userService.getUserAccounts(userById).stream()
             .anyMatch(account -> account.getAccountNumber().equals(createLoanRequest.getTo()));
         if (!userHasAccount) {
             throw new AccessDeniedException("User can access to data connected to him");
@@ -458,7 +459,7 @@ public class LoanController {
         }
     )
     public ResponseEntity<Response> getLoansByUserId(@PathVariable String userId, Authentication authentication) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         User userById = userService.getUserById(userId);
         if (!userById.getId().equals(principal.getId()) && principal.getRole() != UserRole.ADMIN) {
             throw new AccessDeniedException("User can access to data connected to him");
@@ -706,12 +707,9 @@ public class LoanController {
         @RequestBody @Valid UpdateLoanOrDepositRequest updateLoanOrDepositRequest,
         Authentication authentication
     ) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         if (principal.getRole() == UserRole.USER) {
-            boolean userHasAccount = principal
-                .getAccounts()
-                .stream()
-                .anyMatch(account -> account.getAccountNumber().equals(updateLoanOrDepositRequest.getFrom()));
+            boolean userHasAccount = principal.ownsAccountNumber(updateLoanOrDepositRequest.getFrom());
             if (!userHasAccount) {
                 throw new AccessDeniedException("User can access to data connected to him");
             }
@@ -910,7 +908,7 @@ public class LoanController {
         @PathVariable String loanId,
         Authentication authentication
     ) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         if (principal.getRole() == UserRole.USER) {
             boolean userHasLoan = loanService
                 .getLoansByUserId(principal.getId())
@@ -1,5 +1,6 @@
 package am.greenbank.controllers;
 
+import am.greenbank.dtos.LoanQuoteDto;
 import am.greenbank.dtos.LoanTypeDto;
 import am.greenbank.entities.loan.LoanType;
 import am.greenbank.entities.Option;
@@ -8,6 +9,7 @@ import am.greenbank.requests.CreateLoanTypeRequest;
 import am.greenbank.requests.UpdateLoanTypeRequest;
 import am.greenbank.responses.Response;
 import am.greenbank.services.LoanTypeService;
+import am.greenbank.services.quote.QuoteEngine;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.enums.ParameterIn;
@@ -32,6 +34,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class LoanTypeController {
     private final LoanTypeService loanTypeService;
+    private final QuoteEngine quoteEngine;
     private final LoanTypeMapper loanTypeMapper;
 
     @PostMapping("")
@@ -354,6 +357,183 @@ public class LoanTypeController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{loanName}/quote")
+    @Operation(
+        description = "Quote for an amount on one loan type option, the monthly schedule is added when asked for",
+        parameters = {
+            @Parameter(
+                name = "X-platform",
+                description = "Platform name either \"ios\" or \"web\"",
+                examples = {
+                    @ExampleObject(
+                        name = "Web browser",
+                        value = "web"
+
+                    ),
+                    @ExampleObject(
+                        name = "Apple smartphone",
+                        value = "ios"
+                    )
+                },
+                in = ParameterIn.HEADER
+            ),
+            @Parameter(
+                name = "loanName",
+                description = "Loan type name",
+                examples = {
+                    @ExampleObject(
+                        name = "Loan Name",
+                        value = "some loan"
+                    ),
+                },
+                in = ParameterIn.PATH
+            ),
+            @Parameter(
+                name = "duration",
+                description = "Option duration in months",
+                example = "4",
+                in = ParameterIn.QUERY
+            ),
+            @Parameter(
+                name = "percent",
+                description = "Option percent",
+                example = "0.8",
+                in = ParameterIn.QUERY
+            ),
+            @Parameter(
+                name = "amount",
+                description = "Amount to quote",
+                example = "1000",
+                in = ParameterIn.QUERY
+            ),
+            @Parameter(
+                name = "schedule",
+                description = "Whether the monthly schedule is returned",
+                example = "true",
+                in = ParameterIn.QUERY
+            ),
+        },
+        responses = {
+            @ApiResponse(
+                responseCode = "200",
+                description = "Success response for loan quote request",
+                content = @Content(
+                    schema = @Schema(
+                        implementation = ResponseEntity.class
+                    ),
+                    examples = {
+                        @ExampleObject(
+                            name = "Success response for loan quote request",
+                            description = "Success response for loan quote request",
+                            value = """
+                                {
+                                    "status": "success",
+                                    "value" : {
+                                        "loanName": "some loan",
+                                        "duration": 2,
+                                        "percent": 0.9,
+                                        "amount": 1000.0,
+                                        "dailyInterestRate": 0.0003,
+                                        "payment": 16.9667,
+                                        "totalInterest": 18.0,
+                                        "schedule": [
+                                            {
+                                                "month": 1,
+                                                "principal": 500.0,
+                                                "interest": 9.0,
+                                                "payment": 509.0,
+                                                "remainingPrincipal": 500.0
+                                            },
+                                            {
+                                                "month": 2,
+                                                "principal": 500.0,
+                                                "interest": 9.0,
+                                                "payment": 509.0,
+                                                "remainingPrincipal": 0.0
+                                            }
+                                        ]
+                                    },
+                                    "message": "Loan quote returned successfully"
+                                }
+                                """
+                        )
+                    }
+                )
+            ),
+            @ApiResponse(
+                responseCode = "400",
+                description = "Bad Request",
+                content = @Content(
+                    schema = @Schema(
+                        implementation = ResponseEntity.class
+                    ),
+                    examples = {
+                        @ExampleObject(
+                            name = "Amount is not positive",
+                            description = "when the amount is zero or negative",
+                            value = """
+                                {
+                                    "status" : "error",
+                                    "value" : null,
+                                    "message" : "Amount must be positive"
+                                }
+                                """
+                        )
+                    }
+                )
+            ),
+            @ApiResponse(
+                responseCode = "404",
+                description = "Not Found",
+                content = @Content(
+                    schema = @Schema(
+                        implementation = ResponseEntity.class
+                    ),
+                    examples = {
+                        @ExampleObject(
+                            name = "Loan type not found",
+                            description = "when there is no loan type with the name",
+                            value = """
+                                {
+                                    "status" : "error",
+                                    "value" : null,
+                                    "message" : "Loan type not found"
+                                }
+                                """
+                        ),
+                        @ExampleObject(
+                            name = "Loan type option not found",
+                            description = "when the loan type has no option with the duration and percent",
+                            value = """
+                                {
+                                    "status" : "error",
+                                    "value" : null,
+                                    "message" : "This option for this loan type doesn't exist"
+                                }
+                                """
+                        )
+                    }
+                )
+            ),
+        },
+        security = {
+            @SecurityRequirement(
+                name = "bearerAuth"
+            )
+        }
+    )
+    public ResponseEntity<Response> quoteLoan(
+        @PathVariable String loanName,
+        @RequestParam Integer duration,
+        @RequestParam Double percent,
+        @RequestParam Double amount,
+        @RequestParam(defaultValue = "false") boolean schedule
+    ) {
+        LoanQuoteDto quote = quoteEngine.quoteLoan(loanName, new Option(duration, percent), amount, schedule);
+        Response response = Response.getSuccessResponse(quote, "Loan quote returned successfully");
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/{loanName}/addOption")
     @Operation(
         description = "This is admin endpoint for getting all loan type states",
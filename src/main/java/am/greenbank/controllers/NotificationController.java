@@ -2,7 +2,7 @@ package am.greenbank.controllers;
 
 import am.greenbank.dtos.NotificationDto;
 import am.greenbank.entities.Notification;
-import am.greenbank.entities.user.User;
+import am.greenbank.entities.user.UserPrincipal;
 import am.greenbank.helpers.mappers.NotificationMapper;
 import am.greenbank.responses.Response;
 import am.greenbank.services.NotificationServie;
@@ -176,7 +176,7 @@ public class NotificationController {
         }
     )
     public ResponseEntity<Response> getAllByUserId(@PathVariable String userId, Authentication authentication) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         if (!principal.getId().equals(userId)) {
             throw new AccessDeniedException("User can access to data connected to him/her");
         }
@@ -349,16 +349,7 @@ public class NotificationController {
         }
     )
     public ResponseEntity<Response> getNotificationById(@PathVariable String notificationId, Authentication authentication) {
-        User user = (User) authentication.getPrincipal();
-
-        boolean userHasNotification = user
-            .getNotifications()
-            .stream()
-            .anyMatch(notificationIdFromList -> notificationIdFromList.equals(notificationId));
-
-        if (!userHasNotification) {
-            throw new AccessDeniedException("User can access to data connected to him");
-        }
+        UserPrincipal user = (UserPrincipal) authentication.getPrincipal();
 
         Notification notification = notificationServie.readNotificationById(notificationId, user.getId());
         NotificationDto notificationDto = notificationMapper.mapNotificationToNotificationDto(notification);
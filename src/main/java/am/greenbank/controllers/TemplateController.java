@@ -2,7 +2,7 @@ package am.greenbank.controllers;
 
 import am.greenbank.dtos.TemplateDto;
 import am.greenbank.entities.transaction.Template;
-import am.greenbank.entities.user.User;
+import am.greenbank.entities.user.UserPrincipal;
 import am.greenbank.entities.user.UserRole;
 import am.greenbank.helpers.mappers.TemplateMapper;
 import am.greenbank.responses.Response;
@@ -611,7 +611,7 @@ public class TemplateController {
         }
     )
     public ResponseEntity<Response> getAllSavedTransactionsByUserId(@PathVariable String userId, Authentication authentication) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         if (!principal.getId().equals(userId) && !principal.getRole().equals(UserRole.ADMIN)) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
@@ -2,12 +2,9 @@ package am.greenbank.controllers;
 
 import am.greenbank.dtos.TransactionDto;
 import am.greenbank.entities.Notification;
-import am.greenbank.entities.account.Account;
-import am.greenbank.entities.cards.Card;
 import am.greenbank.entities.transaction.Transaction;
 import am.greenbank.entities.transaction.TransactionEntity;
-import am.greenbank.entities.user.User;
-import am.greenbank.entities.user.UserRole;
+import am.greenbank.entities.user.UserPrincipal;
 import am.greenbank.exceptions.exceptions.CustomMethodArgumentNotValidException;
 import am.greenbank.exceptions.exceptions.UnsupportedValueException;
 import am.greenbank.helpers.mappers.NotificationMapper;
@@ -52,9 +49,7 @@ import java.time.LocalDateTime;
 public class TransactionController {
     private final TransactionService transactionService;
     private final TransactionMapper transactionMapper;
-    private final AccountService accountService;
-    private final CardService cardService;
-    private final JwtService jwtService;
+    private final QRTokenService qrTokenService;
     private final NotificationServie notificationServie;
     private final NotificationMapper notificationMapper;
 
@@ -133,7 +128,7 @@ public class TransactionController {
                         value = """
                             {
                                  "from": "1345436382311342",
-                                 "to": "eyJhbGciOiJIUzI1NiJ9.*.*",
+                                 "to": "AQBnHhb7xmW4rGq1Z0OdEBNFNmOCMTNC1ZrE9x0aq2Mu",
                                  "amount": 500,
                                  "description": "example of transaction A2QRA",
                                  "type": "QR_ACCOUNT"
@@ -146,7 +141,7 @@ public class TransactionController {
                         value = """
                             {
                                 "from": "4345436382311342",
-                                "to": "eyJhbGciOiJIUzI1NiJ9.*.*",
+                                "to": "AQBnHhb7xmW4rGq1Z0OdEBNFNmOCMTNC1ZrE9x0aq2Mu",
                                 "amount": 500,
                                 "description": "example of transaction C2QRC",
                                 "type": "QR_CARD"
@@ -544,7 +539,7 @@ public class TransactionController {
         Authentication authentication
     ) {
         Transaction transaction = transactionMapper.mapTransactionRequestToTransaction(transactionRequest);
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         checkAccess(principal, transaction.getFrom());
         Transaction savedTransaction = transactionService.createTransaction(transaction);
         Notification notificationToSender = notificationMapper.getNotificationFromTransactionForSender(savedTransaction);
@@ -623,7 +618,7 @@ public class TransactionController {
                             value = """ 
                                 {
                                     "status": "success",
-                                    "value": "eyJhbGciOiJIUzI1NiJ9.*.*",
+                                    "value": "AQBnHhb7xmW4rGq1Z0OdEBNFNmOCMTNC1ZrE9x0aq2Mu",
                                     "message": "Data successfully encrypted"
                                 }
                                 """
@@ -754,10 +749,10 @@ public class TransactionController {
         @RequestParam(name = "type") QRType type,
         Authentication authentication
     ) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         checkAccess(principal, number, type);
 
-        String qrData = jwtService.generateQRCodeData(number, type);
+        String qrData = qrTokenService.generate(number, type);
         Response response = Response.getSuccessResponse(qrData, "Data successfully encrypted");
 
         return ResponseEntity.ok(response);
@@ -1086,7 +1081,7 @@ public class TransactionController {
         int size,
         Authentication authentication
     ) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         checkAccess(principal, accountNumber, cardNumber, userId);
 
         Pageable pageable = PageRequest.of(page - 1, size);
@@ -1116,30 +1111,24 @@ public class TransactionController {
         return ResponseEntity.ok(response);
     }
 
-    private void checkAccess(User principal, String accountNumber, String cardNumber, String userId) {
+    private void checkAccess(UserPrincipal principal, String accountNumber, String cardNumber, String userId) {
         boolean present;
         if (accountNumber != null) {
-            present = principal
-                .getAccounts()
-                .parallelStream()
-                .anyMatch(account -> account.getAccountNumber().equals(accountNumber));
+            present = principal.ownsAccountNumber(accountNumber);
         } else if (cardNumber != null) {
-            present = principal
-                .getCards()
-                .parallelStream()
-                .anyMatch(card -> card.getCardNumber().equals(cardNumber));
+            present = principal.ownsCardNumber(cardNumber);
         } else if (userId != null) {
-            present = principal.getId().equals(userId);
+            present = principal.isUser(userId);
         } else {
             throw new CustomMethodArgumentNotValidException("accountNumber or cardNumber or userId should be provided");
         }
 
-        if (!present && !principal.getRole().equals(UserRole.ADMIN)) {
+        if (!present && !principal.isAdmin()) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
     }
 
-    private void checkAccess(User principal, TransactionEntity transactionEntity) {
+    private void checkAccess(UserPrincipal principal, TransactionEntity transactionEntity) {
         switch (transactionEntity.getType()) {
             case CARD -> checkCardAccess(principal, transactionEntity.getNumber());
             case ACCOUNT -> checkAccountAccess(principal, transactionEntity.getNumber());
@@ -1147,23 +1136,21 @@ public class TransactionController {
         }
     }
 
-    public void checkAccess(User principal, String number, QRType type) {
+    public void checkAccess(UserPrincipal principal, String number, QRType type) {
         switch (type) {
             case CARD -> checkCardAccess(principal, number);
             case ACCOUNT -> checkAccountAccess(principal, number);
         }
     }
 
-    private void checkCardAccess(User principal, String cardNumber) {
-        Card card = cardService.getCardByCardNumber(cardNumber);
-        if (!principal.getCards().contains(card)) {
+    private void checkCardAccess(UserPrincipal principal, String cardNumber) {
+        if (!principal.ownsCardNumber(cardNumber)) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
     }
 
-    private void checkAccountAccess(User principal, String accountNumber) {
-        Account account = accountService.getAccountByAccountNumber(accountNumber);
-        if (!principal.getAccounts().contains(account)) {
+    private void checkAccountAccess(UserPrincipal principal, String accountNumber) {
+        if (!principal.ownsAccountNumber(accountNumber)) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
     }
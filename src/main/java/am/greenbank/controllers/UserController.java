@@ -4,6 +4,7 @@ import am.greenbank.dtos.ImageDto;
 import am.greenbank.dtos.UserDto;
 import am.greenbank.entities.image.Image;
 import am.greenbank.entities.user.User;
+import am.greenbank.entities.user.UserPrincipal;
 import am.greenbank.entities.user.UserRole;
 import am.greenbank.helpers.mappers.ImageMapper;
 import am.greenbank.helpers.mappers.UserMapper;
@@ -13,9 +14,12 @@ import am.greenbank.requests.UpdateEmailRequest;
 import am.greenbank.requests.VerifyRequest;
 import am.greenbank.responses.SendEmailResponse;
 import am.greenbank.responses.Response;
+import am.greenbank.responses.UserPageResponse;
 import am.greenbank.services.ImageService;
 import am.greenbank.services.UserService;
 import am.greenbank.services.VerificationNumberService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.StringToClassMapItem;
@@ -27,6 +31,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
@@ -39,9 +45,12 @@ import org.springframework.security.core.Authentication;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Validated
 @RestController
@@ -54,6 +63,7 @@ public class UserController {
     private final UserMapper userMapper;
     private final ImageMapper imageMapper;
     private final VerificationNumberService verificationNumberService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/{userId}")
     @Operation(
@@ -221,7 +231,7 @@ public class UserController {
 
 //    @PreAuthorize("@userService.getUserById(#userId).username == principal.username or hasRole('ADMIN')")
     public ResponseEntity<Response> getUserById(@PathVariable String userId, Authentication authentication) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         if (!principal.getId().equals(userId) && !principal.getRole().equals(UserRole.ADMIN)) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
@@ -234,7 +244,7 @@ public class UserController {
 
     @GetMapping("")
     @Operation(
-        description = "Fetches the profiles of all users. Accessible by the admins.",
+        description = "Fetches one page of user profiles ordered by id. Pass the returned nextCursor as after to get the next page. Accessible by the admins.",
         parameters = @Parameter(
             name = "X-platform",
             description = "Platform name either \"ios\" or \"web\"",
@@ -264,29 +274,34 @@ public class UserController {
                             value = """ 
                                 {
                                     "status" : "success",
-                                    "value" : [
-                                        {
-                                            "id" : "userId",
-                                            "firstName": "Clark'",
-                                            "lastName": "Kent",
-                                            "email": "clarkkent@gmail.com",
-                                            "birthday": "29-02-1996",
-                                            "password": "clarkkent",
-                                            "phone": "+37414717322"
-                                            "img" : "userImage or null"
-                                            "accounts": [
-                                                "accountId1",
-                                                "accountId2",
-                                                "accountId3"
-                                            ]
-                                            "cards": [
-                                                "cardId1",
-                                                "cardId2",
-                                                "cardId3"
-                                            ]
-                                        }
-                                    ],
-                                    "message" : "user successfully registered"
+                                    "value" : {
+                                        "users" : [
+                                            {
+                                                "id" : "userId",
+                                                "firstName": "Clark'",
+                                                "lastName": "Kent",
+                                                "email": "clarkkent@gmail.com",
+                                                "birthday": "29-02-1996",
+                                                "phone": "+37414717322"
+                                                "img" : "userImage or null"
+                                                "accounts": [
+                                                    "accountId1",
+                                                    "accountId2",
+                                                    "accountId3"
+                                                ]
+                                                "cards": [
+                                                    "cardId1",
+                                                    "cardId2",
+                                                    "cardId3"
+                                                ]
+                                                "unreadNotifications": 0
+                                            }
+                                        ],
+                                        "nextCursor" : "userId",
+                                        "pageSize" : 50,
+                                        "last" : false
+                                    },
+                                    "message" : "All users are successfully returned"
                                     }
                                 """
                         )
@@ -369,13 +384,60 @@ public class UserController {
         }
     )
     @PreAuthorize("hasAuthority('ROLE_ADMIN')")
-    public ResponseEntity<Response> getAllUsers(Authentication authentication) {
-        List<User> users = userService.getAllUsers();
-        List<UserDto> list = users.stream().map(userMapper::mapUserToUserDto).toList();
-        Response response = Response.getSuccessResponse(list, "All users are successfully returned");
+    public ResponseEntity<Response> getAllUsers(
+        @RequestParam(name = "after", required = false) String after,
+        @RequestParam(name = "pageSize", defaultValue = "50")
+        @Min(value = 1, message = "Page size should be at least 1")
+        @Max(value = 500, message = "Page size should be at most 500")
+        int pageSize,
+        Authentication authentication
+    ) {
+        List<User> users = userService.getUsersPage(after, pageSize);
+        boolean last = users.size() <= pageSize;
+        List<UserDto> list = users
+            .stream()
+            .limit(pageSize)
+            .map(userMapper::mapUserToUserDto)
+            .toList();
+
+        UserPageResponse userPageResponse = UserPageResponse
+            .builder()
+            .users(list)
+            .nextCursor(last || list.isEmpty() ? null : list.get(list.size() - 1).getId())
+            .pageSize(pageSize)
+            .last(last)
+            .build();
+        Response response = Response.getSuccessResponse(userPageResponse, "All users are successfully returned");
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        description = "Streams the profiles of all users as one JSON array straight from the database cursor. Accessible by the admins.",
+        security = {
+            @SecurityRequirement(
+                name = "bearerAuth"
+            )
+        }
+    )
+    @PreAuthorize("hasAuthority('ROLE_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        StreamingResponseBody body = outputStream -> {
+            try (
+                Stream<User> users = userService.streamUsers();
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+            ) {
+                generator.writeStartArray();
+                Iterator<User> iterator = users.iterator();
+                while (iterator.hasNext()) {
+                    objectMapper.writeValue(generator, userMapper.mapUserToUserDto(iterator.next()));
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     @PatchMapping(value = "/{userId}")
     @Operation(
         description = "Updates the profile for a specific user. Accessible by the user themselves and admins.",
@@ -588,7 +650,7 @@ public class UserController {
         @RequestPart(value = "image", required = false) MultipartFile image,
         Authentication authentication
     ) throws IOException {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         if (!principal.getId().equals(userId) && !principal.getRole().equals(UserRole.ADMIN)) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
@@ -755,7 +817,7 @@ public class UserController {
     )
 //    @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Response> deleteUser(@PathVariable String userId, Authentication authentication) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
         if (!principal.getId().equals(userId) && !principal.getRole().equals(UserRole.ADMIN)) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
@@ -914,8 +976,8 @@ public class UserController {
         }
     )
     public ResponseEntity<Response> getImageInfoByImageId(@PathVariable String imageId, Authentication authentication) {
-        User principal = (User) authentication.getPrincipal();
-        if (!principal.getImg().equals(imageId) && !principal.getRole().equals(UserRole.ADMIN)) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        if (!imageId.equals(principal.getImg()) && !principal.isAdmin()) {
             throw new AccessDeniedException("User can access to data connected to him");
         }
         Image image = imageDataService.getImageById(imageId);
@@ -965,7 +1027,7 @@ public class UserController {
         @Valid @RequestBody ChangePasswordRequest changePasswordRequest,
         Authentication authentication
     ) {
-        User principal = (User) authentication.getPrincipal();
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
 
         User user = userService.changePassword(principal.getId(), changePasswordRequest.getOldPassword(), changePasswordRequest.getNewPassword(), changePasswordRequest.getConfirmNewPassword());
 
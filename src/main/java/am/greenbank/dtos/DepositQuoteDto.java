@@ -0,0 +1,22 @@
+package am.greenbank.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DepositQuoteDto {
+    private String depositName;
+    private Integer duration;
+    private Double percent;
+    private Double amount;
+    private Double interest;
+    private Double total;
+    private List<DepositScheduleEntryDto> schedule;
+}
@@ -0,0 +1,16 @@
+package am.greenbank.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class DepositScheduleEntryDto {
+    private Integer month;
+    private Double interest;
+    private Double balance;
+}
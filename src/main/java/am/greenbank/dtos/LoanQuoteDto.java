@@ -0,0 +1,23 @@
+package am.greenbank.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoanQuoteDto {
+    private String loanName;
+    private Integer duration;
+    private Double percent;
+    private Double amount;
+    private Double dailyInterestRate;
+    private Double payment;
+    private Double totalInterest;
+    private List<LoanScheduleEntryDto> schedule;
+}
@@ -0,0 +1,18 @@
+package am.greenbank.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoanScheduleEntryDto {
+    private Integer month;
+    private Double principal;
+    private Double interest;
+    private Double payment;
+    private Double remainingPrincipal;
+}
@@ -40,4 +40,5 @@ public class UserDto implements Value {
 
     private List<String> accounts;
     private List<String> cards;
+    private long unreadNotifications;
 }
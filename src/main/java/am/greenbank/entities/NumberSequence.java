@@ -0,0 +1,19 @@
+package am.greenbank.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "numberSequences")
+public class NumberSequence {
+    @Id
+    private String id;
+    private long next;
+}
@@ -0,0 +1,22 @@
+package am.greenbank.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "rateLimitCounters")
+public class RateLimitCounter {
+    @Id
+    private String id;
+    private long count;
+    private LocalDateTime expiresAt;
+}
@@ -26,5 +26,6 @@ public class Account {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private boolean deleted;
+    private LocalDateTime deletedAt;
 }
 
@@ -9,6 +9,8 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.DBRef;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDateTime;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,11 +23,12 @@ public class Card {
     private String cardNumber;
     private CardType cardType;
     private String expirationDate;
-    @DBRef
+    @DBRef(lazy = true)
     private Account account;
     private String cardHolderFullName;
     private String cvv;
     private String pin;
     private CardColour colour;
     private boolean deleted;
+    private LocalDateTime deletedAt;
 }
@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Data
@@ -28,4 +29,8 @@ public class Deposit {
     private Double percent;
     private Currency currency;
     private String depositName;
+    private LocalDate lastAccruedDate;
+    private String settlementId;
+    private LocalDateTime settlingSince;
+    private Boolean payingOut;
 }
@@ -0,0 +1,11 @@
+package am.greenbank.entities.deposit;
+
+import java.time.LocalDate;
+
+/**
+ * Interest earned by a deposit from the day after {@code accruedFrom} up to and including
+ * {@code accruedThrough}. {@code accruedFrom} is the deposit's stored {@code lastAccruedDate}
+ * when it was read, the write only lands if it is still the same.
+ */
+public record DepositAccrual(String depositId, LocalDate accruedFrom, LocalDate accruedThrough, double interest) {
+}
@@ -2,5 +2,6 @@ package am.greenbank.entities.deposit;
 
 public enum DepositStatus {
     IN_PROGRESS,
+    SETTLING,
     CLOSED
 }
@@ -7,6 +7,8 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDateTime;
+
 @Document(collection = "imageData")
 @Data
 @Builder
@@ -19,4 +21,5 @@ public class Image {
     private String type;
     private byte[] imageData;
     private boolean deleted;
+    private LocalDateTime deletedAt;
 }
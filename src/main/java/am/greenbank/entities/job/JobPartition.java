@@ -0,0 +1,39 @@
+package am.greenbank.entities.job;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Key range of a job run that one node at a time works on under a lease. {@code lastId} and
+ * {@code processed} are the checkpoint a node taking over resumes from.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "jobPartitions")
+public class JobPartition {
+    @Id
+    private String id;
+    private String runId;
+    private int index;
+    private String lowerId;
+    private String upperId;
+    private JobPartitionStatus status;
+    private String owner;
+    private LocalDateTime leaseUntil;
+    private int attempts;
+    private String lastId;
+    private long processed;
+    private LocalDateTime completedAt;
+
+    public KeyRange range() {
+        return new KeyRange(lowerId, upperId);
+    }
+}
@@ -0,0 +1,7 @@
+package am.greenbank.entities.job;
+
+public enum JobPartitionStatus {
+    PENDING,
+    RUNNING,
+    DONE
+}
@@ -0,0 +1,29 @@
+package am.greenbank.entities.job;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One run of a cluster-wide job, keyed by job name and run date. The node holding the lease
+ * while it is {@code PLANNING} splits the work into partitions. A run with a partition out of
+ * attempts ends {@code FAILED}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "jobRuns")
+public class JobRun {
+    @Id
+    private String id;
+    private JobRunStatus status;
+    private String owner;
+    private LocalDateTime leaseUntil;
+    private int partitions;
+}
@@ -0,0 +1,9 @@
+package am.greenbank.entities.job;
+
+/**
+ * Slice of a collection by {@code _id}, from {@code lowerId} inclusive to {@code upperId}
+ * exclusive. A missing bound leaves that side open.
+ */
+public record KeyRange(String lowerId, String upperId) {
+    public static final KeyRange ALL = new KeyRange(null, null);
+}
@@ -0,0 +1,7 @@
+package am.greenbank.entities.loan;
+
+/**
+ * A loan right before and right after one payment was applied to it.
+ */
+public record AppliedLoanPayment(Loan before, Loan after) {
+}
@@ -0,0 +1,68 @@
+package am.greenbank.entities.loan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loan standing of one user, kept up to date as loans are opened, paid and settled. Loans in
+ * progress are kept one entry each, so missed days are worked out per loan from today without a
+ * daily rewrite. Loans that left progress only count towards their outcome.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document("creditProfiles")
+public class CreditProfile {
+    @Id
+    private String userId;
+    @Builder.Default
+    private Map<String, LoanProgress> inProgress = new HashMap<>();
+    private long paidLoans;
+    private long latePaidLoans;
+    private LocalDate lastLatePaidDate;
+    private long notPaidLoans;
+    private String tierId;
+
+    public int inProgressLoans() {
+        return inProgress.size();
+    }
+
+    /**
+     * Missed days of every loan in progress, summed.
+     */
+    public long missedDays(LocalDate today) {
+        return inProgress.values().stream().mapToLong(progress -> progress.missedDays(today)).sum();
+    }
+
+    /**
+     * The profile built from scratch out of all loans of the user.
+     */
+    public static CreditProfile of(String userId, List<Loan> loans) {
+        CreditProfile profile = CreditProfile.builder().userId(userId).build();
+        for (Loan loan : loans) {
+            if (loan.getStatus() == LoanStatus.IN_PROGRESS) {
+                profile.inProgress.put(loan.getId(), LoanProgress.of(loan));
+            } else if (loan.getStatus() != null) {
+                CreditProfileChange outcome = CreditProfileChange.settled(loan);
+                profile.paidLoans += outcome.paidLoans();
+                profile.latePaidLoans += outcome.latePaidLoans();
+                profile.notPaidLoans += outcome.notPaidLoans();
+                if (outcome.latePaidOn() != null
+                    && (profile.lastLatePaidDate == null || outcome.latePaidOn().isAfter(profile.lastLatePaidDate))) {
+                    profile.lastLatePaidDate = outcome.latePaidOn();
+                }
+            }
+        }
+        return profile;
+    }
+}
@@ -0,0 +1,64 @@
+package am.greenbank.entities.loan;
+
+import java.time.LocalDate;
+
+/**
+ * What one loan moving between states does to its owner's {@link CreditProfile}. While in
+ * progress the loan's {@link LoanProgress} is kept under its id. When it leaves progress the
+ * entry goes and the counter of its outcome grows, and the entry is what guards that step, so
+ * applying the same change twice counts it once.
+ */
+public record CreditProfileChange(
+    String userId,
+    String loanId,
+    LoanProgress progress,
+    boolean leftProgress,
+    long paidLoans,
+    long latePaidLoans,
+    LocalDate latePaidOn,
+    long notPaidLoans,
+    String tierId
+) {
+    public static CreditProfileChange opened(Loan loan) {
+        return between(null, loan);
+    }
+
+    public static CreditProfileChange between(Loan before, Loan after) {
+        if (after.getStatus() == LoanStatus.IN_PROGRESS) {
+            return new CreditProfileChange(after.getUserId(), after.getId(), LoanProgress.of(after), false, 0, 0, null, 0, null);
+        }
+        if (before == null || before.getStatus() != LoanStatus.IN_PROGRESS) {
+            return new CreditProfileChange(after.getUserId(), after.getId(), null, false, 0, 0, null, 0, null);
+        }
+        return left(after);
+    }
+
+    /**
+     * A loan the settlement moved out of progress.
+     */
+    public static CreditProfileChange settled(Loan loan) {
+        return loan.getStatus() == LoanStatus.IN_PROGRESS ? opened(loan) : left(loan);
+    }
+
+    /**
+     * A loan paid off after its end date counts as paid late, on the day of its last payment.
+     */
+    private static CreditProfileChange left(Loan loan) {
+        if (loan.getStatus() == LoanStatus.NOT_PAYED) {
+            return new CreditProfileChange(loan.getUserId(), loan.getId(), null, true, 0, 0, null, 1, null);
+        }
+        LocalDate lastPayment = loan.getLastPaymentDate();
+        boolean late = lastPayment != null && loan.getEndDate() != null && loan.getEndDate().isBefore(lastPayment.atStartOfDay());
+        return new CreditProfileChange(loan.getUserId(), loan.getId(), null, true, 1, late ? 1 : 0, late ? lastPayment : null, 0, null);
+    }
+
+    public boolean isEmpty() {
+        return progress == null && !leftProgress;
+    }
+
+    public CreditProfileChange withTier(String tierId) {
+        return new CreditProfileChange(
+            userId, loanId, progress, leftProgress, paidLoans, latePaidLoans, latePaidOn, notPaidLoans, tierId
+        );
+    }
+}
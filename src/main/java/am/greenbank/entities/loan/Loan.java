@@ -10,12 +10,15 @@ import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.List;
 
+/**
+ * The payments themselves are kept by month in {@link LoanPaymentBucket}, the loan only holds
+ * their summary.
+ */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Document(collection = "loans")
 public class Loan {
     @Id
@@ -32,6 +35,9 @@ public class Loan {
     private String loanName;
     private Integer duration;
     private Double payment;
-    private List<LocalDate> paymentDays;
-    private List<String> paymentTransactionIds;
+    private LocalDate lastPaymentDate;
+    private Integer paymentCount;
+    private Double totalPaid;
+    private LocalDate lastAccruedDate;
+    private String settlementId;
 }
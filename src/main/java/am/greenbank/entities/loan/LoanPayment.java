@@ -0,0 +1,22 @@
+package am.greenbank.entities.loan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * One payment on a loan. Payments moved over from the old {@code paymentDays} list only know
+ * their day.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class LoanPayment {
+    private LocalDate day;
+    private Double amount;
+    private String transactionId;
+}
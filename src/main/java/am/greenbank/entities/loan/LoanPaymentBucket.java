@@ -0,0 +1,33 @@
+package am.greenbank.entities.loan;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * The payments made on one loan in one month, keyed {@code <loanId>:<yyyy-MM>}.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document("loanPayments")
+public class LoanPaymentBucket {
+    @Id
+    private String id;
+    private String loanId;
+    private String month;
+    private List<LoanPayment> payments;
+    private int count;
+    private double total;
+
+    public static String idOf(String loanId, YearMonth month) {
+        return loanId + ":" + month;
+    }
+}
@@ -0,0 +1,25 @@
+package am.greenbank.entities.loan;
+
+import java.time.LocalDate;
+
+/**
+ * Where one loan in progress stands in its owner's {@link CreditProfile}: the day it started and
+ * how many payments were made on it.
+ */
+public record LoanProgress(long startDay, long payments) {
+    public static LoanProgress of(Loan loan) {
+        return new LoanProgress(
+            loan.getStartDate().toLocalDate().toEpochDay(),
+            loan.getPaymentCount() == null ? 0 : loan.getPaymentCount()
+        );
+    }
+
+    /**
+     * How far the payments are from one per day since the start, either way. A loan taken today
+     * has missed nothing.
+     */
+    public long missedDays(LocalDate today) {
+        long elapsed = today.toEpochDay() - startDay;
+        return elapsed == 0 ? 0 : Math.abs(elapsed - payments);
+    }
+}
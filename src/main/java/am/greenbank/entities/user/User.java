@@ -35,11 +35,11 @@ public class User implements UserDetails {
     private String img;
     private UserRole role;
     private List<String> oldPasswords;
-    @DBRef
+    @DBRef(lazy = true)
     private List<Account> accounts;
-    @DBRef
+    @DBRef(lazy = true)
     private List<Card> cards;
-    private List<String> notifications;
+    private long unreadNotifications;
     private boolean canChangePassword;
     private boolean canChangeEmail;
     private String futureEmail;
@@ -48,6 +48,7 @@ public class User implements UserDetails {
     private String creditworthinessId;
     private Integer unblockDuration;
     private boolean deleted = false;
+    private LocalDateTime deletedAt;
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
@@ -0,0 +1,88 @@
+package am.greenbank.entities.user;
+
+import am.greenbank.entities.account.Account;
+import am.greenbank.entities.cards.Card;
+import lombok.Getter;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable view of the authenticated user kept in the security context.
+ * Holds only what access checks need, ownership lookups are hash set lookups.
+ */
+@Getter
+public final class UserPrincipal implements AuthenticatedPrincipal {
+    private final String id;
+    private final String email;
+    private final UserRole role;
+    private final String img;
+    private final Collection<? extends GrantedAuthority> authorities;
+    private final Set<String> accountIds;
+    private final Set<String> accountNumbers;
+    private final Set<String> cardIds;
+    private final Set<String> cardNumbers;
+
+    private UserPrincipal(User user) {
+        this.id = user.getId();
+        this.email = user.getEmail();
+        this.role = user.getRole();
+        this.img = user.getImg();
+        this.authorities = List.copyOf(user.getAuthorities());
+        this.accountIds = collect(user.getAccounts(), Account::getId);
+        this.accountNumbers = collect(user.getAccounts(), Account::getAccountNumber);
+        this.cardIds = collect(user.getCards(), Card::getId);
+        this.cardNumbers = collect(user.getCards(), Card::getCardNumber);
+    }
+
+    public static UserPrincipal of(User user) {
+        return new UserPrincipal(user);
+    }
+
+    public boolean isAdmin() {
+        return role == UserRole.ADMIN;
+    }
+
+    public boolean isUser(String userId) {
+        return id.equals(userId);
+    }
+
+    public boolean ownsAccount(String accountId) {
+        return accountId != null && accountIds.contains(accountId);
+    }
+
+    public boolean ownsAccountNumber(String accountNumber) {
+        return accountNumber != null && accountNumbers.contains(accountNumber);
+    }
+
+    public boolean ownsCard(String cardId) {
+        return cardId != null && cardIds.contains(cardId);
+    }
+
+    public boolean ownsCardNumber(String cardNumber) {
+        return cardNumber != null && cardNumbers.contains(cardNumber);
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    private static <T> Set<String> collect(List<T> items, Function<T, String> key) {
+        if (items == null) {
+            return Set.of();
+        }
+        return items
+            .stream()
+            .filter(Objects::nonNull)
+            .map(key)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,7 @@
+package am.greenbank.exceptions.exceptions;
+
+public class InvalidQRCodeException extends RuntimeException {
+    public InvalidQRCodeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package am.greenbank.exceptions.exceptions;
+
+public class JobRunFailedException extends RuntimeException {
+    public JobRunFailedException(String message) {
+        super(message);
+    }
+}
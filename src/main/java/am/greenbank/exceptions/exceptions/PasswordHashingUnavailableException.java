@@ -0,0 +1,7 @@
+package am.greenbank.exceptions.exceptions;
+
+public class PasswordHashingUnavailableException extends RuntimeException {
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package am.greenbank.exceptions.exceptions;
+
+public class TooManyRequestsException extends RuntimeException {
+    public TooManyRequestsException(String message) {
+        super(message);
+    }
+}
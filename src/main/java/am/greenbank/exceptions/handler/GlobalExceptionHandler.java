@@ -144,6 +144,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<Response> handleTooManyRequestsException(TooManyRequestsException exception) {
+        Response errorResponse = Response.getErrorResponse(exception.getLocalizedMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<Response> handlePasswordHashingUnavailableException(PasswordHashingUnavailableException exception) {
+        Response errorResponse = Response.getErrorResponse(exception.getLocalizedMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Response> handleOtherExceptions(Exception exception) {
         Response errorResponse = Response.getErrorResponse(exception.getLocalizedMessage());
@@ -5,7 +5,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.text.DecimalFormat;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Component
 @RequiredArgsConstructor
@@ -13,7 +13,7 @@ public final class AccountDataGenerator {
     private final DecimalFormat decimalFormat;
 
     public Double generateBalance() {
-        Random random = new Random();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
         int min = 0;
         int max = 10000;
         double balance = min + (max - min) * random.nextDouble();
@@ -21,17 +21,5 @@ public final class AccountDataGenerator {
         return Double.parseDouble(formattedNumber);
     }
 
-    public String generateAccountNumber() {
-        int length = 16;
-        Random random = new Random();
-        StringBuilder accountNumber = new StringBuilder();
-        for (int i = 0; i < length; i++) {
-            int digit = random.nextInt(10);
-            accountNumber.append(digit);
-        }
-
-        return accountNumber.toString();
-    }
-
 
 }
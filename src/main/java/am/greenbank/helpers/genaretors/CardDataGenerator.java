@@ -1,26 +1,25 @@
 package am.greenbank.helpers.genaretors;
 
-import am.greenbank.entities.cards.CardType;
 import lombok.NoArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.security.SecureRandom;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.Random;
 
 @NoArgsConstructor
 @Component
 public final class CardDataGenerator {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
     public String generatePIN() {
-        Random random = new Random();
-        int pinNumber = random.nextInt(9000) + 1000;
+        int pinNumber = RANDOM.nextInt(9000) + 1000;
 
         return String.format("%04d", pinNumber);
     }
 
     public String generateCVV() {
-        Random random = new Random();
-        int cvvNumber = random.nextInt(900) + 100;
+        int cvvNumber = RANDOM.nextInt(900) + 100;
 
         return String.valueOf(cvvNumber);
     }
@@ -34,23 +33,4 @@ public final class CardDataGenerator {
         return expiryDate.format(formatter);
     }
 
-
-    public String generateCardNumber(CardType cardType) {
-        int firstNumber = switch (cardType) {
-            case VISA -> 4;
-            case MASTERCARD -> 5;
-        };
-
-        int length = 15;
-
-        Random random = new Random();
-        StringBuilder cardNumber = new StringBuilder();
-        cardNumber.append(firstNumber);
-        for (int i = 0; i < length; i++) {
-            int digit = random.nextInt(10);
-            cardNumber.append(digit);
-        }
-
-        return cardNumber.toString();
-    }
 }
@@ -0,0 +1,61 @@
+package am.greenbank.helpers.genaretors;
+
+/**
+ * Keyed bijection over the decimal numbers with {@code digits} digits. A balanced Feistel
+ * network on the two decimal halves, so consecutive inputs come out scattered over the whole
+ * range and distinct inputs never map to the same output.
+ */
+final class FeistelPermutation {
+    private static final int ROUNDS = 4;
+
+    private final long halfModulus;
+    private final long domain;
+    private final long[] roundKeys = new long[ROUNDS];
+
+    FeistelPermutation(int digits, long key) {
+        if (digits <= 0 || digits > 18 || digits % 2 != 0) {
+            throw new IllegalArgumentException("Digits should be an even number between 2 and 18");
+        }
+        this.halfModulus = pow10(digits / 2);
+        this.domain = halfModulus * halfModulus;
+        for (int i = 0; i < ROUNDS; i++) {
+            roundKeys[i] = mix(key + (i + 1) * 0x9E3779B97F4A7C15L);
+        }
+    }
+
+    long domain() {
+        return domain;
+    }
+
+    long permute(long value) {
+        if (value < 0 || value >= domain) {
+            throw new IllegalArgumentException("Value is outside of the permutation domain");
+        }
+        long left = value / halfModulus;
+        long right = value % halfModulus;
+        for (long roundKey : roundKeys) {
+            long next = (left + round(right, roundKey)) % halfModulus;
+            left = right;
+            right = next;
+        }
+        return left * halfModulus + right;
+    }
+
+    private long round(long half, long roundKey) {
+        return (mix(half ^ roundKey) & Long.MAX_VALUE) % halfModulus;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long pow10(int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,136 @@
+package am.greenbank.helpers.genaretors;
+
+import am.greenbank.entities.cards.CardType;
+import am.greenbank.repositories.interfaces.NumberSequenceRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Hands out account and card numbers without checking the database for collisions.
+ * Each number is a keyed permutation of the next value of a Mongo sequence, and every thread
+ * reserves a block of sequence values with one {@code $inc}, so a number is never issued twice.
+ * Numbers issued at random before the allocator existed can still be hit, the unique indexes
+ * catch that and the save is retried with the next number.
+ */
+@Component
+public class NumberAllocator {
+    private static final String ACCOUNT_SEQUENCE = "accountNumber";
+    private static final String CARD_SEQUENCE_PREFIX = "cardNumber-";
+    private static final int ACCOUNT_NUMBER_DIGITS = 16;
+    private static final int CARD_BODY_DIGITS = 14;
+    // 0000000000000000 - 0000000000009999 are kept for the bank's own accounts
+    private static final long RESERVED_ACCOUNT_NUMBERS = 10_000;
+    private static final String ACCOUNT_NUMBER_INDEX = "accountNumber_unique";
+    private static final String CARD_NUMBER_INDEX = "cardNumber_unique";
+    private static final int MAX_SAVE_ATTEMPTS = 5;
+
+    private final NumberSequenceRepository numberSequenceRepository;
+    private final long blockSize;
+    private final FeistelPermutation accountPermutation;
+    private final FeistelPermutation cardPermutation;
+    private final ThreadLocal<Map<String, Block>> blocks = ThreadLocal.withInitial(HashMap::new);
+
+    public NumberAllocator(
+        NumberSequenceRepository numberSequenceRepository,
+        @Value("${am.greenbank.numbers.block-size:100}") long blockSize,
+        @Value("${am.greenbank.numbers.permutation-key}") long permutationKey
+    ) {
+        this.numberSequenceRepository = numberSequenceRepository;
+        this.blockSize = blockSize;
+        this.accountPermutation = new FeistelPermutation(ACCOUNT_NUMBER_DIGITS, permutationKey);
+        this.cardPermutation = new FeistelPermutation(CARD_BODY_DIGITS, ~permutationKey);
+    }
+
+    public String nextAccountNumber() {
+        long value = nextValue(ACCOUNT_SEQUENCE, RESERVED_ACCOUNT_NUMBERS, accountPermutation.domain());
+        // cycle walking, the permutation maps the unreserved range onto itself this way
+        do {
+            value = accountPermutation.permute(value);
+        } while (value < RESERVED_ACCOUNT_NUMBERS);
+        return String.format("%0" + ACCOUNT_NUMBER_DIGITS + "d", value);
+    }
+
+    /**
+     * Card number of the type's first digit, a permuted body and a Luhn check digit.
+     */
+    public String nextCardNumber(CardType cardType) {
+        int firstNumber = switch (cardType) {
+            case VISA -> 4;
+            case MASTERCARD -> 5;
+        };
+        long value = nextValue(CARD_SEQUENCE_PREFIX + cardType.name(), 0, cardPermutation.domain());
+        String body = firstNumber + String.format("%0" + CARD_BODY_DIGITS + "d", cardPermutation.permute(value));
+        return body + luhnCheckDigit(body);
+    }
+
+    /**
+     * Saves a new account under the next account number, drawing another one while the number
+     * is already taken.
+     */
+    public <T> T saveWithAccountNumber(Function<String, T> save) {
+        return saveWithNumber(this::nextAccountNumber, ACCOUNT_NUMBER_INDEX, save);
+    }
+
+    public <T> T saveWithCardNumber(CardType cardType, Function<String, T> save) {
+        return saveWithNumber(() -> nextCardNumber(cardType), CARD_NUMBER_INDEX, save);
+    }
+
+    private static <T> T saveWithNumber(Supplier<String> next, String index, Function<String, T> save) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return save.apply(next.get());
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_SAVE_ATTEMPTS || e.getMessage() == null || !e.getMessage().contains(index)) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    public static int luhnCheckDigit(String digits) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private long nextValue(String sequence, long offset, long domain) {
+        Block block = blocks.get().get(sequence);
+        if (block == null || block.next == block.end) {
+            long start = numberSequenceRepository.reserveBlock(sequence, blockSize);
+            block = new Block(start, start + blockSize);
+            blocks.get().put(sequence, block);
+        }
+        long value = offset + block.next++;
+        if (value >= domain) {
+            throw new IllegalStateException("Number range of " + sequence + " is exhausted");
+        }
+        return value;
+    }
+
+    private static final class Block {
+        private long next;
+        private final long end;
+
+        private Block(long next, long end) {
+            this.next = next;
+            this.end = end;
+        }
+    }
+}
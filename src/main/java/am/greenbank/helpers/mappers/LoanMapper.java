@@ -7,7 +7,6 @@ import am.greenbank.requests.CreateLoanRequest;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
-import java.util.Collections;
 
 @Component
 public class LoanMapper {
@@ -20,8 +19,8 @@ public class LoanMapper {
             .percent(createLoanRequest.getPercent())
             .loanName(createLoanRequest.getLoanName())
             .duration(createLoanRequest.getDuration())
-            .paymentDays(Collections.emptyList())
-            .paymentTransactionIds(Collections.emptyList())
+            .paymentCount(0)
+            .totalPaid(0.0)
             .build();
     }
 
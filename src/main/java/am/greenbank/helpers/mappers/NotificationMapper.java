@@ -7,6 +7,7 @@ import am.greenbank.entities.transaction.Transaction;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -14,6 +15,7 @@ import java.time.format.DateTimeFormatter;
 @RequiredArgsConstructor
 public class NotificationMapper {
     private final DateTimeFormatter dateTimeFormatter;
+    private final Clock clock;
 
     public NotificationDto mapNotificationToNotificationDto(Notification notification) {
         return NotificationDto
@@ -34,7 +36,7 @@ public class NotificationMapper {
         return Notification.builder()
             .userId(transaction.getFrom().getUserId())
             .message(message)
-            .time(LocalDateTime.now())
+            .time(LocalDateTime.now(clock))
             .build();
     }
 
@@ -46,7 +48,7 @@ public class NotificationMapper {
         return Notification.builder()
             .userId(transaction.getFrom().getUserId())
             .message(message)
-            .time(LocalDateTime.now())
+            .time(LocalDateTime.now(clock))
             .build();
     }
 
@@ -74,7 +76,7 @@ public class NotificationMapper {
         return Notification.builder()
             .userId(userId)
             .message(message)
-            .time(LocalDateTime.now())
+            .time(LocalDateTime.now(clock))
             .build();
     }
 
@@ -83,7 +85,7 @@ public class NotificationMapper {
         return Notification.builder()
             .userId(userId)
             .message(message)
-            .time(LocalDateTime.now())
+            .time(LocalDateTime.now(clock))
             .build();
     }
 
@@ -92,7 +94,7 @@ public class NotificationMapper {
         return Notification.builder()
             .userId(userId)
             .message(message)
-            .time(LocalDateTime.now())
+            .time(LocalDateTime.now(clock))
             .build();
     }
 
@@ -105,7 +107,7 @@ public class NotificationMapper {
         return Notification.builder()
             .userId(userId)
             .message(message)
-            .time(LocalDateTime.now())
+            .time(LocalDateTime.now(clock))
             .build();
     }
 }
@@ -15,6 +15,8 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
+import static am.greenbank.helpers.util.ReferenceUtil.referenceIds;
+
 @Component
 public final class UserMapper {
     private final AccountRepository accountRepository;
@@ -42,18 +44,9 @@ public final class UserMapper {
             .phone(user.getPhone())
             .img(user.getImg())
             .role(user.getRole())
-            .accounts(
-                user.getAccounts()
-                    .stream()
-                    .map(Account::getId)
-                    .toList()
-            )
-            .cards(
-                user.getCards()
-                    .stream()
-                    .map(Card::getId)
-                    .toList()
-            )
+            .accounts(referenceIds(user.getAccounts(), Account::getId))
+            .cards(referenceIds(user.getCards(), Card::getId))
+            .unreadNotifications(user.getUnreadNotifications())
             .build();
     }
 
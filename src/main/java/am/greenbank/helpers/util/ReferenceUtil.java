@@ -0,0 +1,42 @@
+package am.greenbank.helpers.util;
+
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+public final class ReferenceUtil {
+    private ReferenceUtil() {
+    }
+
+    /**
+     * Returns the id of a referenced entity. Unresolved lazy references answer from
+     * the stored DBRef, so reading the id never loads the target document.
+     */
+    public static <T> String referenceId(T reference, Function<T, String> idGetter) {
+        if (reference == null) {
+            return null;
+        }
+        if (reference instanceof LazyLoadingProxy proxy) {
+            return String.valueOf(proxy.toDBRef().getId());
+        }
+        return idGetter.apply(reference);
+    }
+
+    /**
+     * Ids of a reference list. A lazy list carries no DBRefs of its own, so reading its ids
+     * loads the whole list with one {@code $in} query.
+     */
+    public static <T> List<String> referenceIds(Collection<T> references, Function<T, String> idGetter) {
+        if (references == null) {
+            return List.of();
+        }
+        return references
+            .stream()
+            .map(reference -> referenceId(reference, idGetter))
+            .filter(Objects::nonNull)
+            .toList();
+    }
+}
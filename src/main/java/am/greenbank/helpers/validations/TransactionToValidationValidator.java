@@ -43,6 +43,6 @@ public class TransactionToValidationValidator implements ConstraintValidator<Tra
     private boolean isToValidForQR(TransactionRequest transactionRequest) {
         return (transactionRequest.getType() == TransactionType.QR_ACCOUNT
             || transactionRequest.getType() == TransactionType.QR_CARD)
-            && transactionRequest.getTo().matches("[A-Za-z0-9-_=]+\\.[A-Za-z0-9-_=]+\\.[A-Za-z0-9-_.+/=]+");
+            && transactionRequest.getTo().matches("[A-Za-z0-9_-]+");
     }
 }
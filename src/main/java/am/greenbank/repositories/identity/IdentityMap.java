@@ -0,0 +1,95 @@
+package am.greenbank.repositories.identity;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * First level cache of one HTTP request. Repository lookups by id or by a unique attribute
+ * return the instance loaded earlier in the same request, whichever attribute loaded it.
+ * Bound to the request thread, so it needs no synchronization.
+ */
+public final class IdentityMap {
+    private static final ThreadLocal<IdentityMap> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Map<String, Optional<Object>>> sections = new HashMap<>();
+    private int hits;
+    private int misses;
+    private int queries;
+
+    private IdentityMap() {
+    }
+
+    /**
+     * Binds a fresh map to the current thread. The returned scope unbinds it on close.
+     */
+    public static Scope open() {
+        IdentityMap identityMap = new IdentityMap();
+        CURRENT.set(identityMap);
+        return new Scope(identityMap);
+    }
+
+    public static Optional<IdentityMap> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    Optional<Object> lookup(String section, String key, Supplier<Optional<Object>> loader) {
+        Map<String, Optional<Object>> entries = sections.computeIfAbsent(section, s -> new HashMap<>());
+        Optional<Object> cached = entries.get(key);
+        if (cached != null) {
+            hits++;
+            return cached;
+        }
+        misses++;
+        Optional<Object> loaded = loader.get();
+        entries.put(key, loaded);
+        return loaded;
+    }
+
+    void register(String section, Iterable<String> keys, Object entity) {
+        Map<String, Optional<Object>> entries = sections.computeIfAbsent(section, s -> new HashMap<>());
+        Optional<Object> value = Optional.of(entity);
+        keys.forEach(key -> entries.put(key, value));
+    }
+
+    /**
+     * Drops everything loaded from the collection, called for every write the request sends.
+     */
+    public void evict(String section) {
+        sections.remove(section);
+    }
+
+    public void countQuery() {
+        queries++;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+
+    public int getQueries() {
+        return queries;
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final IdentityMap identityMap;
+
+        private Scope(IdentityMap identityMap) {
+            this.identityMap = identityMap;
+        }
+
+        public IdentityMap identityMap() {
+            return identityMap;
+        }
+
+        @Override
+        public void close() {
+            CURRENT.remove();
+        }
+    }
+}
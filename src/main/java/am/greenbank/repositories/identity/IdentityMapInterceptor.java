@@ -0,0 +1,75 @@
+package am.greenbank.repositories.identity;
+
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.Collection;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+class IdentityMapInterceptor implements MethodInterceptor {
+    private static final String[] READ_PREFIXES = {"find", "stream", "exists", "count", "get"};
+
+    private final IdentityMapSpec<?> spec;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Optional<IdentityMap> current = IdentityMap.current();
+        if (current.isEmpty()) {
+            return invocation.proceed();
+        }
+        IdentityMap identityMap = current.get();
+        String method = invocation.getMethod().getName();
+        Object[] arguments = invocation.getArguments();
+
+        String attribute = spec.lookups().get(method);
+        if (attribute != null && arguments.length == 1 && arguments[0] != null) {
+            return identityMap.lookup(spec.section(), IdentityMapSpec.key(attribute, arguments[0]), () -> {
+                Optional<Object> loaded = proceed(invocation);
+                loaded.ifPresent(entity -> register(identityMap, entity));
+                return loaded;
+            });
+        }
+
+        Object result = invocation.proceed();
+        if (spec.bulkLookups().contains(method)) {
+            ((Collection<?>) result).forEach(entity -> register(identityMap, entity));
+        } else if (!isRead(method)) {
+            identityMap.evict(spec.section());
+            registerReturned(identityMap, result);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Optional<Object> proceed(MethodInvocation invocation) {
+        try {
+            return (Optional<Object>) invocation.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void registerReturned(IdentityMap identityMap, Object result) {
+        Object entity = result instanceof Optional<?> optional ? optional.orElse(null) : result;
+        if (spec.type().isInstance(entity)) {
+            register(identityMap, entity);
+        }
+    }
+
+    private void register(IdentityMap identityMap, Object entity) {
+        identityMap.register(spec.section(), spec.keysOf(entity), entity);
+    }
+
+    private static boolean isRead(String method) {
+        for (String prefix : READ_PREFIXES) {
+            if (method.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
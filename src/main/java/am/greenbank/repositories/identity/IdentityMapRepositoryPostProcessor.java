@@ -0,0 +1,98 @@
+package am.greenbank.repositories.identity;
+
+import am.greenbank.entities.account.Account;
+import am.greenbank.entities.cards.Card;
+import am.greenbank.entities.user.User;
+import am.greenbank.repositories.interfaces.AccountRepository;
+import am.greenbank.repositories.interfaces.CardRepository;
+import am.greenbank.repositories.interfaces.UserRepository;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.DecoratingProxy;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static am.greenbank.helpers.util.ReferenceUtil.referenceIds;
+
+/**
+ * Puts the request identity map in front of the account, card and user repositories.
+ * Outside of an HTTP request the proxies call straight through.
+ */
+@Component
+public class IdentityMapRepositoryPostProcessor implements BeanPostProcessor {
+    private static final IdentityMapSpec<Account> ACCOUNTS = new IdentityMapSpec<>(
+        Account.class,
+        Map.of(
+            "findAccountById", "id",
+            "findByAccountNumber", "accountNumber"
+        ),
+        Set.of("findAccountsByIds", "findAllByAccountNumbers"),
+        account -> Map.of(
+            "id", nullableList(account.getId()),
+            "accountNumber", nullableList(account.getAccountNumber())
+        )
+    );
+    private static final IdentityMapSpec<Card> CARDS = new IdentityMapSpec<>(
+        Card.class,
+        Map.of(
+            "findCardById", "id",
+            "findByCardNumber", "cardNumber"
+        ),
+        Set.of(),
+        card -> Map.of(
+            "id", nullableList(card.getId()),
+            "cardNumber", nullableList(card.getCardNumber())
+        )
+    );
+    private static final IdentityMapSpec<User> USERS = new IdentityMapSpec<>(
+        User.class,
+        Map.of(
+            "findUserById", "id",
+            "findByEmail", "email",
+            "findByAccountId", "accountId",
+            "findByCardId", "cardId"
+        ),
+        Set.of(),
+        user -> Map.of(
+            "id", nullableList(user.getId()),
+            "email", nullableList(user.getEmail()),
+            "accountId", referenceIds(user.getAccounts(), Account::getId),
+            "cardId", referenceIds(user.getCards(), Card::getId)
+        )
+    );
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof AccountRepository) {
+            return withIdentityMap(bean, ACCOUNTS);
+        }
+        if (bean instanceof CardRepository) {
+            return withIdentityMap(bean, CARDS);
+        }
+        if (bean instanceof UserRepository) {
+            return withIdentityMap(bean, USERS);
+        }
+        return bean;
+    }
+
+    private static Object withIdentityMap(Object repository, IdentityMapSpec<?> spec) {
+        ProxyFactory proxyFactory = new ProxyFactory();
+        proxyFactory.setTarget(repository);
+        for (Class<?> repositoryInterface : ClassUtils.getAllInterfaces(repository)) {
+            if (!repositoryInterface.getName().startsWith("org.springframework.aop.")
+                && repositoryInterface != DecoratingProxy.class) {
+                proxyFactory.addInterface(repositoryInterface);
+            }
+        }
+        proxyFactory.addAdvice(new IdentityMapInterceptor(spec));
+        return proxyFactory.getProxy();
+    }
+
+    private static List<String> nullableList(String value) {
+        return value == null ? List.of() : List.of(value);
+    }
+}
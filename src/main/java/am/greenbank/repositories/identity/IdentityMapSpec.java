@@ -0,0 +1,44 @@
+package am.greenbank.repositories.identity;
+
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * How the identity map fronts one repository: which single-argument lookups it serves and
+ * which keys identify a loaded entity. Every other method that is not a read is a write,
+ * which drops the repository's section and registers the entity it returns.
+ */
+record IdentityMapSpec<T>(
+    Class<T> type,
+    Map<String, String> lookups,
+    Set<String> bulkLookups,
+    Function<T, Map<String, List<String>>> keys
+) {
+    /**
+     * Sections are named after the collection, so writes seen by the driver can drop them too.
+     */
+    String section() {
+        return type.getAnnotation(Document.class).collection();
+    }
+
+    static String key(String attribute, Object value) {
+        return attribute + ":" + value;
+    }
+
+    List<String> keysOf(Object entity) {
+        List<String> result = new ArrayList<>();
+        keys.apply(type.cast(entity)).forEach((attribute, values) ->
+            values.forEach(value -> {
+                if (value != null) {
+                    result.add(key(attribute, value));
+                }
+            })
+        );
+        return result;
+    }
+}
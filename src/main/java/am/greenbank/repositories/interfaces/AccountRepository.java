@@ -2,17 +2,19 @@ package am.greenbank.repositories.interfaces;
 
 import am.greenbank.entities.account.Account;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface AccountRepository {
-    Optional<Account> findByIdAndDeleted(String id, boolean deleted);
-
     Optional<Account> findAccountById(String id);
 
     List<Account> findAll();
 
-    //    List<Account> findAllByAccountId(List<Account> ids);
+    List<Account> findAllActive();
+
+    List<Account> findAccountsByIds(List<String> ids);
 
     void deleteAllById(List<String> ids);
 
@@ -20,5 +22,22 @@ public interface AccountRepository {
 
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    List<Account> findAllByAccountNumbers(Collection<String> accountNumbers);
+
     void deleteById(String accountId);
+
+    void incrementBalance(String accountId, double delta);
+
+    /**
+     * Takes {@code amount} off the balance in one conditional update, only if the balance
+     * covers it. Returns false and leaves the account as it was when it does not.
+     */
+    boolean debitBalance(String accountId, double amount);
+
+    /**
+     * Applies every balance change with one unordered bulk write.
+     */
+    void incrementBalances(Map<String, Double> deltaByAccountId);
+
+    Optional<Account> updateAccountName(String accountId, String accountName);
 }
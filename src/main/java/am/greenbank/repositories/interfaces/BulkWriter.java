@@ -0,0 +1,27 @@
+package am.greenbank.repositories.interfaces;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batched, unordered writes for many documents at once. Every method splits its input
+ * into batches of the configured size and sends one round trip per batch.
+ */
+public interface BulkWriter {
+    /**
+     * Inserts entities without an id and replaces the stored document of the others.
+     */
+    <T> List<T> upsertAll(List<T> entities, Class<T> type);
+
+    /**
+     * Writes only the named fields of each entity, the rest of the stored document is kept.
+     */
+    <T> void updateFields(List<T> entities, Class<T> type, String... fields);
+
+    /**
+     * Sets the same field values on every document with one of the given ids.
+     */
+    <T> long updateMany(List<String> ids, Class<T> type, Map<String, Object> fields);
+
+    <T> long softDeleteMany(List<String> ids, Class<T> type);
+}
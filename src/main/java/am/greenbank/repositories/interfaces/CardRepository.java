@@ -10,8 +10,6 @@ public interface CardRepository {
 
     Optional<Card> findByAccountId(String accountId);
 
-    Optional<Card> findByIdAndDeleted(String cardId, boolean deleted);
-
     Optional<Card> findCardById(String cardId);
 
     Card saveCard(Card card);
@@ -21,4 +19,6 @@ public interface CardRepository {
     void deleteAllById(List<String> ids);
 
     void deleteById(String cardId);
+
+    Optional<Card> updateCardName(String cardId, String cardName);
 }
@@ -0,0 +1,23 @@
+package am.greenbank.repositories.interfaces;
+
+import am.greenbank.entities.loan.CreditProfile;
+import am.greenbank.entities.loan.CreditProfileChange;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CreditProfileRepository {
+    Optional<CreditProfile> findById(String userId);
+
+    /**
+     * Applies every change to the profile of its user with one bulk write. Profiles that do not
+     * exist yet are created for loans in progress, a loan leaving progress only counts where
+     * the profile still holds it.
+     */
+    void applyChanges(List<CreditProfileChange> changes);
+
+    /**
+     * Overwrites the given profiles as a whole.
+     */
+    void replaceAll(List<CreditProfile> profiles);
+}
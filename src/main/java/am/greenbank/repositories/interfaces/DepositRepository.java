@@ -1,8 +1,11 @@
 package am.greenbank.repositories.interfaces;
 
 import am.greenbank.entities.deposit.Deposit;
+import am.greenbank.entities.deposit.DepositAccrual;
 import am.greenbank.entities.deposit.DepositStatus;
+import am.greenbank.entities.job.KeyRange;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -20,7 +23,55 @@ public interface DepositRepository {
 
     List<Deposit> findAll();
 
-    List<Deposit> findAllByStatus(DepositStatus status);
+    Optional<Deposit> incrementAmount(String depositId, double amount);
 
-    List<Deposit> findAllByStatusAndEndDateBefore(DepositStatus status, LocalDateTime endDate);
+    Optional<Deposit> updateStatus(String depositId, DepositStatus status);
+
+    /**
+     * Next deposits of {@code range} after {@code afterId} in {@code _id} order that have not
+     * been accrued up to {@code accrualDate}, matured ones included, with only the fields the
+     * accrual needs.
+     */
+    List<Deposit> findAccrualChunk(KeyRange range, String afterId, LocalDate accrualDate, int limit);
+
+    /**
+     * Adds each interest to its deposit and moves its {@code lastAccruedDate} on, skipping
+     * deposits whose date changed since they were read. Returns how many deposits were credited.
+     */
+    long accrueInterest(List<DepositAccrual> accruals);
+
+    /**
+     * Ids of the next in-progress deposits of {@code range} after {@code afterId} that ended
+     * before {@code endedBefore}.
+     */
+    List<Deposit> findMaturedChunk(KeyRange range, String afterId, LocalDateTime endedBefore, int limit);
+
+    /**
+     * Moves the still in-progress deposits among {@code depositIds} to settling under
+     * {@code settlementId} and returns them, deposits claimed by someone else are left out.
+     */
+    List<Deposit> claimForSettlement(List<String> depositIds, String settlementId, LocalDateTime claimedAt);
+
+    /**
+     * Flags deposits still settling under {@code settlementId} as about to be paid, right before
+     * any money moves. Returns how many were flagged.
+     */
+    long markPayingOut(List<String> depositIds, String settlementId);
+
+    /**
+     * Closes deposits settling under {@code settlementId} once they are paid.
+     */
+    void completeSettlement(List<String> depositIds, String settlementId);
+
+    /**
+     * Puts deposits still settling under {@code settlementId} back in progress.
+     */
+    void releaseSettlement(List<String> depositIds, String settlementId);
+
+    /**
+     * Next deposits after {@code afterId} in {@code _id} order that were claimed before
+     * {@code claimedBefore} and are still settling, left behind by a settlement that did not
+     * finish.
+     */
+    List<Deposit> findStaleSettlements(LocalDateTime claimedBefore, String afterId, int limit);
 }
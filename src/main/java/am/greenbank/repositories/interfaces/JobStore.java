@@ -0,0 +1,68 @@
+package am.greenbank.repositories.interfaces;
+
+import am.greenbank.entities.job.JobPartition;
+import am.greenbank.entities.job.JobRun;
+import am.greenbank.entities.job.KeyRange;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Shared state of cluster-wide jobs. Runs and partitions are held under leases that their
+ * owner keeps renewing, a lease that runs out can be taken over by any node.
+ */
+public interface JobStore {
+    Optional<JobRun> findRun(String runId);
+
+    /**
+     * Makes {@code owner} the planner of the run when it has no plan yet and nobody else holds
+     * the planning lease.
+     */
+    boolean acquirePlanning(String runId, String owner, Duration lease);
+
+    /**
+     * Replaces whatever partitions an earlier planner left with one per range and opens the run
+     * for claiming. Does nothing when {@code owner} lost the planning lease.
+     */
+    boolean publishPartitions(String runId, String owner, List<KeyRange> ranges);
+
+    /**
+     * Leases the first partition of the run that is neither done, held by a live lease, nor out
+     * of attempts.
+     */
+    Optional<JobPartition> claimPartition(String runId, String owner, Duration lease, int maxAttempts);
+
+    /**
+     * Extends the lease, false once the partition belongs to someone else.
+     */
+    boolean renewPartition(String partitionId, String owner, Duration lease);
+
+    void checkpointPartition(String partitionId, String owner, String lastId, long processed);
+
+    void completePartition(String partitionId, String owner, long processed);
+
+    /**
+     * Gives up the lease so another attempt can start right away.
+     */
+    void releasePartition(String partitionId, String owner);
+
+    /**
+     * Partitions of the run that are not done and either have attempts left or are still held
+     * by a live lease.
+     */
+    long countUnfinishedPartitions(String runId, int maxAttempts);
+
+    /**
+     * Partitions of the run that are not done, out of attempts and no longer leased.
+     */
+    long countExhaustedPartitions(String runId, int maxAttempts);
+
+    void failRun(String runId);
+
+    /**
+     * Splits the collection of {@code entityType} into about {@code partitions} key ranges of
+     * similar size, estimated from a sample of ids.
+     */
+    List<KeyRange> splitKeyRanges(Class<?> entityType, int partitions);
+}
@@ -0,0 +1,15 @@
+package am.greenbank.repositories.interfaces;
+
+import am.greenbank.entities.loan.LoanPayment;
+import am.greenbank.entities.loan.LoanPaymentBucket;
+
+import java.util.List;
+
+public interface LoanPaymentRepository {
+    /**
+     * Adds the payment to the bucket of its loan and month, creating the bucket if needed.
+     */
+    void append(String loanId, LoanPayment payment);
+
+    List<LoanPaymentBucket> findAllByLoanIdOrderByMonthAsc(String loanId);
+}
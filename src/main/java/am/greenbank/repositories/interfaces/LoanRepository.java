@@ -1,9 +1,12 @@
 package am.greenbank.repositories.interfaces;
 
+import am.greenbank.entities.job.KeyRange;
+import am.greenbank.entities.loan.AppliedLoanPayment;
 import am.greenbank.entities.loan.Loan;
-import am.greenbank.entities.loan.LoanStatus;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,9 +21,44 @@ public interface LoanRepository {
 
     List<Loan> findAllByUserId(String userId);
 
+    List<Loan> findAllByUserIdIn(Collection<String> userIds);
+
     List<Loan> findAll();
 
-    List<Loan> findAllByStatus(LoanStatus status);
+    List<Loan> findAllById(Iterable<String> ids);
+
+    /**
+     * Applies the payment in one atomic write and returns the loan as that write found it and
+     * as it left it.
+     */
+    Optional<AppliedLoanPayment> applyPayment(String loanId, double amount, LocalDate paymentDay, boolean paidOff);
+
+    /**
+     * Runs the accrual up to {@code accrualDate} on the loans of {@code range} inside Mongo:
+     * loans with nothing left are marked {@code PAYED}, the rest grow by
+     * {@code amount * dailyInterestRate} for each day since {@code lastAccruedDate}, at most
+     * {@code maxCatchUpDays}. Loans already stamped with the date are skipped. Returns how many
+     * loans were updated.
+     */
+    long accrueInterest(KeyRange range, LocalDate accrualDate, int maxCatchUpDays);
+
+    /**
+     * Random sample of the loans {@link #accrueInterest} would update for {@code range} and
+     * {@code accrualDate}.
+     */
+    List<Loan> sampleDueForAccrual(KeyRange range, LocalDate accrualDate, int size);
+
+    /**
+     * Moves in-progress loans of {@code range} that ended before {@code endedBefore} to
+     * {@code PAYED} or {@code NOT_PAYED} inside Mongo under {@code settlementId}. Returns every
+     * loan of {@code range} settled under that id, including the ones an earlier attempt with
+     * the same id moved, with their owner, status, dates and payment days.
+     */
+    List<Loan> settleEndedLoans(KeyRange range, LocalDateTime endedBefore, String settlementId);
 
-    List<Loan> findAllByStatusAndEndDateBefore(LoanStatus status, LocalDateTime endDate);
+    /**
+     * True while some loan still keeps the old {@code paymentDays} list, whose payments are not
+     * yet counted in {@code paymentCount}.
+     */
+    boolean hasLegacyPaymentHistory();
 }
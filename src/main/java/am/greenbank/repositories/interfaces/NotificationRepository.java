@@ -10,9 +10,13 @@ public interface NotificationRepository {
 
     List<Notification> findAll();
 
-    List<Notification> findAllByUserId(String userId);
+    List<Notification> findAllByUserIdOrderByTimeDesc(String userId);
 
     List<Notification> findAllByUserIdAndRead(String userId, boolean read);
 
     Notification save(Notification notification);
+
+    List<Notification> insertAll(List<Notification> notifications);
+
+    Optional<Notification> markRead(String notificationId, String userId);
 }
@@ -0,0 +1,8 @@
+package am.greenbank.repositories.interfaces;
+
+public interface NumberSequenceRepository {
+    /**
+     * Reserves {@code blockSize} consecutive values of the sequence and returns the first one.
+     */
+    long reserveBlock(String sequence, long blockSize);
+}
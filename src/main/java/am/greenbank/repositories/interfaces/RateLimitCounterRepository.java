@@ -0,0 +1,7 @@
+package am.greenbank.repositories.interfaces;
+
+import java.time.LocalDateTime;
+
+public interface RateLimitCounterRepository {
+    long incrementAndGet(String counterId, int permits, LocalDateTime expiresAt);
+}
@@ -4,12 +4,20 @@ import am.greenbank.entities.transaction.Transaction;
 import am.greenbank.entities.transaction.TransactionEntity;
 import am.greenbank.entities.user.User;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface TransactionRepository {
     Transaction save(Transaction user);
 
+    List<Transaction> insertAll(List<Transaction> transactions);
+
     Optional<Transaction> findById(String id);
 
+    boolean existsByToNumberAndDescriptionAndAmountAndDateGreaterThanEqual(
+        String toNumber, String description, Double amount, LocalDateTime date
+    );
+
     void deleteById(String id);
 }
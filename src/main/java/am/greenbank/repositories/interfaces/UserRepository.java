@@ -1,14 +1,15 @@
 package am.greenbank.repositories.interfaces;
 
 
+import am.greenbank.entities.job.KeyRange;
 import am.greenbank.entities.user.User;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository {
-    Optional<User> findByIdAndDeleted(String id, boolean deleted);
-
     Optional<User> findUserById(String id);
 
     List<User> findAll();
@@ -30,4 +31,43 @@ public interface UserRepository {
     List<User> findByCreditworthinessId(String creditworthinessId);
 
     Optional<User> findByCardId(String cardId);
+
+    Optional<User> updateProfile(String userId, User changes);
+
+    Optional<User> updatePassword(String userId, String password);
+
+    Optional<User> updatePassword(String userId, String password, List<String> oldPasswords);
+
+    Optional<User> updateEmail(String userId, String email);
+
+    boolean updateFutureEmail(String userId, String futureEmail);
+
+    boolean updateCanChangeEmail(String userId, boolean canChangeEmail);
+
+    boolean updateCanChangePassword(String userId, boolean canChangePassword);
+
+    boolean updateCreditworthinessId(String userId, String creditworthinessId);
+
+    boolean enableUser(String userId);
+
+    boolean addAccount(String userId, String accountId);
+
+    boolean addCard(String userId, String cardId, String accountId);
+
+    boolean removeAccount(String accountId);
+
+    boolean removeCard(String cardId);
+
+    void incrementUnreadNotifications(String userId, long delta);
+
+    void incrementUnreadNotifications(Map<String, Long> countByUserId);
+
+    List<User> findUsersAfter(String afterId, int limit);
+
+    /**
+     * Ids of live users in {@code range} after {@code afterId}, in {@code _id} order.
+     */
+    List<String> findIdChunk(KeyRange range, String afterId, int limit);
+
+    Stream<User> streamUsers();
 }
@@ -2,25 +2,27 @@ package am.greenbank.repositories.mongo;
 
 import am.greenbank.entities.account.Account;
 import am.greenbank.repositories.interfaces.AccountRepository;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AccountMongoRepository extends AccountRepository, MongoRepository<Account, String> {
+public interface AccountMongoRepository extends AccountRepository, AccountMongoRepositoryCustom,
+    SoftDeleteMongoRepository<Account, String> {
     @Override
     default Optional<Account> findAccountById(String id) {
-        return findByIdAndDeleted(id, false);
+        return findActiveById(id);
     }
 
+    @Override
+    @Query("{'accountNumber': ?0, 'deleted': false}")
+    Optional<Account> findByAccountNumber(String accountNumber);
 
     @Override
     default void deleteAllById(List<String> ids) {
-        List<Account> allById = findAllById(ids);
-        allById.forEach(account -> account.setDeleted(true));
-        saveAll(allById);
+        markDeleted(ids);
     }
 
     @Override
@@ -30,12 +32,6 @@ public interface AccountMongoRepository extends AccountRepository, MongoReposito
 
     @Override
     default void deleteById(String accountId) {
-        Optional<Account> accountById = findAccountById(accountId);
-
-        if (accountById.isPresent()) {
-            Account account = accountById.get();
-            account.setDeleted(true);
-            saveAccount(account);
-        }
+        markDeleted(List.of(accountId));
     }
 }
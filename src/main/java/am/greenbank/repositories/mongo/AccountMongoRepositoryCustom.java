@@ -0,0 +1,24 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.account.Account;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface AccountMongoRepositoryCustom {
+    void incrementBalance(String accountId, double delta);
+
+    boolean debitBalance(String accountId, double amount);
+
+    void incrementBalances(Map<String, Double> deltaByAccountId);
+
+    List<Account> findAllByAccountNumbers(Collection<String> accountNumbers);
+
+    Optional<Account> updateAccountName(String accountId, String accountName);
+
+    void markDeleted(List<String> accountIds);
+
+    List<Account> findAccountsByIds(List<String> ids);
+}
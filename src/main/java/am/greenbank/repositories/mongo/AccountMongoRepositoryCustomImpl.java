@@ -0,0 +1,107 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.account.Account;
+import am.greenbank.repositories.interfaces.BulkWriter;
+import am.greenbank.repositories.mongo.codecs.CodecMongoReader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@RequiredArgsConstructor
+public class AccountMongoRepositoryCustomImpl implements AccountMongoRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+    private final BulkWriter bulkWriter;
+    private final CodecMongoReader codecMongoReader;
+
+    /**
+     * Fetches all active accounts with one {@code $in} query, keeping the order of {@code ids}.
+     * Accounts are resolved on every authenticated request, so they are decoded with the codec.
+     */
+    @Override
+    public List<Account> findAccountsByIds(List<String> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Query query = Query.query(Criteria.where("_id").in(ids).and("deleted").is(false));
+        Map<String, Account> accountsById = new HashMap<>();
+        codecMongoReader.find(query, Account.class).forEach(account -> accountsById.put(account.getId(), account));
+        return ids
+            .stream()
+            .map(accountsById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    @Override
+    public List<Account> findAllByAccountNumbers(Collection<String> accountNumbers) {
+        if (accountNumbers.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Query query = Query.query(Criteria.where("accountNumber").in(accountNumbers).and("deleted").is(false));
+        return codecMongoReader.find(query, Account.class);
+    }
+
+    @Override
+    public void incrementBalance(String accountId, double delta) {
+        Update update = new Update()
+            .inc("balance", delta)
+            .set("updatedAt", LocalDateTime.now());
+        mongoTemplate.updateFirst(byId(accountId), update, Account.class);
+    }
+
+    @Override
+    public boolean debitBalance(String accountId, double amount) {
+        Query query = byId(accountId).addCriteria(Criteria.where("balance").gte(amount));
+        Update update = new Update()
+            .inc("balance", -amount)
+            .set("updatedAt", LocalDateTime.now());
+        return mongoTemplate.updateFirst(query, update, Account.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public void incrementBalances(Map<String, Double> deltaByAccountId) {
+        if (deltaByAccountId.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Account.class);
+        deltaByAccountId.forEach((accountId, delta) ->
+            operations.updateOne(byId(accountId), new Update().inc("balance", delta).set("updatedAt", now))
+        );
+        operations.execute();
+    }
+
+    @Override
+    public Optional<Account> updateAccountName(String accountId, String accountName) {
+        Query query = byId(accountId).addCriteria(Criteria.where("deleted").is(false));
+        Update update = new Update()
+            .set("accountName", accountName)
+            .set("updatedAt", LocalDateTime.now());
+        return Optional.ofNullable(
+            mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Account.class)
+        );
+    }
+
+    @Override
+    public void markDeleted(List<String> accountIds) {
+        bulkWriter.softDeleteMany(accountIds, Account.class);
+    }
+
+    private static Query byId(String accountId) {
+        return Query.query(Criteria.where("_id").is(accountId));
+    }
+}
@@ -2,14 +2,15 @@ package am.greenbank.repositories.mongo;
 
 import am.greenbank.entities.cards.Card;
 import am.greenbank.repositories.interfaces.CardRepository;
-import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CardMongoRepository extends CardRepository, MongoRepository<Card, String> {
+public interface CardMongoRepository extends CardRepository, CardMongoRepositoryCustom,
+    SoftDeleteMongoRepository<Card, String> {
     @Override
     default Optional<Card> findByAccountId(String accountId) {
         return findByAccountIdAndDeleted(accountId, false);
@@ -17,7 +18,7 @@ public interface CardMongoRepository extends CardRepository, MongoRepository<Car
 
     @Override
     default Optional<Card> findCardById(String cardId) {
-        return findByIdAndDeleted(cardId, false);
+        return findActiveById(cardId);
     }
 
     @Override
@@ -25,20 +26,17 @@ public interface CardMongoRepository extends CardRepository, MongoRepository<Car
         return save(card);
     }
 
+    @Override
+    @Query("{'cardNumber': ?0, 'deleted': false}")
+    Optional<Card> findByCardNumber(String cardNumber);
+
     @Override
     default void deleteAllById(List<String> ids) {
-        List<Card> cardsById = findAllById(ids);
-        cardsById.forEach(card -> card.setDeleted(true));
-        saveAll(cardsById);
+        markDeleted(ids);
     }
 
     @Override
     default void deleteById(String cardId) {
-        Optional<Card> cardById = findCardById(cardId);
-        if (cardById.isPresent()) {
-            Card card = cardById.get();
-            card.setDeleted(true);
-            save(card);
-        }
+        markDeleted(List.of(cardId));
     }
 }
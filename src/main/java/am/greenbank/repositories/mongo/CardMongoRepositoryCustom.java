@@ -0,0 +1,12 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.cards.Card;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface CardMongoRepositoryCustom {
+    Optional<Card> updateCardName(String cardId, String cardName);
+
+    void markDeleted(List<String> cardIds);
+}
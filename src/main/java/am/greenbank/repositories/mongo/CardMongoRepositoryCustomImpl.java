@@ -0,0 +1,34 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.cards.Card;
+import am.greenbank.repositories.interfaces.BulkWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class CardMongoRepositoryCustomImpl implements CardMongoRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+    private final BulkWriter bulkWriter;
+
+    @Override
+    public Optional<Card> updateCardName(String cardId, String cardName) {
+        Query query = Query.query(Criteria.where("_id").is(cardId).and("deleted").is(false));
+        return Optional.ofNullable(
+            mongoTemplate.findAndModify(
+                query, Update.update("cardName", cardName), FindAndModifyOptions.options().returnNew(true), Card.class
+            )
+        );
+    }
+
+    @Override
+    public void markDeleted(List<String> cardIds) {
+        bulkWriter.softDeleteMany(cardIds, Card.class);
+    }
+}
@@ -0,0 +1,11 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.loan.CreditProfile;
+import am.greenbank.repositories.interfaces.CreditProfileRepository;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CreditProfileMongoRepository extends CreditProfileRepository,
+    CreditProfileMongoRepositoryCustom, MongoRepository<CreditProfile, String> {
+}
@@ -0,0 +1,12 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.loan.CreditProfile;
+import am.greenbank.entities.loan.CreditProfileChange;
+
+import java.util.List;
+
+public interface CreditProfileMongoRepositoryCustom {
+    void applyChanges(List<CreditProfileChange> changes);
+
+    void replaceAll(List<CreditProfile> profiles);
+}
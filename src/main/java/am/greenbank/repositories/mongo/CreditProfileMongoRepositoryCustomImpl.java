@@ -0,0 +1,87 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.loan.CreditProfile;
+import am.greenbank.entities.loan.CreditProfileChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class CreditProfileMongoRepositoryCustomImpl implements CreditProfileMongoRepositoryCustom {
+    private static final String IN_PROGRESS = "inProgress";
+
+    private final MongoTemplate mongoTemplate;
+    private final JobMongoTemplate jobMongoTemplate;
+
+    /**
+     * Payments only ever raise the count kept for a loan, so a late write of an older payment
+     * cannot take it back.
+     */
+    @Override
+    public void applyChanges(List<CreditProfileChange> changes) {
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CreditProfile.class);
+        int updates = 0;
+        for (CreditProfileChange change : changes) {
+            if (change.isEmpty()) {
+                continue;
+            }
+            String entry = IN_PROGRESS + "." + change.loanId();
+            Query query = Query.query(Criteria.where("_id").is(change.userId()));
+            Update update = new Update();
+            if (change.progress() != null) {
+                update
+                    .set(entry + ".startDay", change.progress().startDay())
+                    .max(entry + ".payments", change.progress().payments());
+                operations.upsert(query, update);
+            } else {
+                query.addCriteria(Criteria.where(entry).exists(true));
+                operations.updateOne(query, outcome(update.unset(entry), change));
+            }
+            updates++;
+        }
+        if (updates > 0) {
+            operations.execute();
+        }
+    }
+
+    private static Update outcome(Update update, CreditProfileChange change) {
+        incIfNotZero(update, "paidLoans", change.paidLoans());
+        incIfNotZero(update, "latePaidLoans", change.latePaidLoans());
+        incIfNotZero(update, "notPaidLoans", change.notPaidLoans());
+        if (change.latePaidOn() != null) {
+            update.max("lastLatePaidDate", change.latePaidOn());
+        }
+        if (change.tierId() != null) {
+            update.set("tierId", change.tierId());
+        }
+        return update;
+    }
+
+    private static void incIfNotZero(Update update, String field, long delta) {
+        if (delta != 0) {
+            update.inc(field, delta);
+        }
+    }
+
+    /**
+     * Written by the backfill, so it goes through the job connection pool.
+     */
+    @Override
+    public void replaceAll(List<CreditProfile> profiles) {
+        if (profiles.isEmpty()) {
+            return;
+        }
+        BulkOperations operations = jobMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CreditProfile.class);
+        for (CreditProfile profile : profiles) {
+            Query byId = Query.query(Criteria.where("_id").is(profile.getUserId()));
+            operations.replaceOne(byId, profile, FindAndReplaceOptions.options().upsert());
+        }
+        operations.execute();
+    }
+}
@@ -0,0 +1,9 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.Creditworthiness;
+
+import java.util.List;
+
+public interface CreditworthinessMongoRepositoryCustom {
+    List<Creditworthiness> saveAllCreditworthinesses(List<Creditworthiness> creditworthinesses);
+}
@@ -0,0 +1,17 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.Creditworthiness;
+import am.greenbank.repositories.interfaces.BulkWriter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class CreditworthinessMongoRepositoryCustomImpl implements CreditworthinessMongoRepositoryCustom {
+    private final BulkWriter bulkWriter;
+
+    @Override
+    public List<Creditworthiness> saveAllCreditworthinesses(List<Creditworthiness> creditworthinesses) {
+        return bulkWriter.upsertAll(creditworthinesses, Creditworthiness.class);
+    }
+}
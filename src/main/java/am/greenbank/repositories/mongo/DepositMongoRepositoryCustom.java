@@ -0,0 +1,35 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.deposit.Deposit;
+import am.greenbank.entities.deposit.DepositAccrual;
+import am.greenbank.entities.deposit.DepositStatus;
+import am.greenbank.entities.job.KeyRange;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface DepositMongoRepositoryCustom {
+    Optional<Deposit> incrementAmount(String depositId, double amount);
+
+    Optional<Deposit> updateStatus(String depositId, DepositStatus status);
+
+    List<Deposit> saveAllDeposits(List<Deposit> deposits);
+
+    List<Deposit> findAccrualChunk(KeyRange range, String afterId, LocalDate accrualDate, int limit);
+
+    long accrueInterest(List<DepositAccrual> accruals);
+
+    List<Deposit> findMaturedChunk(KeyRange range, String afterId, LocalDateTime endedBefore, int limit);
+
+    List<Deposit> claimForSettlement(List<String> depositIds, String settlementId, LocalDateTime claimedAt);
+
+    long markPayingOut(List<String> depositIds, String settlementId);
+
+    void completeSettlement(List<String> depositIds, String settlementId);
+
+    void releaseSettlement(List<String> depositIds, String settlementId);
+
+    List<Deposit> findStaleSettlements(LocalDateTime claimedBefore, String afterId, int limit);
+}
@@ -0,0 +1,159 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.deposit.Deposit;
+import am.greenbank.entities.deposit.DepositAccrual;
+import am.greenbank.entities.deposit.DepositStatus;
+import am.greenbank.entities.job.KeyRange;
+import am.greenbank.repositories.interfaces.BulkWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class DepositMongoRepositoryCustomImpl implements DepositMongoRepositoryCustom {
+    private static final String LAST_ACCRUED_DATE = "lastAccruedDate";
+    private static final String SETTLEMENT_ID = "settlementId";
+    private static final String SETTLING_SINCE = "settlingSince";
+    private static final String PAYING_OUT = "payingOut";
+
+    private final MongoTemplate mongoTemplate;
+    private final BulkWriter bulkWriter;
+    private final JobMongoTemplate jobMongoTemplate;
+
+    @Override
+    public Optional<Deposit> incrementAmount(String depositId, double amount) {
+        return findAndModify(depositId, new Update().inc("amount", amount));
+    }
+
+    @Override
+    public Optional<Deposit> updateStatus(String depositId, DepositStatus status) {
+        return findAndModify(depositId, Update.update("status", status));
+    }
+
+    private Optional<Deposit> findAndModify(String depositId, Update update) {
+        Query query = Query.query(Criteria.where("_id").is(depositId));
+        return Optional.ofNullable(
+            mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), Deposit.class)
+        );
+    }
+
+    @Override
+    public List<Deposit> saveAllDeposits(List<Deposit> deposits) {
+        return bulkWriter.upsertAll(deposits, Deposit.class);
+    }
+
+    /**
+     * Interest starts the second day after opening. Deposits that ended while runs were missed
+     * still match, so the days they are owed can be caught up before they are settled.
+     */
+    @Override
+    public List<Deposit> findAccrualChunk(KeyRange range, String afterId, LocalDate accrualDate, int limit) {
+        Criteria criteria = Criteria.where("status").is(DepositStatus.IN_PROGRESS)
+            .and("startDate").lt(accrualDate.minusDays(1).atStartOfDay())
+            .and(LAST_ACCRUED_DATE).not().gte(accrualDate);
+        Query query = Query.query(MongoReferences.withinRange(criteria, range, afterId))
+            .with(Sort.by(Sort.Direction.ASC, "_id"))
+            .limit(limit);
+        query.fields().include("amount", "percent", "endDate", LAST_ACCRUED_DATE);
+        return jobMongoTemplate.find(query, Deposit.class);
+    }
+
+    @Override
+    public long accrueInterest(List<DepositAccrual> accruals) {
+        if (accruals.isEmpty()) {
+            return 0;
+        }
+        BulkOperations operations = jobMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Deposit.class);
+        for (DepositAccrual accrual : accruals) {
+            // the date guard makes a replayed chunk a no-op, a missing date matches null
+            Query query = Query.query(
+                Criteria.where("_id").is(accrual.depositId()).and(LAST_ACCRUED_DATE).is(accrual.accruedFrom())
+            );
+            Update update = new Update()
+                .inc("amount", accrual.interest())
+                .set(LAST_ACCRUED_DATE, accrual.accruedThrough());
+            operations.updateOne(query, update);
+        }
+        return operations.execute().getModifiedCount();
+    }
+
+    @Override
+    public List<Deposit> findMaturedChunk(KeyRange range, String afterId, LocalDateTime endedBefore, int limit) {
+        Criteria criteria = Criteria.where("status").is(DepositStatus.IN_PROGRESS).and("endDate").lt(endedBefore);
+        Query query = Query.query(MongoReferences.withinRange(criteria, range, afterId))
+            .with(Sort.by(Sort.Direction.ASC, "_id"))
+            .limit(limit);
+        query.fields().include("_id");
+        return jobMongoTemplate.find(query, Deposit.class);
+    }
+
+    /**
+     * One multi-update flips the batch, a second query by {@code _id} and settlement id reads
+     * back exactly the deposits this call won. Every later step matches on both again, so a
+     * settlement released by the recovery sweep cannot be paid by its original owner.
+     */
+    @Override
+    public List<Deposit> claimForSettlement(List<String> depositIds, String settlementId, LocalDateTime claimedAt) {
+        Query unclaimed = Query.query(Criteria.where("_id").in(depositIds).and("status").is(DepositStatus.IN_PROGRESS));
+        Update claim = new Update()
+            .set("status", DepositStatus.SETTLING)
+            .set(SETTLEMENT_ID, settlementId)
+            .set(SETTLING_SINCE, claimedAt);
+        jobMongoTemplate.updateMulti(unclaimed, claim, Deposit.class);
+        return jobMongoTemplate.find(settlingUnder(depositIds, settlementId), Deposit.class);
+    }
+
+    @Override
+    public long markPayingOut(List<String> depositIds, String settlementId) {
+        return jobMongoTemplate
+            .updateMulti(settlingUnder(depositIds, settlementId), Update.update(PAYING_OUT, true), Deposit.class)
+            .getModifiedCount();
+    }
+
+    @Override
+    public void completeSettlement(List<String> depositIds, String settlementId) {
+        Update complete = new Update()
+            .set("status", DepositStatus.CLOSED)
+            .unset(SETTLING_SINCE)
+            .unset(PAYING_OUT);
+        jobMongoTemplate.updateMulti(settlingUnder(depositIds, settlementId), complete, Deposit.class);
+    }
+
+    @Override
+    public void releaseSettlement(List<String> depositIds, String settlementId) {
+        Update release = new Update()
+            .set("status", DepositStatus.IN_PROGRESS)
+            .unset(SETTLEMENT_ID)
+            .unset(SETTLING_SINCE)
+            .unset(PAYING_OUT);
+        jobMongoTemplate.updateMulti(settlingUnder(depositIds, settlementId), release, Deposit.class);
+    }
+
+    @Override
+    public List<Deposit> findStaleSettlements(LocalDateTime claimedBefore, String afterId, int limit) {
+        Criteria criteria = Criteria.where("status").is(DepositStatus.SETTLING).and(SETTLING_SINCE).lt(claimedBefore);
+        if (afterId != null) {
+            criteria.and("_id").gt(MongoReferences.toStoreId(afterId));
+        }
+        Query query = Query.query(criteria)
+            .with(Sort.by(Sort.Direction.ASC, "_id"))
+            .limit(limit);
+        return jobMongoTemplate.find(query, Deposit.class);
+    }
+
+    private static Query settlingUnder(List<String> depositIds, String settlementId) {
+        return Query.query(
+            Criteria.where("_id").in(depositIds).and(SETTLEMENT_ID).is(settlementId).and("status").is(DepositStatus.SETTLING)
+        );
+    }
+}
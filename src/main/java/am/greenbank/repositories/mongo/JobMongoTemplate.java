@@ -0,0 +1,26 @@
+package am.greenbank.repositories.mongo;
+
+import com.mongodb.client.MongoClient;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * The template the nightly jobs read and write their bulk data through. It has a client and
+ * connection pool of its own, so however busy the jobs get they never hold a connection the
+ * request path is waiting for.
+ */
+public class JobMongoTemplate extends MongoTemplate implements DisposableBean {
+    private final MongoClient mongoClient;
+
+    public JobMongoTemplate(MongoClient mongoClient, String database, MongoConverter mongoConverter) {
+        super(new SimpleMongoClientDatabaseFactory(mongoClient, database), mongoConverter);
+        this.mongoClient = mongoClient;
+    }
+
+    @Override
+    public void destroy() {
+        mongoClient.close();
+    }
+}
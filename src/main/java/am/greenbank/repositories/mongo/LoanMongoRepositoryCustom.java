@@ -0,0 +1,24 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.job.KeyRange;
+import am.greenbank.entities.loan.AppliedLoanPayment;
+import am.greenbank.entities.loan.Loan;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface LoanMongoRepositoryCustom {
+    Optional<AppliedLoanPayment> applyPayment(String loanId, double amount, LocalDate paymentDay, boolean paidOff);
+
+    List<Loan> saveAllLoans(List<Loan> loans);
+
+    long accrueInterest(KeyRange range, LocalDate accrualDate, int maxCatchUpDays);
+
+    List<Loan> sampleDueForAccrual(KeyRange range, LocalDate accrualDate, int size);
+
+    List<Loan> settleEndedLoans(KeyRange range, LocalDateTime endedBefore, String settlementId);
+
+    boolean hasLegacyPaymentHistory();
+}
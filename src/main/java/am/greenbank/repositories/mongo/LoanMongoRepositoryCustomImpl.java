@@ -0,0 +1,178 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.job.KeyRange;
+import am.greenbank.entities.loan.AppliedLoanPayment;
+import am.greenbank.entities.loan.Loan;
+import am.greenbank.entities.loan.LoanStatus;
+import am.greenbank.repositories.interfaces.BulkWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.aggregation.SetOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class LoanMongoRepositoryCustomImpl implements LoanMongoRepositoryCustom {
+    private static final String STATUS = "status";
+    private static final String STAYED_AMOUNT = "stayedAmount";
+    private static final String LAST_ACCRUED_DATE = "lastAccruedDate";
+    private static final String ACCRUAL_DAYS = "accrualDays";
+    private static final String SETTLEMENT_ID = "settlementId";
+
+    private final MongoTemplate mongoTemplate;
+    private final BulkWriter bulkWriter;
+    private final JobMongoTemplate jobMongoTemplate;
+
+    @Override
+    public Optional<AppliedLoanPayment> applyPayment(String loanId, double amount, LocalDate paymentDay, boolean paidOff) {
+        Update update = new Update()
+            .max("lastPaymentDate", paymentDay)
+            .inc("paymentCount", 1)
+            .inc("totalPaid", amount);
+        if (paidOff) {
+            update
+                .set("stayedAmount", 0.0)
+                .set("status", LoanStatus.PAYED);
+        } else {
+            update.inc("stayedAmount", -amount);
+        }
+
+        Query query = Query.query(Criteria.where("_id").is(loanId));
+        Loan before = mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(false), Loan.class);
+        if (before == null) {
+            return Optional.empty();
+        }
+        Loan after = before.toBuilder()
+            .lastPaymentDate(before.getLastPaymentDate() == null || paymentDay.isAfter(before.getLastPaymentDate())
+                ? paymentDay
+                : before.getLastPaymentDate())
+            .paymentCount(before.getPaymentCount() == null ? 1 : before.getPaymentCount() + 1)
+            .totalPaid((before.getTotalPaid() == null ? 0 : before.getTotalPaid()) + amount)
+            .stayedAmount(paidOff ? 0.0 : before.getStayedAmount() - amount)
+            .status(paidOff ? LoanStatus.PAYED : before.getStatus())
+            .build();
+        return Optional.of(new AppliedLoanPayment(before, after));
+    }
+
+    @Override
+    public List<Loan> saveAllLoans(List<Loan> loans) {
+        return bulkWriter.upsertAll(loans, Loan.class);
+    }
+
+    /**
+     * Interest on a loan is simple, {@code k} days add {@code k * amount * dailyInterestRate}.
+     * The first stage counts the days from the day after {@code lastAccruedDate} up to today or
+     * the end date, whichever is first, in the zone dates are stored in. Loans never stamped were
+     * accrued by the old job and are taken as current up to yesterday. The last stage sees the
+     * document as it was, so the paid-off check and the accrual read the same
+     * {@code stayedAmount}.
+     */
+    @Override
+    public long accrueInterest(KeyRange range, LocalDate accrualDate, int maxCatchUpDays) {
+        AggregationExpression accruedThrough = ConditionalOperators
+            .when(ComparisonOperators.valueOf("endDate").lessThanValue(accrualDate.atStartOfDay()))
+            .thenValueOf("endDate")
+            .otherwise(accrualDate);
+        SetOperation countDays = SetOperation.set(ACCRUAL_DAYS).toValue(
+            DateOperators.dateValue(ConditionalOperators.ifNull(LAST_ACCRUED_DATE).then(accrualDate.minusDays(1)))
+                .withTimezone(DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId()))
+                .diffValueOf(accruedThrough, "day")
+        );
+        SetOperation capDays = SetOperation.set(ACCRUAL_DAYS).toValue(
+            ConditionalOperators.when(ComparisonOperators.valueOf(ACCRUAL_DAYS).greaterThanValue(maxCatchUpDays))
+                .then(maxCatchUpDays)
+                .otherwiseValueOf(ACCRUAL_DAYS)
+        );
+
+        ComparisonOperators.Eq paidOff = ComparisonOperators.valueOf(STAYED_AMOUNT).equalToValue(0);
+        SetOperation accrual = SetOperation.set(STATUS).toValue(
+                ConditionalOperators.when(paidOff).then(LoanStatus.PAYED.name()).otherwiseValueOf(STATUS)
+            )
+            .and().set(STAYED_AMOUNT).toValue(
+                ConditionalOperators.when(paidOff)
+                    .thenValueOf(STAYED_AMOUNT)
+                    .otherwiseValueOf(
+                        ConditionalOperators.when(ComparisonOperators.valueOf(ACCRUAL_DAYS).greaterThanValue(0))
+                            .thenValueOf(ArithmeticOperators.valueOf(STAYED_AMOUNT).add(
+                                ArithmeticOperators.valueOf("amount").multiplyBy("dailyInterestRate").multiplyBy(ACCRUAL_DAYS)
+                            ))
+                            .otherwiseValueOf(STAYED_AMOUNT)
+                    )
+            )
+            .and().set(LAST_ACCRUED_DATE).toValue(accrualDate);
+
+        AggregationUpdate update = AggregationUpdate.update()
+            .set(countDays)
+            .set(capDays)
+            .set(accrual)
+            .unset(ACCRUAL_DAYS);
+        return jobMongoTemplate.updateMulti(Query.query(dueForAccrual(range, accrualDate)), update, Loan.class).getModifiedCount();
+    }
+
+    @Override
+    public List<Loan> sampleDueForAccrual(KeyRange range, LocalDate accrualDate, int size) {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(dueForAccrual(range, accrualDate)),
+            Aggregation.sample(size)
+        );
+        return jobMongoTemplate.aggregate(aggregation, Loan.class, Loan.class).getMappedResults();
+    }
+
+    /**
+     * Reads the ids of the ended loans first and moves only those. The read-back goes by the
+     * settlement id over the whole range, so a retry under the same id also returns the loans
+     * an attempt that died before its read-back had already moved.
+     */
+    @Override
+    public List<Loan> settleEndedLoans(KeyRange range, LocalDateTime endedBefore, String settlementId) {
+        Criteria ended = Criteria.where(STATUS).is(LoanStatus.IN_PROGRESS).and("endDate").lt(endedBefore);
+        Query endedQuery = Query.query(MongoReferences.withinRange(ended, range, null));
+        endedQuery.fields().include("_id");
+        List<String> ids = jobMongoTemplate.find(endedQuery, Loan.class).stream().map(Loan::getId).toList();
+        if (!ids.isEmpty()) {
+            Query unsettled = Query.query(Criteria.where("_id").in(ids).and(STATUS).is(LoanStatus.IN_PROGRESS));
+            SetOperation settle = SetOperation.set(STATUS).toValue(
+                    ConditionalOperators.when(ComparisonOperators.valueOf(STAYED_AMOUNT).equalToValue(0))
+                        .then(LoanStatus.PAYED.name())
+                        .otherwise(LoanStatus.NOT_PAYED.name())
+                )
+                .and().set(SETTLEMENT_ID).toValue(settlementId);
+            jobMongoTemplate.updateMulti(unsettled, AggregationUpdate.update().set(settle), Loan.class);
+        }
+
+        Query settled = Query.query(MongoReferences.withinRange(Criteria.where(SETTLEMENT_ID).is(settlementId), range, null));
+        settled.fields().include("userId", STATUS, "startDate", "endDate", "lastPaymentDate", "paymentCount");
+        return jobMongoTemplate.find(settled, Loan.class);
+    }
+
+    @Override
+    public boolean hasLegacyPaymentHistory() {
+        return jobMongoTemplate.exists(Query.query(Criteria.where("paymentDays").exists(true)), Loan.class);
+    }
+
+    /**
+     * Interest starts the second day after the loan was taken. Loans that ended while runs were
+     * missed still match, so the days they owe can be caught up before they are settled.
+     */
+    private Criteria dueForAccrual(KeyRange range, LocalDate accrualDate) {
+        Criteria due = Criteria.where(STATUS).is(LoanStatus.IN_PROGRESS)
+            .and("startDate").lt(accrualDate.minusDays(1).atStartOfDay())
+            .and(LAST_ACCRUED_DATE).not().gte(accrualDate);
+        return MongoReferences.withinRange(due, range, null);
+    }
+}
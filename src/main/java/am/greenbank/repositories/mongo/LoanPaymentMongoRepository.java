@@ -0,0 +1,11 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.loan.LoanPaymentBucket;
+import am.greenbank.repositories.interfaces.LoanPaymentRepository;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface LoanPaymentMongoRepository extends LoanPaymentRepository,
+    LoanPaymentMongoRepositoryCustom, MongoRepository<LoanPaymentBucket, String> {
+}
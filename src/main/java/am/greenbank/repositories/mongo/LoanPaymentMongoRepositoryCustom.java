@@ -0,0 +1,7 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.loan.LoanPayment;
+
+public interface LoanPaymentMongoRepositoryCustom {
+    void append(String loanId, LoanPayment payment);
+}
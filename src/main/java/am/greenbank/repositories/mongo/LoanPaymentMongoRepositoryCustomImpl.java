@@ -0,0 +1,30 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.loan.LoanPayment;
+import am.greenbank.entities.loan.LoanPaymentBucket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.YearMonth;
+
+@RequiredArgsConstructor
+public class LoanPaymentMongoRepositoryCustomImpl implements LoanPaymentMongoRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void append(String loanId, LoanPayment payment) {
+        YearMonth month = YearMonth.from(payment.getDay());
+        Query bucket = Query.query(Criteria.where("_id").is(LoanPaymentBucket.idOf(loanId, month)));
+        Update update = new Update()
+            .setOnInsert("loanId", loanId)
+            .setOnInsert("month", month.toString())
+            .inc("count", 1)
+            .inc("total", payment.getAmount());
+        update.push("payments").sort(Sort.by("day")).each(payment);
+        mongoTemplate.upsert(bucket, update, LoanPaymentBucket.class);
+    }
+}
@@ -0,0 +1,132 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.repositories.interfaces.BulkWriter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mapping.PersistentPropertyAccessor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+@Slf4j
+@Component
+public class MongoBulkWriter implements BulkWriter {
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+
+    public MongoBulkWriter(
+        MongoTemplate mongoTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${am.greenbank.bulk.batch-size:1000}") int batchSize
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public <T> List<T> upsertAll(List<T> entities, Class<T> type) {
+        MongoPersistentEntity<?> persistentEntity = mongoTemplate.getConverter()
+            .getMappingContext()
+            .getRequiredPersistentEntity(type);
+        MongoPersistentProperty idProperty = persistentEntity.getRequiredIdProperty();
+
+        inBatches(entities, type, "upsert", batch -> {
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+            for (T entity : batch) {
+                PersistentPropertyAccessor<T> accessor = persistentEntity.getPropertyAccessor(entity);
+                if (accessor.getProperty(idProperty) == null) {
+                    accessor.setProperty(idProperty, new ObjectId().toHexString());
+                }
+                Query byId = Query.query(Criteria.where("_id").is(accessor.getProperty(idProperty)));
+                operations.replaceOne(byId, entity, FindAndReplaceOptions.options().upsert());
+            }
+            operations.execute();
+            return (long) batch.size();
+        });
+        return entities;
+    }
+
+    @Override
+    public <T> void updateFields(List<T> entities, Class<T> type, String... fields) {
+        MongoPersistentEntity<?> persistentEntity = mongoTemplate.getConverter()
+            .getMappingContext()
+            .getRequiredPersistentEntity(type);
+        MongoPersistentProperty idProperty = persistentEntity.getRequiredIdProperty();
+
+        inBatches(entities, type, "update-fields", batch -> {
+            BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+            for (T entity : batch) {
+                Document document = new Document();
+                mongoTemplate.getConverter().write(entity, document);
+                Update update = new Update();
+                for (String field : fields) {
+                    update.set(field, document.get(field));
+                }
+                Object id = persistentEntity.getPropertyAccessor(entity).getProperty(idProperty);
+                operations.updateOne(Query.query(Criteria.where("_id").is(id)), update);
+            }
+            return (long) operations.execute().getModifiedCount();
+        });
+    }
+
+    @Override
+    public <T> long updateMany(List<String> ids, Class<T> type, Map<String, Object> fields) {
+        Update update = new Update();
+        fields.forEach(update::set);
+        return inBatches(ids, type, "update-many", batch -> mongoTemplate
+            .updateMulti(Query.query(Criteria.where("_id").in(batch)), update, type)
+            .getModifiedCount()
+        );
+    }
+
+    @Override
+    public <T> long softDeleteMany(List<String> ids, Class<T> type) {
+        return updateMany(ids, type, Map.of(
+            SoftDeleteMongoRepositoryImpl.DELETED, true,
+            SoftDeleteMongoRepositoryImpl.DELETED_AT, LocalDateTime.now()
+        ));
+    }
+
+    private <E> long inBatches(List<E> items, Class<?> type, String operation, Function<List<E>, Long> writer) {
+        if (items.isEmpty()) {
+            return 0;
+        }
+        String collection = mongoTemplate.getCollectionName(type);
+        Timer timer = Timer.builder("greenbank.bulk.batch")
+            .tag("collection", collection)
+            .tag("operation", operation)
+            .register(meterRegistry);
+        DistributionSummary batchSizes = DistributionSummary.builder("greenbank.bulk.batch.size")
+            .tag("collection", collection)
+            .tag("operation", operation)
+            .register(meterRegistry);
+
+        long written = 0;
+        for (int from = 0; from < items.size(); from += batchSize) {
+            List<E> batch = items.subList(from, Math.min(from + batchSize, items.size()));
+            batchSizes.record(batch.size());
+            Long batchWritten = timer.record(() -> writer.apply(batch));
+            written += batchWritten == null ? 0 : batchWritten;
+        }
+        log.debug("{} on {} wrote {} of {} documents", operation, collection, written, items.size());
+        return written;
+    }
+}
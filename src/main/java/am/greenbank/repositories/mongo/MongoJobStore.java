@@ -0,0 +1,209 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.job.JobPartition;
+import am.greenbank.entities.job.JobPartitionStatus;
+import am.greenbank.entities.job.JobRun;
+import am.greenbank.entities.job.JobRunStatus;
+import am.greenbank.entities.job.KeyRange;
+import am.greenbank.repositories.interfaces.JobStore;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@RequiredArgsConstructor
+public class MongoJobStore implements JobStore {
+    private static final int SAMPLES_PER_PARTITION = 64;
+    private static final String STATUS = "status";
+    private static final String OWNER = "owner";
+    private static final String LEASE_UNTIL = "leaseUntil";
+    private static final String ATTEMPTS = "attempts";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<JobRun> findRun(String runId) {
+        return Optional.ofNullable(mongoTemplate.findById(runId, JobRun.class));
+    }
+
+    /**
+     * Upserts the run while it is still being planned and its lease is free or ours. When the
+     * run is planned or leased by another node the filter misses and the upsert collides with
+     * the existing {@code _id}.
+     */
+    @Override
+    public boolean acquirePlanning(String runId, String owner, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(
+            Criteria.where("_id").is(runId)
+                .and(STATUS).is(JobRunStatus.PLANNING)
+                .orOperator(Criteria.where(LEASE_UNTIL).lt(now), Criteria.where(OWNER).is(owner))
+        );
+        Update update = new Update()
+            .set(OWNER, owner)
+            .set(LEASE_UNTIL, now.plus(lease));
+        try {
+            mongoTemplate.upsert(query, update, JobRun.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean publishPartitions(String runId, String owner, List<KeyRange> ranges) {
+        Query planning = Query.query(
+            Criteria.where("_id").is(runId).and(STATUS).is(JobRunStatus.PLANNING).and(OWNER).is(owner)
+        );
+        if (!mongoTemplate.exists(planning, JobRun.class)) {
+            return false;
+        }
+
+        mongoTemplate.remove(Query.query(Criteria.where("runId").is(runId)), JobPartition.class);
+        List<JobPartition> partitions = new ArrayList<>(ranges.size());
+        for (int index = 0; index < ranges.size(); index++) {
+            KeyRange range = ranges.get(index);
+            partitions.add(JobPartition.builder()
+                .id(runId + ":" + index)
+                .runId(runId)
+                .index(index)
+                .lowerId(range.lowerId())
+                .upperId(range.upperId())
+                .status(JobPartitionStatus.PENDING)
+                .build());
+        }
+        try {
+            mongoTemplate.insertAll(partitions);
+        } catch (DuplicateKeyException e) {
+            // our lease ran out and the planner that took over got there first
+            return false;
+        }
+
+        Update ready = new Update()
+            .set(STATUS, JobRunStatus.READY)
+            .set("partitions", partitions.size())
+            .unset(LEASE_UNTIL);
+        return mongoTemplate.updateFirst(planning, ready, JobRun.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public Optional<JobPartition> claimPartition(String runId, String owner, Duration lease, int maxAttempts) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = Query.query(claimable(runId, maxAttempts)
+                .orOperator(Criteria.where(LEASE_UNTIL).is(null), Criteria.where(LEASE_UNTIL).lt(now)))
+            .with(Sort.by(Sort.Direction.ASC, "index"));
+        Update update = new Update()
+            .set(STATUS, JobPartitionStatus.RUNNING)
+            .set(OWNER, owner)
+            .set(LEASE_UNTIL, now.plus(lease))
+            .inc(ATTEMPTS, 1);
+        return Optional.ofNullable(
+            mongoTemplate.findAndModify(query, update, FindAndModifyOptions.options().returnNew(true), JobPartition.class)
+        );
+    }
+
+    @Override
+    public boolean renewPartition(String partitionId, String owner, Duration lease) {
+        Update update = Update.update(LEASE_UNTIL, LocalDateTime.now().plus(lease));
+        return mongoTemplate.updateFirst(ownedRunning(partitionId, owner), update, JobPartition.class).getMatchedCount() > 0;
+    }
+
+    @Override
+    public void checkpointPartition(String partitionId, String owner, String lastId, long processed) {
+        Update update = new Update()
+            .set("lastId", lastId)
+            .set("processed", processed);
+        mongoTemplate.updateFirst(ownedRunning(partitionId, owner), update, JobPartition.class);
+    }
+
+    @Override
+    public void completePartition(String partitionId, String owner, long processed) {
+        Update update = new Update()
+            .set(STATUS, JobPartitionStatus.DONE)
+            .set("processed", processed)
+            .set("completedAt", LocalDateTime.now())
+            .unset(LEASE_UNTIL);
+        mongoTemplate.updateFirst(ownedRunning(partitionId, owner), update, JobPartition.class);
+    }
+
+    @Override
+    public void releasePartition(String partitionId, String owner) {
+        Update update = new Update()
+            .set(STATUS, JobPartitionStatus.PENDING)
+            .unset(LEASE_UNTIL);
+        mongoTemplate.updateFirst(ownedRunning(partitionId, owner), update, JobPartition.class);
+    }
+
+    @Override
+    public long countUnfinishedPartitions(String runId, int maxAttempts) {
+        Criteria unfinished = Criteria.where("runId").is(runId)
+            .and(STATUS).ne(JobPartitionStatus.DONE)
+            .orOperator(Criteria.where(ATTEMPTS).lt(maxAttempts), Criteria.where(LEASE_UNTIL).gte(LocalDateTime.now()));
+        return mongoTemplate.count(Query.query(unfinished), JobPartition.class);
+    }
+
+    @Override
+    public long countExhaustedPartitions(String runId, int maxAttempts) {
+        Criteria exhausted = Criteria.where("runId").is(runId)
+            .and(STATUS).ne(JobPartitionStatus.DONE)
+            .and(ATTEMPTS).gte(maxAttempts)
+            .orOperator(Criteria.where(LEASE_UNTIL).is(null), Criteria.where(LEASE_UNTIL).lt(LocalDateTime.now()));
+        return mongoTemplate.count(Query.query(exhausted), JobPartition.class);
+    }
+
+    @Override
+    public void failRun(String runId) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(runId)), Update.update(STATUS, JobRunStatus.FAILED), JobRun.class);
+    }
+
+    /**
+     * Bucket boundaries of a random sample of ids. An empty collection, or one too small to
+     * split, yields a single open range.
+     */
+    @Override
+    public List<KeyRange> splitKeyRanges(Class<?> entityType, int partitions) {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.sample((long) partitions * SAMPLES_PER_PARTITION),
+            Aggregation.bucketAuto("_id", partitions)
+        );
+        List<Document> buckets = mongoTemplate
+            .aggregate(aggregation, mongoTemplate.getCollectionName(entityType), Document.class)
+            .getMappedResults();
+
+        List<KeyRange> ranges = new ArrayList<>(buckets.size());
+        String lowerId = null;
+        for (Document bucket : buckets.subList(Math.min(1, buckets.size()), buckets.size())) {
+            String upperId = bucket.get("_id", Document.class).get("min").toString();
+            ranges.add(new KeyRange(lowerId, upperId));
+            lowerId = upperId;
+        }
+        ranges.add(new KeyRange(lowerId, null));
+        return ranges;
+    }
+
+    private static Criteria claimable(String runId, int maxAttempts) {
+        return Criteria.where("runId").is(runId)
+            .and(STATUS).ne(JobPartitionStatus.DONE)
+            .and(ATTEMPTS).lt(maxAttempts);
+    }
+
+    private static Query ownedRunning(String partitionId, String owner) {
+        return Query.query(
+            Criteria.where("_id").is(partitionId).and(OWNER).is(owner).and(STATUS).is(JobPartitionStatus.RUNNING)
+        );
+    }
+}
@@ -0,0 +1,45 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.job.KeyRange;
+import com.mongodb.DBRef;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+final class MongoReferences {
+    private MongoReferences() {
+    }
+
+    /**
+     * Builds the DBRef Spring Data stores for an entity id, string ids that are valid
+     * ObjectIds are persisted as ObjectIds.
+     */
+    static DBRef reference(MongoTemplate mongoTemplate, Class<?> type, String id) {
+        return new DBRef(mongoTemplate.getCollectionName(type), toStoreId(id));
+    }
+
+    static Object toStoreId(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    /**
+     * Restricts {@code criteria} to the ids of {@code range} after {@code afterId}. The bounds
+     * are converted here because the query mapper leaves range operators on {@code _id} alone.
+     */
+    static Criteria withinRange(Criteria criteria, KeyRange range, String afterId) {
+        if (range.lowerId() == null && range.upperId() == null && afterId == null) {
+            return criteria;
+        }
+        Criteria id = criteria.and("_id");
+        if (range.lowerId() != null) {
+            id.gte(toStoreId(range.lowerId()));
+        }
+        if (afterId != null) {
+            id.gt(toStoreId(afterId));
+        }
+        if (range.upperId() != null) {
+            id.lt(toStoreId(range.upperId()));
+        }
+        return criteria;
+    }
+}
@@ -5,6 +5,13 @@ import am.greenbank.repositories.interfaces.NotificationRepository;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface NotificationMongoRepository extends NotificationRepository, MongoRepository<Notification, String> {
+public interface NotificationMongoRepository extends NotificationRepository, NotificationMongoRepositoryCustom,
+    MongoRepository<Notification, String> {
+    @Override
+    default List<Notification> insertAll(List<Notification> notifications) {
+        return insert(notifications);
+    }
 }
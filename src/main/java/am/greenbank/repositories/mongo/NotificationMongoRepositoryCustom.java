@@ -0,0 +1,12 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.Notification;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface NotificationMongoRepositoryCustom {
+    Optional<Notification> markRead(String notificationId, String userId);
+
+    List<Notification> findAllByUserIdOrderByTimeDesc(String userId);
+}
@@ -0,0 +1,50 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.Notification;
+import am.greenbank.repositories.mongo.codecs.CodecMongoReader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class NotificationMongoRepositoryCustomImpl implements NotificationMongoRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+    private final CodecMongoReader codecMongoReader;
+
+    @Override
+    public List<Notification> findAllByUserIdOrderByTimeDesc(String userId) {
+        Query query = Query
+            .query(Criteria.where("userId").is(userId))
+            .with(Sort.by(Sort.Direction.DESC, "time"));
+        return codecMongoReader.find(query, Notification.class);
+    }
+
+    /**
+     * Flips an unread notification of the user to read. Empty when the notification does not
+     * exist, belongs to someone else or was already read, so callers adjust the unread counter
+     * at most once per notification.
+     */
+    @Override
+    public Optional<Notification> markRead(String notificationId, String userId) {
+        Query query = Query.query(
+            Criteria.where("_id").is(notificationId)
+                .and("userId").is(userId)
+                .and("read").is(false)
+        );
+        return Optional.ofNullable(
+            mongoTemplate.findAndModify(
+                query,
+                Update.update("read", true),
+                FindAndModifyOptions.options().returnNew(true),
+                Notification.class
+            )
+        );
+    }
+}
@@ -0,0 +1,11 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.NumberSequence;
+import am.greenbank.repositories.interfaces.NumberSequenceRepository;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NumberSequenceMongoRepository extends NumberSequenceRepository,
+    NumberSequenceMongoRepositoryCustom, MongoRepository<NumberSequence, String> {
+}
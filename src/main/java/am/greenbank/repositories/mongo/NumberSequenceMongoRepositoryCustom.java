@@ -0,0 +1,5 @@
+package am.greenbank.repositories.mongo;
+
+public interface NumberSequenceMongoRepositoryCustom {
+    long reserveBlock(String sequence, long blockSize);
+}
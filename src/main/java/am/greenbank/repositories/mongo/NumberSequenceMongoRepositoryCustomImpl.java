@@ -0,0 +1,32 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.NumberSequence;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@RequiredArgsConstructor
+public class NumberSequenceMongoRepositoryCustomImpl implements NumberSequenceMongoRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public long reserveBlock(String sequence, long blockSize) {
+        Query query = Query.query(Criteria.where("_id").is(sequence));
+        Update update = new Update().inc("next", blockSize);
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+        NumberSequence reserved;
+        try {
+            reserved = mongoTemplate.findAndModify(query, update, options, NumberSequence.class);
+        } catch (DuplicateKeyException e) {
+            // two nodes raced to create the sequence, the second $inc hits the existing document
+            reserved = mongoTemplate.findAndModify(query, update, options, NumberSequence.class);
+        }
+
+        return reserved.getNext() - blockSize;
+    }
+}
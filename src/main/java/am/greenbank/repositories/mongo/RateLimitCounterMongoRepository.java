@@ -0,0 +1,11 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.RateLimitCounter;
+import am.greenbank.repositories.interfaces.RateLimitCounterRepository;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RateLimitCounterMongoRepository extends RateLimitCounterRepository,
+    RateLimitCounterMongoRepositoryCustom, MongoRepository<RateLimitCounter, String> {
+}
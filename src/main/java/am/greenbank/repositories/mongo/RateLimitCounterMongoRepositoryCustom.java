@@ -0,0 +1,7 @@
+package am.greenbank.repositories.mongo;
+
+import java.time.LocalDateTime;
+
+public interface RateLimitCounterMongoRepositoryCustom {
+    long incrementAndGet(String counterId, int permits, LocalDateTime expiresAt);
+}
@@ -0,0 +1,36 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.RateLimitCounter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class RateLimitCounterMongoRepositoryCustomImpl implements RateLimitCounterMongoRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public long incrementAndGet(String counterId, int permits, LocalDateTime expiresAt) {
+        Query query = Query.query(Criteria.where("_id").is(counterId));
+        Update update = new Update()
+            .inc("count", permits)
+            .setOnInsert("expiresAt", expiresAt);
+        FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+        RateLimitCounter counter;
+        try {
+            counter = mongoTemplate.findAndModify(query, update, options, RateLimitCounter.class);
+        } catch (DuplicateKeyException e) {
+            // two nodes raced to create the same window, the second $inc hits the existing document
+            counter = mongoTemplate.findAndModify(query, update, options, RateLimitCounter.class);
+        }
+
+        return counter == null ? permits : counter.getCount();
+    }
+}
@@ -0,0 +1,25 @@
+package am.greenbank.repositories.mongo;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for documents that are tombstoned with {@code deleted} and {@code deletedAt}
+ * instead of being removed. The {@code Active} methods always add {@code deleted = false},
+ * which is also the filter of the partial indexes on these collections.
+ */
+@NoRepositoryBean
+public interface SoftDeleteMongoRepository<T, ID> extends MongoRepository<T, ID> {
+    Optional<T> findActiveById(ID id);
+
+    List<T> findAllActiveById(Iterable<ID> ids);
+
+    List<T> findAllActive();
+
+    long softDeleteById(ID id);
+
+    long softDeleteAllById(Iterable<ID> ids);
+}
@@ -0,0 +1,85 @@
+package am.greenbank.repositories.mongo;
+
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.repository.query.MongoEntityInformation;
+import org.springframework.data.mongodb.repository.support.SimpleMongoRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Base class of every Mongo repository. Repositories that do not extend
+ * {@link SoftDeleteMongoRepository} never reach the soft delete methods.
+ */
+public class SoftDeleteMongoRepositoryImpl<T, ID> extends SimpleMongoRepository<T, ID>
+    implements SoftDeleteMongoRepository<T, ID> {
+    public static final String DELETED = "deleted";
+    public static final String DELETED_AT = "deletedAt";
+
+    private final MongoEntityInformation<T, ID> entityInformation;
+    private final MongoOperations mongoOperations;
+
+    public SoftDeleteMongoRepositoryImpl(MongoEntityInformation<T, ID> metadata, MongoOperations mongoOperations) {
+        super(metadata, mongoOperations);
+        this.entityInformation = metadata;
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Optional<T> findActiveById(ID id) {
+        return Optional.ofNullable(mongoOperations.findOne(active(byId(id)), type(), collection()));
+    }
+
+    @Override
+    public List<T> findAllActiveById(Iterable<ID> ids) {
+        return mongoOperations.find(active(byIds(ids)), type(), collection());
+    }
+
+    @Override
+    public List<T> findAllActive() {
+        return mongoOperations.find(active(new Query()), type(), collection());
+    }
+
+    @Override
+    public long softDeleteById(ID id) {
+        return mongoOperations.updateFirst(active(byId(id)), tombstone(), type(), collection()).getModifiedCount();
+    }
+
+    @Override
+    public long softDeleteAllById(Iterable<ID> ids) {
+        return mongoOperations.updateMulti(active(byIds(ids)), tombstone(), type(), collection()).getModifiedCount();
+    }
+
+    public static Update tombstone() {
+        return new Update()
+            .set(DELETED, true)
+            .set(DELETED_AT, LocalDateTime.now());
+    }
+
+    private Query byId(ID id) {
+        return Query.query(Criteria.where(entityInformation.getIdAttribute()).is(id));
+    }
+
+    private Query byIds(Iterable<ID> ids) {
+        List<ID> idList = StreamSupport.stream(ids.spliterator(), false).collect(Collectors.toList());
+        return Query.query(Criteria.where(entityInformation.getIdAttribute()).in(idList));
+    }
+
+    private static Query active(Query query) {
+        return query.addCriteria(Criteria.where(DELETED).is(false));
+    }
+
+    private Class<T> type() {
+        return entityInformation.getJavaType();
+    }
+
+    private String collection() {
+        return entityInformation.getCollectionName();
+    }
+}
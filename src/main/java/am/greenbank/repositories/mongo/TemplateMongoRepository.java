@@ -5,11 +5,11 @@ import am.greenbank.repositories.interfaces.TemplateRepository;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TemplateMongoRepository extends TemplateRepository, MongoRepository<Template, String> {
+public interface TemplateMongoRepository extends TemplateRepository, TemplateMongoRepositoryCustom,
+    MongoRepository<Template, String> {
     @Override
     default Template saveTemplate(Template template) {
         return save(template);
@@ -30,11 +30,4 @@ public interface TemplateMongoRepository extends TemplateRepository, MongoReposi
             saveTemplate(template);
         }
     }
-
-    @Override
-    default void deleteAllByUserId(String userId) {
-        List<Template> allByUserId = findAllByUserId(userId);
-        allByUserId.forEach(template -> template.setDeleted(true));
-        saveAll(allByUserId);
-    }
 }
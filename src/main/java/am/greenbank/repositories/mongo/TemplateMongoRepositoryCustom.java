@@ -0,0 +1,5 @@
+package am.greenbank.repositories.mongo;
+
+public interface TemplateMongoRepositoryCustom {
+    void deleteAllByUserId(String userId);
+}
@@ -0,0 +1,19 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.transaction.Template;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+@RequiredArgsConstructor
+public class TemplateMongoRepositoryCustomImpl implements TemplateMongoRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void deleteAllByUserId(String userId) {
+        Query query = Query.query(Criteria.where("userId").is(userId).and("deleted").is(false));
+        mongoTemplate.updateMulti(query, Update.update("deleted", true), Template.class);
+    }
+}
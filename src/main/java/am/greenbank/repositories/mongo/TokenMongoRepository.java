@@ -9,12 +9,8 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface TokenMongoRepository extends TokenRepository, MongoRepository<Token, String> {
+public interface TokenMongoRepository extends TokenRepository, TokenMongoRepositoryCustom,
+    MongoRepository<Token, String> {
     @Query("{'user.id': ?0, $or: [{'expired': false}, {'revoked': false}] }")
     List<Token> findAllValidTokensByUserId(String userId);
-
-    @Override
-    default List<Token> saveAllTokens(List<Token> entities) {
-        return saveAll(entities);
-    }
 }
@@ -0,0 +1,9 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.token.Token;
+
+import java.util.List;
+
+public interface TokenMongoRepositoryCustom {
+    List<Token> saveAllTokens(List<Token> tokens);
+}
@@ -0,0 +1,17 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.token.Token;
+import am.greenbank.repositories.interfaces.BulkWriter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class TokenMongoRepositoryCustomImpl implements TokenMongoRepositoryCustom {
+    private final BulkWriter bulkWriter;
+
+    @Override
+    public List<Token> saveAllTokens(List<Token> tokens) {
+        return bulkWriter.upsertAll(tokens, Token.class);
+    }
+}
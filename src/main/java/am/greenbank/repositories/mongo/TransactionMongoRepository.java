@@ -6,6 +6,12 @@ import am.greenbank.repositories.interfaces.TransactionRepository;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface TransactionMongoRepository extends TransactionRepository, MongoRepository<Transaction, String> {
+    @Override
+    default List<Transaction> insertAll(List<Transaction> transactions) {
+        return insert(transactions);
+    }
 }
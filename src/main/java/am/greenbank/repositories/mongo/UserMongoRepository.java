@@ -3,28 +3,22 @@ package am.greenbank.repositories.mongo;
 
 import am.greenbank.entities.user.User;
 import am.greenbank.repositories.interfaces.UserRepository;
-import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
 
 @Repository
-public interface UserMongoRepository extends UserRepository, MongoRepository<User, String> {
+public interface UserMongoRepository extends UserRepository, UserMongoRepositoryCustom,
+    SoftDeleteMongoRepository<User, String> {
     @Override
     default Optional<User> findUserById(String id) {
-        return findByIdAndDeleted(id, false);
+        return findActiveById(id);
     }
 
     @Override
     default void deleteById(String id) {
-        Optional<User> userById = findById(id);
-
-        if (userById.isPresent()) {
-            User user = userById.get();
-            user.setDeleted(true);
-            saveUser(user);
-        }
+        softDeleteById(id);
     }
 
     @Override
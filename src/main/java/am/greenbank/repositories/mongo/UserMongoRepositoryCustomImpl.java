@@ -0,0 +1,209 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.account.Account;
+import am.greenbank.entities.cards.Card;
+import am.greenbank.entities.job.KeyRange;
+import am.greenbank.entities.user.User;
+import com.mongodb.DBRef;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Field level writes for users. Each method touches only the fields it names instead of
+ * rewriting the whole document with its password history and reference arrays.
+ */
+@RequiredArgsConstructor
+public class UserMongoRepositoryCustomImpl implements UserMongoRepositoryCustom {
+    private static final String[] LISTING_FIELDS = {
+        "firstName", "lastName", "email", "birthday", "phone", "img", "role", "accounts", "cards", "unreadNotifications"
+    };
+    private static final int LISTING_CURSOR_BATCH_SIZE = 500;
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public Optional<User> updateProfile(String userId, User changes) {
+        Update update = new Update();
+        setIfPresent(update, "firstName", changes.getFirstName());
+        setIfPresent(update, "lastName", changes.getLastName());
+        setIfPresent(update, "birthday", changes.getBirthday());
+        setIfPresent(update, "phone", changes.getPhone());
+        setIfPresent(update, "img", changes.getImg());
+
+        if (update.getUpdateObject().isEmpty()) {
+            return Optional.ofNullable(mongoTemplate.findOne(activeUser(userId), User.class));
+        }
+        return findAndModify(userId, update);
+    }
+
+    @Override
+    public Optional<User> updatePassword(String userId, String password) {
+        return findAndModify(userId, Update.update("password", password));
+    }
+
+    @Override
+    public Optional<User> updatePassword(String userId, String password, List<String> oldPasswords) {
+        Update update = new Update()
+            .set("password", password)
+            .set("oldPasswords", oldPasswords);
+        return findAndModify(userId, update);
+    }
+
+    @Override
+    public Optional<User> updateEmail(String userId, String email) {
+        Update update = new Update()
+            .set("email", email)
+            .unset("futureEmail")
+            .set("canChangeEmail", false);
+        return findAndModify(userId, update);
+    }
+
+    @Override
+    public boolean updateFutureEmail(String userId, String futureEmail) {
+        return updateActiveUser(userId, Update.update("futureEmail", futureEmail));
+    }
+
+    @Override
+    public boolean updateCanChangeEmail(String userId, boolean canChangeEmail) {
+        return updateActiveUser(userId, Update.update("canChangeEmail", canChangeEmail));
+    }
+
+    @Override
+    public boolean updateCanChangePassword(String userId, boolean canChangePassword) {
+        return updateActiveUser(userId, Update.update("canChangePassword", canChangePassword));
+    }
+
+    @Override
+    public boolean updateCreditworthinessId(String userId, String creditworthinessId) {
+        return updateActiveUser(userId, Update.update("creditworthinessId", creditworthinessId));
+    }
+
+    @Override
+    public boolean enableUser(String userId) {
+        return updateActiveUser(userId, Update.update("enabled", true));
+    }
+
+    @Override
+    public boolean addAccount(String userId, String accountId) {
+        Update update = new Update().addToSet("accounts", accountReference(accountId));
+        return updateActiveUser(userId, update);
+    }
+
+    @Override
+    public boolean addCard(String userId, String cardId, String accountId) {
+        Update update = new Update()
+            .addToSet("cards", cardReference(cardId))
+            .addToSet("accounts", accountReference(accountId));
+        return updateActiveUser(userId, update);
+    }
+
+    @Override
+    public boolean removeAccount(String accountId) {
+        DBRef reference = accountReference(accountId);
+        Query query = Query.query(Criteria.where("accounts").is(reference).and("deleted").is(false));
+        return mongoTemplate.updateFirst(query, new Update().pull("accounts", reference), User.class)
+            .getMatchedCount() > 0;
+    }
+
+    @Override
+    public boolean removeCard(String cardId) {
+        DBRef reference = cardReference(cardId);
+        Query query = Query.query(Criteria.where("cards").is(reference).and("deleted").is(false));
+        return mongoTemplate.updateFirst(query, new Update().pull("cards", reference), User.class)
+            .getMatchedCount() > 0;
+    }
+
+    @Override
+    public void incrementUnreadNotifications(String userId, long delta) {
+        Criteria criteria = Criteria.where("_id").is(userId);
+        if (delta < 0) {
+            criteria.and("unreadNotifications").gte(-delta);
+        }
+        mongoTemplate.updateFirst(Query.query(criteria), new Update().inc("unreadNotifications", delta), User.class);
+    }
+
+    @Override
+    public void incrementUnreadNotifications(Map<String, Long> countByUserId) {
+        if (countByUserId.isEmpty()) {
+            return;
+        }
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        countByUserId.forEach((userId, count) ->
+            operations.updateOne(Query.query(Criteria.where("_id").is(userId)), new Update().inc("unreadNotifications", count))
+        );
+        operations.execute();
+    }
+
+    @Override
+    public List<User> findUsersAfter(String afterId, int limit) {
+        Query query = listingQuery();
+        if (afterId != null) {
+            // range operators on _id are not converted to ObjectIds by the query mapper
+            query.addCriteria(Criteria.where("_id").gt(MongoReferences.toStoreId(afterId)));
+        }
+        return mongoTemplate.find(query.limit(limit), User.class);
+    }
+
+    @Override
+    public List<String> findIdChunk(KeyRange range, String afterId, int limit) {
+        Query query = Query.query(MongoReferences.withinRange(Criteria.where("deleted").is(false), range, afterId))
+            .with(Sort.by(Sort.Direction.ASC, "_id"))
+            .limit(limit);
+        query.fields().include("_id");
+        return mongoTemplate.find(query, User.class).stream().map(User::getId).toList();
+    }
+
+    @Override
+    public Stream<User> streamUsers() {
+        return mongoTemplate.stream(listingQuery().cursorBatchSize(LISTING_CURSOR_BATCH_SIZE), User.class);
+    }
+
+    private boolean updateActiveUser(String userId, Update update) {
+        return mongoTemplate.updateFirst(activeUser(userId), update, User.class).getMatchedCount() > 0;
+    }
+
+    private Optional<User> findAndModify(String userId, Update update) {
+        return Optional.ofNullable(
+            mongoTemplate.findAndModify(activeUser(userId), update, FindAndModifyOptions.options().returnNew(true), User.class)
+        );
+    }
+
+    /**
+     * Admin listing in {@code _id} order, so pages continue after the last seen id instead of
+     * skipping over earlier ones. Only the fields the listing shows are read.
+     */
+    private static Query listingQuery() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "_id"));
+        query.fields().include(LISTING_FIELDS);
+        return query;
+    }
+
+    private static Query activeUser(String userId) {
+        return Query.query(Criteria.where("_id").is(userId).and("deleted").is(false));
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
+    private DBRef accountReference(String accountId) {
+        return MongoReferences.reference(mongoTemplate, Account.class, accountId);
+    }
+
+    private DBRef cardReference(String cardId) {
+        return MongoReferences.reference(mongoTemplate, Card.class, cardId);
+    }
+}
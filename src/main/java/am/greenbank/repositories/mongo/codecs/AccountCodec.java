@@ -0,0 +1,62 @@
+package am.greenbank.repositories.mongo.codecs;
+
+import am.greenbank.entities.account.Account;
+import am.greenbank.entities.account.AccountType;
+import am.greenbank.entities.account.Currency;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import static am.greenbank.repositories.mongo.codecs.BsonValues.*;
+
+public class AccountCodec implements Codec<Account> {
+    @Override
+    public Account decode(BsonReader reader, DecoderContext decoderContext) {
+        Account account = new Account();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id" -> account.setId(readId(reader));
+                case "accountName" -> account.setAccountName(readString(reader));
+                case "accountNumber" -> account.setAccountNumber(readString(reader));
+                case "balance" -> account.setBalance(readDouble(reader));
+                case "currency" -> account.setCurrency(readEnum(reader, Currency.class));
+                case "isDefault" -> account.setIsDefault(readBoolean(reader));
+                case "accountType" -> account.setAccountType(readEnum(reader, AccountType.class));
+                case "createdAt" -> account.setCreatedAt(readDateTime(reader));
+                case "updatedAt" -> account.setUpdatedAt(readDateTime(reader));
+                case "deleted" -> account.setDeleted(Boolean.TRUE.equals(readBoolean(reader)));
+                case "deletedAt" -> account.setDeletedAt(readDateTime(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return account;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Account account, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writeId(writer, "_id", account.getId());
+        writeString(writer, "accountName", account.getAccountName());
+        writeString(writer, "accountNumber", account.getAccountNumber());
+        writeDouble(writer, "balance", account.getBalance());
+        writeEnum(writer, "currency", account.getCurrency());
+        writeBoolean(writer, "isDefault", account.getIsDefault());
+        writeEnum(writer, "accountType", account.getAccountType());
+        writeDateTime(writer, "createdAt", account.getCreatedAt());
+        writeDateTime(writer, "updatedAt", account.getUpdatedAt());
+        writer.writeBoolean("deleted", account.isDeleted());
+        writeDateTime(writer, "deletedAt", account.getDeletedAt());
+        writeClass(writer, Account.class);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<Account> getEncoderClass() {
+        return Account.class;
+    }
+}
@@ -0,0 +1,115 @@
+package am.greenbank.repositories.mongo.codecs;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.types.ObjectId;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Reads and writes single values the way {@code MappingMongoConverter} stores them: ids that
+ * are valid object ids as {@code ObjectId}, enums by name and {@link LocalDateTime} as a BSON
+ * date in the system time zone.
+ */
+final class BsonValues {
+    private BsonValues() {
+    }
+
+    static boolean readNull(BsonReader reader) {
+        if (reader.getCurrentBsonType() == BsonType.NULL) {
+            reader.readNull();
+            return true;
+        }
+        return false;
+    }
+
+    static String readId(BsonReader reader) {
+        if (readNull(reader)) {
+            return null;
+        }
+        return reader.getCurrentBsonType() == BsonType.OBJECT_ID
+            ? reader.readObjectId().toHexString()
+            : reader.readString();
+    }
+
+    static void writeId(BsonWriter writer, String name, String id) {
+        if (id == null) {
+            return;
+        }
+        writer.writeName(name);
+        if (ObjectId.isValid(id)) {
+            writer.writeObjectId(new ObjectId(id));
+        } else {
+            writer.writeString(id);
+        }
+    }
+
+    static String readString(BsonReader reader) {
+        return readNull(reader) ? null : reader.readString();
+    }
+
+    static void writeString(BsonWriter writer, String name, String value) {
+        if (value != null) {
+            writer.writeString(name, value);
+        }
+    }
+
+    static Double readDouble(BsonReader reader) {
+        if (readNull(reader)) {
+            return null;
+        }
+        return switch (reader.getCurrentBsonType()) {
+            case INT32 -> (double) reader.readInt32();
+            case INT64 -> (double) reader.readInt64();
+            case DECIMAL128 -> reader.readDecimal128().doubleValue();
+            default -> reader.readDouble();
+        };
+    }
+
+    static void writeDouble(BsonWriter writer, String name, Double value) {
+        if (value != null) {
+            writer.writeDouble(name, value);
+        }
+    }
+
+    static Boolean readBoolean(BsonReader reader) {
+        return readNull(reader) ? null : reader.readBoolean();
+    }
+
+    static void writeBoolean(BsonWriter writer, String name, Boolean value) {
+        if (value != null) {
+            writer.writeBoolean(name, value);
+        }
+    }
+
+    static LocalDateTime readDateTime(BsonReader reader) {
+        if (readNull(reader)) {
+            return null;
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(reader.readDateTime()), ZoneId.systemDefault());
+    }
+
+    static void writeDateTime(BsonWriter writer, String name, LocalDateTime value) {
+        if (value != null) {
+            writer.writeDateTime(name, value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        }
+    }
+
+    static <E extends Enum<E>> E readEnum(BsonReader reader, Class<E> type) {
+        String name = readString(reader);
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    static void writeEnum(BsonWriter writer, String name, Enum<?> value) {
+        if (value != null) {
+            writer.writeString(name, value.name());
+        }
+    }
+
+    static void writeClass(BsonWriter writer, Class<?> type) {
+        writer.writeString("_class", type.getName());
+    }
+}
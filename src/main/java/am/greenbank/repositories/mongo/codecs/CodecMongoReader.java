@@ -0,0 +1,66 @@
+package am.greenbank.repositories.mongo.codecs;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.bson.codecs.configuration.CodecRegistries;
+import org.bson.codecs.configuration.CodecRegistry;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs queries for the hot read paths and decodes the results with the hand-written codecs,
+ * straight from BSON into entities without the reflective {@code MappingMongoConverter} and
+ * the intermediate {@link Document}. Query criteria and sort are still mapped by Spring Data,
+ * so callers build them as usual.
+ */
+@Component
+public class CodecMongoReader {
+    private static final CodecRegistry CODEC_REGISTRY = CodecRegistries.fromRegistries(
+        CodecRegistries.fromCodecs(new TransactionCodec(), new AccountCodec(), new NotificationCodec()),
+        MongoClientSettings.getDefaultCodecRegistry()
+    );
+
+    private final MongoTemplate mongoTemplate;
+    private final QueryMapper queryMapper;
+
+    public CodecMongoReader(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+        this.queryMapper = new QueryMapper(mongoTemplate.getConverter());
+    }
+
+    public <T> List<T> find(Query query, Class<T> type) {
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter()
+            .getMappingContext()
+            .getRequiredPersistentEntity(type);
+
+        FindIterable<T> results = collection(type)
+            .find(queryMapper.getMappedObject(query.getQueryObject(), entity))
+            .sort(queryMapper.getMappedSort(query.getSortObject(), entity));
+        Document fields = query.getFieldsObject();
+        if (!fields.isEmpty()) {
+            results.projection(queryMapper.getMappedFields(fields, entity));
+        }
+        if (query.getSkip() > 0) {
+            results.skip(Math.toIntExact(query.getSkip()));
+        }
+        if (query.getLimit() > 0) {
+            results.limit(query.getLimit());
+        }
+        return results.into(new ArrayList<>());
+    }
+
+    private <T> MongoCollection<T> collection(Class<T> type) {
+        return mongoTemplate
+            .getCollection(mongoTemplate.getCollectionName(type))
+            .withDocumentClass(type)
+            .withCodecRegistry(CODEC_REGISTRY);
+    }
+}
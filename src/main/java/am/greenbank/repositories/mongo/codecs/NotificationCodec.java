@@ -0,0 +1,48 @@
+package am.greenbank.repositories.mongo.codecs;
+
+import am.greenbank.entities.Notification;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import static am.greenbank.repositories.mongo.codecs.BsonValues.*;
+
+public class NotificationCodec implements Codec<Notification> {
+    @Override
+    public Notification decode(BsonReader reader, DecoderContext decoderContext) {
+        Notification notification = new Notification();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id" -> notification.setId(readId(reader));
+                case "userId" -> notification.setUserId(readString(reader));
+                case "message" -> notification.setMessage(readString(reader));
+                case "time" -> notification.setTime(readDateTime(reader));
+                case "read" -> notification.setRead(Boolean.TRUE.equals(readBoolean(reader)));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return notification;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Notification notification, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writeId(writer, "_id", notification.getId());
+        writeString(writer, "userId", notification.getUserId());
+        writeString(writer, "message", notification.getMessage());
+        writeDateTime(writer, "time", notification.getTime());
+        writer.writeBoolean("read", notification.isRead());
+        writeClass(writer, Notification.class);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<Notification> getEncoderClass() {
+        return Notification.class;
+    }
+}
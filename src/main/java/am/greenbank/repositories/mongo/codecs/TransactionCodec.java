@@ -0,0 +1,86 @@
+package am.greenbank.repositories.mongo.codecs;
+
+import am.greenbank.entities.account.Currency;
+import am.greenbank.entities.transaction.Transaction;
+import am.greenbank.entities.transaction.TransactionEntity;
+import am.greenbank.entities.transaction.TransactionType;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import static am.greenbank.repositories.mongo.codecs.BsonValues.*;
+
+public class TransactionCodec implements Codec<Transaction> {
+    @Override
+    public Transaction decode(BsonReader reader, DecoderContext decoderContext) {
+        Transaction transaction = new Transaction();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "_id" -> transaction.setId(readId(reader));
+                case "from" -> transaction.setFrom(readTransactionEntity(reader));
+                case "to" -> transaction.setTo(readTransactionEntity(reader));
+                case "amount" -> transaction.setAmount(readDouble(reader));
+                case "currency" -> transaction.setCurrency(readEnum(reader, Currency.class));
+                case "description" -> transaction.setDescription(readString(reader));
+                case "date" -> transaction.setDate(readDateTime(reader));
+                case "done" -> transaction.setDone(readBoolean(reader));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return transaction;
+    }
+
+    @Override
+    public void encode(BsonWriter writer, Transaction transaction, EncoderContext encoderContext) {
+        writer.writeStartDocument();
+        writeId(writer, "_id", transaction.getId());
+        writeTransactionEntity(writer, "from", transaction.getFrom());
+        writeTransactionEntity(writer, "to", transaction.getTo());
+        writeDouble(writer, "amount", transaction.getAmount());
+        writeEnum(writer, "currency", transaction.getCurrency());
+        writeString(writer, "description", transaction.getDescription());
+        writeDateTime(writer, "date", transaction.getDate());
+        writeBoolean(writer, "done", transaction.getDone());
+        writeClass(writer, Transaction.class);
+        writer.writeEndDocument();
+    }
+
+    @Override
+    public Class<Transaction> getEncoderClass() {
+        return Transaction.class;
+    }
+
+    private static TransactionEntity readTransactionEntity(BsonReader reader) {
+        if (readNull(reader)) {
+            return null;
+        }
+        TransactionEntity entity = TransactionEntity.builder().build();
+        reader.readStartDocument();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            switch (reader.readName()) {
+                case "number" -> entity.setNumber(readString(reader));
+                case "userId" -> entity.setUserId(readString(reader));
+                case "type" -> entity.setType(readEnum(reader, TransactionType.class));
+                default -> reader.skipValue();
+            }
+        }
+        reader.readEndDocument();
+        return entity;
+    }
+
+    private static void writeTransactionEntity(BsonWriter writer, String name, TransactionEntity entity) {
+        if (entity == null) {
+            return;
+        }
+        writer.writeStartDocument(name);
+        writeString(writer, "number", entity.getNumber());
+        writeString(writer, "userId", entity.getUserId());
+        writeEnum(writer, "type", entity.getType());
+        writer.writeEndDocument();
+    }
+}
@@ -0,0 +1,20 @@
+package am.greenbank.responses;
+
+import am.greenbank.dtos.UserDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageResponse {
+    private List<UserDto> users;
+    private String nextCursor;
+    private int pageSize;
+    private boolean last;
+}
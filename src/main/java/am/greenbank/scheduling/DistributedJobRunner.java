@@ -0,0 +1,177 @@
+package am.greenbank.scheduling;
+
+import am.greenbank.entities.job.JobPartition;
+import am.greenbank.entities.job.JobRun;
+import am.greenbank.entities.job.JobRunStatus;
+import am.greenbank.entities.job.KeyRange;
+import am.greenbank.exceptions.exceptions.JobRunFailedException;
+import am.greenbank.repositories.interfaces.JobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs a scheduled job once across the cluster. Every node that fires the job joins the same
+ * run, keyed by job name and date. The first node to get the planning lease splits the run into
+ * key-range partitions. Every node then claims partitions under a lease, renewed by a heartbeat
+ * while it works, until none are left. A node that dies leaves its lease to run out, and the
+ * partition is picked up by another node from its last checkpoint. A partition that fails on
+ * every attempt fails the run on every node that joined it, so jobs that depend on the run do
+ * not start on incomplete work.
+ */
+@Slf4j
+@Component
+public class DistributedJobRunner implements DisposableBean {
+    private final JobStore jobStore;
+    private final String nodeId;
+    private final int partitions;
+    private final Duration lease;
+    private final Duration heartbeat;
+    private final Duration pollInterval;
+    private final int maxAttempts;
+    private final ScheduledExecutorService heartbeats;
+
+    public DistributedJobRunner(
+        JobStore jobStore,
+        @Value("${am.greenbank.jobs.node-id:}") String nodeId,
+        @Value("${am.greenbank.jobs.partitions:16}") int partitions,
+        @Value("${am.greenbank.jobs.lease:PT2M}") Duration lease,
+        @Value("${am.greenbank.jobs.heartbeat:PT30S}") Duration heartbeat,
+        @Value("${am.greenbank.jobs.poll-interval:PT5S}") Duration pollInterval,
+        @Value("${am.greenbank.jobs.max-attempts:3}") int maxAttempts
+    ) {
+        this.jobStore = jobStore;
+        this.nodeId = nodeId.isBlank()
+            ? ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID()
+            : nodeId;
+        this.partitions = partitions;
+        this.lease = lease;
+        this.heartbeat = heartbeat;
+        this.pollInterval = pollInterval;
+        this.maxAttempts = maxAttempts;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("job-heartbeat-");
+        threadFactory.setDaemon(true);
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @FunctionalInterface
+    public interface PartitionWork {
+        void run(PartitionContext context) throws Exception;
+    }
+
+    /**
+     * Splits the collection of {@code entityType} into key ranges and runs {@code work} on the
+     * ranges this node claims. Returns how much this node processed, throws
+     * {@link JobRunFailedException} once a partition ran out of attempts.
+     */
+    public long runPartitioned(String job, LocalDate runDate, Class<?> entityType, PartitionWork work)
+        throws InterruptedException {
+        return run(job, runDate, () -> jobStore.splitKeyRanges(entityType, partitions), work);
+    }
+
+    /**
+     * Runs {@code work} on exactly one node, as a run with a single partition.
+     */
+    public long runOnce(String job, LocalDate runDate, PartitionWork work) throws InterruptedException {
+        return run(job, runDate, () -> List.of(KeyRange.ALL), work);
+    }
+
+    private long run(String job, LocalDate runDate, Supplier<List<KeyRange>> planner, PartitionWork work)
+        throws InterruptedException {
+        String runId = job + ":" + runDate;
+        awaitPlan(runId, planner);
+
+        long processed = 0;
+        int claimed = 0;
+        while (true) {
+            Optional<JobPartition> partition = jobStore.claimPartition(runId, nodeId, lease, maxAttempts);
+            if (partition.isPresent()) {
+                processed += process(partition.get(), work);
+                claimed++;
+                continue;
+            }
+            if (jobStore.countUnfinishedPartitions(runId, maxAttempts) == 0) {
+                break;
+            }
+            // the rest is leased by other nodes, stay around in case one of them dies
+            Thread.sleep(pollInterval.toMillis());
+        }
+        long exhausted = jobStore.countExhaustedPartitions(runId, maxAttempts);
+        if (exhausted > 0) {
+            jobStore.failRun(runId);
+            throw new JobRunFailedException("Run " + runId + " failed, " + exhausted + " partitions ran out of attempts");
+        }
+        log.info("Run {} finished, this node worked {} partitions and processed {}", runId, claimed, processed);
+        return processed;
+    }
+
+    private void awaitPlan(String runId, Supplier<List<KeyRange>> planner) throws InterruptedException {
+        while (true) {
+            Optional<JobRun> run = jobStore.findRun(runId);
+            if (run.isPresent() && run.get().getStatus() == JobRunStatus.FAILED) {
+                throw new JobRunFailedException("Run " + runId + " failed");
+            }
+            if (run.isPresent() && run.get().getStatus() == JobRunStatus.READY) {
+                return;
+            }
+            if (jobStore.acquirePlanning(runId, nodeId, lease)) {
+                List<KeyRange> ranges = planner.get();
+                if (jobStore.publishPartitions(runId, nodeId, ranges)) {
+                    log.info("Run {} planned with {} partitions", runId, ranges.size());
+                    return;
+                }
+            }
+            Thread.sleep(pollInterval.toMillis());
+        }
+    }
+
+    private long process(JobPartition partition, PartitionWork work) throws InterruptedException {
+        PartitionContext context = new PartitionContext(partition, jobStore, nodeId);
+        ScheduledFuture<?> renewal = heartbeats.scheduleAtFixedRate(() -> {
+            try {
+                if (!jobStore.renewPartition(partition.getId(), nodeId, lease)) {
+                    context.loseLease();
+                }
+            } catch (Exception e) {
+                log.warn("Heartbeat for partition {} failed: {}", partition.getId(), e.getMessage());
+            }
+        }, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+
+        try {
+            work.run(context);
+            if (context.isLeaseLost()) {
+                log.warn("Lost the lease on partition {}, another node carries on", partition.getId());
+            } else {
+                jobStore.completePartition(context.partitionId(), nodeId, context.processed());
+            }
+        } catch (InterruptedException e) {
+            jobStore.releasePartition(context.partitionId(), nodeId);
+            throw e;
+        } catch (Exception e) {
+            log.error("Partition {} failed on attempt {}: ", partition.getId(), partition.getAttempts(), e);
+            jobStore.releasePartition(context.partitionId(), nodeId);
+        } finally {
+            renewal.cancel(false);
+        }
+        return context.processedByThisAttempt();
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+    }
+}
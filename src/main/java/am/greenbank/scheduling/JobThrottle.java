@@ -0,0 +1,129 @@
+package am.greenbank.scheduling;
+
+import am.greenbank.services.TransferLatency;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the nightly jobs from pushing the transfer p99 past its objective. Every interval the
+ * concurrency limit and the batch size fraction are halved while the p99 is over the objective
+ * and grow again by one step while it is under. On top of that the jobs spend an I/O budget of
+ * documents per second, a budget of zero switches it off.
+ */
+@Slf4j
+@Component
+public class JobThrottle {
+    private static final double BATCH_FRACTION_STEP = 0.1;
+
+    private final TransferLatency transferLatency;
+    private final Duration latencyObjective;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final double minBatchFraction;
+    private final Bucket ioBudget;
+    private final long ioBudgetCapacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private volatile int concurrency;
+    private volatile double batchFraction = 1.0;
+    private int inFlight;
+
+    public JobThrottle(
+        TransferLatency transferLatency,
+        MeterRegistry meterRegistry,
+        @Value("${am.greenbank.jobs.throttle.latency-objective:PT0.2S}") Duration latencyObjective,
+        @Value("${am.greenbank.jobs.throttle.min-concurrency:1}") int minConcurrency,
+        @Value("${am.greenbank.jobs.throttle.max-concurrency:8}") int maxConcurrency,
+        @Value("${am.greenbank.jobs.throttle.min-batch-fraction:0.1}") double minBatchFraction,
+        @Value("${am.greenbank.jobs.throttle.io-budget:0}") long ioBudget
+    ) {
+        this.transferLatency = transferLatency;
+        this.latencyObjective = latencyObjective;
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.minBatchFraction = minBatchFraction;
+        this.concurrency = maxConcurrency;
+        this.ioBudgetCapacity = ioBudget;
+        this.ioBudget = ioBudget > 0
+            ? Bucket.builder().addLimit(Bandwidth.simple(ioBudget, Duration.ofSeconds(1))).build()
+            : null;
+        Gauge.builder("greenbank.jobs.throttle.concurrency", this, throttle -> throttle.concurrency)
+            .register(meterRegistry);
+        Gauge.builder("greenbank.jobs.throttle.batch-fraction", this, throttle -> throttle.batchFraction)
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${am.greenbank.jobs.throttle.adjust-interval:PT5S}")
+    public void adjust() {
+        double p99 = transferLatency.p99Millis();
+        lock.lock();
+        try {
+            if (p99 > latencyObjective.toMillis()) {
+                concurrency = Math.max(minConcurrency, concurrency / 2);
+                batchFraction = Math.max(minBatchFraction, batchFraction / 2);
+                log.info("Transfer p99 at {} ms, jobs backed off to {} workers and {} of each batch", p99, concurrency, batchFraction);
+            } else {
+                concurrency = Math.min(maxConcurrency, concurrency + 1);
+                batchFraction = Math.min(1.0, batchFraction + BATCH_FRACTION_STEP);
+                permitReleased.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until fewer units of job work are running than the current limit allows. Every
+     * acquire is paired with a {@link #release()} in a finally block.
+     */
+    public void acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= concurrency) {
+                permitReleased.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release() {
+        lock.lock();
+        try {
+            inFlight--;
+            permitReleased.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The configured batch size scaled down by the current fraction, at least one.
+     */
+    public int batchSize(int configured) {
+        return Math.max(1, (int) (configured * batchFraction));
+    }
+
+    /**
+     * Blocks until the budget covers {@code documents} more documents read or written.
+     */
+    public void spend(long documents) throws InterruptedException {
+        if (ioBudget == null) {
+            return;
+        }
+        for (long left = documents; left > 0; left -= ioBudgetCapacity) {
+            ioBudget.asBlocking().consume(Math.min(left, ioBudgetCapacity));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package am.greenbank.scheduling;
+
+import am.greenbank.entities.job.JobPartition;
+import am.greenbank.entities.job.KeyRange;
+import am.greenbank.repositories.interfaces.JobStore;
+
+/**
+ * What a job sees of the partition it was handed: the key range, where an earlier attempt
+ * stopped, and a way to record progress for the next one.
+ */
+public class PartitionContext {
+    private final JobPartition partition;
+    private final JobStore jobStore;
+    private final String owner;
+    private final long initiallyProcessed;
+    private volatile boolean leaseLost;
+    private String lastId;
+    private long processed;
+
+    PartitionContext(JobPartition partition, JobStore jobStore, String owner) {
+        this.partition = partition;
+        this.jobStore = jobStore;
+        this.owner = owner;
+        this.initiallyProcessed = partition.getProcessed();
+        this.lastId = partition.getLastId();
+        this.processed = partition.getProcessed();
+    }
+
+    public KeyRange range() {
+        return partition.range();
+    }
+
+    /**
+     * Last id the previous attempt checkpointed, {@code null} on a fresh partition.
+     */
+    public String resumeAfter() {
+        return lastId;
+    }
+
+    /**
+     * Records that everything up to {@code lastId} is done, {@code count} of it by this call.
+     */
+    public void advance(String lastId, long count) {
+        this.lastId = lastId;
+        this.processed += count;
+        jobStore.checkpointPartition(partition.getId(), owner, lastId, processed);
+    }
+
+    /**
+     * Counts work that needs no checkpoint, such as a single server-side update.
+     */
+    public void add(long count) {
+        processed += count;
+    }
+
+    /**
+     * True once another node took the partition over, the job should stop at the next chunk.
+     */
+    public boolean isLeaseLost() {
+        return leaseLost;
+    }
+
+    void loseLease() {
+        leaseLost = true;
+    }
+
+    long processed() {
+        return processed;
+    }
+
+    long processedByThisAttempt() {
+        return processed - initiallyProcessed;
+    }
+
+    /**
+     * Same on every attempt at the partition, so a job can tag its writes with it and find them
+     * again after a retry.
+     */
+    public String partitionId() {
+        return partition.getId();
+    }
+}
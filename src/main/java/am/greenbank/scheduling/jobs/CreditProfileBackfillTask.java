@@ -0,0 +1,168 @@
+package am.greenbank.scheduling.jobs;
+
+import am.greenbank.entities.loan.CreditProfile;
+import am.greenbank.entities.user.User;
+import am.greenbank.repositories.interfaces.CreditProfileRepository;
+import am.greenbank.repositories.interfaces.LoanRepository;
+import am.greenbank.repositories.interfaces.UserRepository;
+import am.greenbank.scheduling.DistributedJobRunner;
+import am.greenbank.scheduling.JobThrottle;
+import am.greenbank.scheduling.PartitionContext;
+import am.greenbank.services.CreditProfileService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Builds the credit profile of every live user from their loans. Runs after startup on its own
+ * thread as a single run for the whole cluster, the run date only moves when the profile layout
+ * changes so it happens once per layout. Users are split into key ranges across the nodes and
+ * each node rebuilds its chunks on several workers. A loan opened or paid while its owner's
+ * chunk is being rebuilt can be left out until its next payment. Profiles count payments from
+ * {@code paymentCount}, so the run waits until the loan payment migration has moved every legacy
+ * payment list into it.
+ */
+@Slf4j
+@Component
+public class CreditProfileBackfillTask {
+    private static final String JOB = "credit-profile-backfill";
+    private static final LocalDate RUN_DATE = LocalDate.EPOCH.plusDays(1);
+
+    private final UserRepository userRepository;
+    private final LoanRepository loanRepository;
+    private final CreditProfileRepository creditProfileRepository;
+    private final CreditProfileService creditProfileService;
+    private final DistributedJobRunner jobRunner;
+    private final JobThrottle throttle;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int workers;
+    private final Duration migrationPoll;
+
+    public CreditProfileBackfillTask(
+        UserRepository userRepository,
+        LoanRepository loanRepository,
+        CreditProfileRepository creditProfileRepository,
+        CreditProfileService creditProfileService,
+        DistributedJobRunner jobRunner,
+        JobThrottle throttle,
+        @Value("${am.greenbank.credit-profiles.backfill.enabled:true}") boolean enabled,
+        @Value("${am.greenbank.credit-profiles.backfill.batch-size:500}") int batchSize,
+        @Value("${am.greenbank.credit-profiles.backfill.workers:4}") int workers,
+        @Value("${am.greenbank.credit-profiles.backfill.migration-poll:PT10S}") Duration migrationPoll
+    ) {
+        this.userRepository = userRepository;
+        this.loanRepository = loanRepository;
+        this.creditProfileRepository = creditProfileRepository;
+        this.creditProfileService = creditProfileService;
+        this.jobRunner = jobRunner;
+        this.throttle = throttle;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.workers = workers;
+        this.migrationPoll = migrationPoll;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new CustomizableThreadFactory("credit-profile-backfill-").newThread(this::backfill);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void backfill() {
+        try {
+            awaitPaymentMigration();
+            long rebuilt = jobRunner.runPartitioned(JOB, RUN_DATE, User.class, this::backfill);
+            if (rebuilt > 0) {
+                log.info("Rebuilt {} credit profiles", rebuilt);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Credit profile backfill interrupted");
+        } catch (Exception e) {
+            log.error("Credit profile backfill failed: ", e);
+        }
+    }
+
+    private void awaitPaymentMigration() throws InterruptedException {
+        if (!loanRepository.hasLegacyPaymentHistory()) {
+            return;
+        }
+        log.info("Credit profile backfill waits for the loan payment migration");
+        do {
+            Thread.sleep(migrationPoll.toMillis());
+        } while (loanRepository.hasLegacyPaymentHistory());
+    }
+
+    /**
+     * Same chunk pipeline as the deposit accrual, the checkpoint moves past a chunk only once it
+     * and every chunk before it are written. A replayed chunk is rebuilt again, which is harmless.
+     */
+    private void backfill(PartitionContext context) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("credit-profile-rebuild-"));
+        Deque<Future<RebuiltChunk>> inFlight = new ArrayDeque<>();
+        try {
+            String afterId = context.resumeAfter();
+            List<String> userIds;
+            int size;
+            do {
+                size = throttle.batchSize(batchSize);
+                userIds = userRepository.findIdChunk(context.range(), afterId, size);
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                throttle.spend(userIds.size());
+                List<String> chunk = userIds;
+                String lastId = userIds.get(userIds.size() - 1);
+                inFlight.addLast(executor.submit(() -> {
+                    throttle.acquire();
+                    try {
+                        return rebuild(chunk, lastId);
+                    } finally {
+                        throttle.release();
+                    }
+                }));
+                afterId = lastId;
+                if (inFlight.size() >= workers) {
+                    advance(context, inFlight.removeFirst().get());
+                }
+            } while (userIds.size() == size && !context.isLeaseLost());
+
+            while (!inFlight.isEmpty()) {
+                advance(context, inFlight.removeFirst().get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private RebuiltChunk rebuild(List<String> userIds, String lastId) {
+        List<CreditProfile> profiles = creditProfileService.rebuild(userIds, loanRepository.findAllByUserIdIn(userIds));
+        creditProfileRepository.replaceAll(profiles);
+        return new RebuiltChunk(lastId, profiles.size());
+    }
+
+    private static void advance(PartitionContext context, RebuiltChunk chunk) {
+        context.advance(chunk.lastId(), chunk.rebuilt());
+    }
+
+    private record RebuiltChunk(String lastId, long rebuilt) {
+    }
+}
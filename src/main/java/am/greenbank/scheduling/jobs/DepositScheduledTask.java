@@ -1,69 +1,233 @@
 package am.greenbank.scheduling.jobs;
 
 import am.greenbank.entities.deposit.Deposit;
-import am.greenbank.entities.deposit.DepositStatus;
-import am.greenbank.helpers.util.BankUtil;
-import am.greenbank.repositories.interfaces.AccountRepository;
+import am.greenbank.entities.deposit.DepositAccrual;
+import am.greenbank.exceptions.exceptions.JobRunFailedException;
 import am.greenbank.repositories.interfaces.DepositRepository;
+import am.greenbank.scheduling.DistributedJobRunner;
+import am.greenbank.scheduling.JobThrottle;
+import am.greenbank.scheduling.PartitionContext;
 import am.greenbank.services.DepositService;
-import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
 import java.text.SimpleDateFormat;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 @Component
-@RequiredArgsConstructor
 public class DepositScheduledTask {
+    private static final String SETTLEMENT_JOB = "deposit-settlement";
+    private static final String ACCRUAL_JOB = "deposit-accrual";
+
     private final DepositRepository depositRepository;
     private final DepositService depositService;
+    private final DistributedJobRunner jobRunner;
+    private final Clock clock;
+    private final JobThrottle throttle;
+    private final int chunkSize;
+    private final int workers;
+    private final int settlementBatchSize;
+    private final int maxCatchUpDays;
+    private final Duration settlementStaleAfter;
     private static final Logger log = LoggerFactory.getLogger(VerificationNumberCollectionScheduledTask.class);
 
+    public DepositScheduledTask(
+        DepositRepository depositRepository,
+        DepositService depositService,
+        DistributedJobRunner jobRunner,
+        Clock clock,
+        JobThrottle throttle,
+        @Value("${am.greenbank.deposits.accrual.chunk-size:1000}") int chunkSize,
+        @Value("${am.greenbank.deposits.accrual.workers:4}") int workers,
+        @Value("${am.greenbank.deposits.settlement.batch-size:500}") int settlementBatchSize,
+        @Value("${am.greenbank.accrual.max-catch-up-days:366}") int maxCatchUpDays,
+        @Value("${am.greenbank.deposits.settlement.stale-after:PT1H}") Duration settlementStaleAfter
+    ) {
+        this.depositRepository = depositRepository;
+        this.depositService = depositService;
+        this.jobRunner = jobRunner;
+        this.clock = clock;
+        this.throttle = throttle;
+        this.chunkSize = chunkSize;
+        this.workers = workers;
+        this.settlementBatchSize = settlementBatchSize;
+        this.maxCatchUpDays = maxCatchUpDays;
+        this.settlementStaleAfter = settlementStaleAfter;
+    }
+
     private SimpleDateFormat getSimpleDateFormat() {
         return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
     }
 
+    /**
+     * Fires on every node, the runner makes each run happen once across the cluster. Settlement
+     * starts after the accrual run has finished on all nodes, so deposits that matured during
+     * missed runs are paid out with the interest they were still owed. A failed accrual run
+     * skips the settlement, its deposits are settled once a later accrual run has caught up.
+     */
     @Scheduled(cron = "0 0 0 * * *")
     private void depositDaily() {
-        findEndedDeposits();
-        addDepositDaily();
+        try {
+            addDepositDaily();
+            findEndedDeposits();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Deposit jobs interrupted");
+        } catch (JobRunFailedException e) {
+            log.error("{}, deposit settlement skipped", e.getMessage());
+        } catch (Exception e) {
+            log.error("Error occurred while running deposit jobs: ", e);
+        }
+    }
+
+    public long addDepositDaily() throws InterruptedException {
+        LocalDate today = LocalDate.now(clock);
+        long accrued = jobRunner.runPartitioned(ACCRUAL_JOB, today, Deposit.class, context -> accrue(context, today));
+        SimpleDateFormat dateFormat = getSimpleDateFormat();
+        log.info("Deposit percent added for {} deposits at {}", accrued, dateFormat.format(clock.millis()));
+        return accrued;
     }
 
-    public void addDepositDaily() {
-        List<Deposit> inProgressDeposits = depositRepository.findAllByStatus(DepositStatus.IN_PROGRESS);
-        int yesterday = LocalDateTime.now().minusDays(1).getDayOfYear();
-        int today = LocalDateTime.now().getDayOfYear();
-        inProgressDeposits.forEach(deposit -> {
-            LocalDateTime startDate = deposit.getStartDate();
-            LocalDateTime endDate = deposit.getEndDate();
-            if (startDate.getDayOfYear() < yesterday && endDate.getDayOfYear() >= today) {
-                double amount = deposit.getAmount();
-                double percent = deposit.getPercent();
-                amount += amount * percent / 100;
-                deposit.setAmount(amount);
+    /**
+     * Reads the due deposits of the partition in {@code _id} order one chunk at a time and hands
+     * each chunk to a worker, keeping at most one chunk per worker in flight. The partition
+     * checkpoint moves past a chunk only once it and every chunk before it are written. Chunks
+     * replayed after a takeover are skipped by the per-deposit date guard. Chunk size, write
+     * concurrency and read rate follow the {@link JobThrottle}.
+     */
+    private void accrue(PartitionContext context, LocalDate today) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("deposit-accrual-"));
+        Deque<Future<AccruedChunk>> inFlight = new ArrayDeque<>();
+        try {
+            String afterId = context.resumeAfter();
+            List<Deposit> chunk;
+            int size;
+            do {
+                size = throttle.batchSize(chunkSize);
+                chunk = depositRepository.findAccrualChunk(context.range(), afterId, today, size);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                throttle.spend(chunk.size());
+                List<Deposit> deposits = chunk;
+                String lastId = chunk.get(chunk.size() - 1).getId();
+                inFlight.addLast(executor.submit(() -> {
+                    throttle.acquire();
+                    try {
+                        return accrue(deposits, today, lastId);
+                    } finally {
+                        throttle.release();
+                    }
+                }));
+                afterId = lastId;
+                if (inFlight.size() >= workers) {
+                    advance(context, inFlight.removeFirst().get());
+                }
+            } while (chunk.size() == size && !context.isLeaseLost());
+
+            while (!inFlight.isEmpty()) {
+                advance(context, inFlight.removeFirst().get());
             }
-        });
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
-        depositRepository.saveAllDeposits(inProgressDeposits);
-        SimpleDateFormat dateFormat = getSimpleDateFormat();
-        log.info("Deposit percent added for {} deposits at {}", inProgressDeposits.size(), dateFormat.format(System.currentTimeMillis()));
+    private AccruedChunk accrue(List<Deposit> deposits, LocalDate accrualDate, String lastId) {
+        List<DepositAccrual> accruals = new ArrayList<>(deposits.size());
+        for (Deposit deposit : deposits) {
+            if (deposit.getAmount() != null && deposit.getPercent() != null) {
+                accrualOf(deposit, accrualDate).ifPresent(accruals::add);
+            }
+        }
+        return new AccruedChunk(lastId, depositRepository.accrueInterest(accruals));
     }
 
-    public void findEndedDeposits() {
-        LocalDateTime now = LocalDate.now().atStartOfDay();
-        List<Deposit> allByStatusAndEndDateBefore = depositRepository
-            .findAllByStatusAndEndDateBefore(DepositStatus.IN_PROGRESS, now);
-        allByStatusAndEndDateBefore.forEach(deposit -> {
-            Deposit deposit1 = depositService.closeDeposit(deposit.getId());
-        });
-        depositRepository.saveAllDeposits(allByStatusAndEndDateBefore);
+    /**
+     * Every day the deposit grows by {@code percent} of itself, so {@code k} missed days come to
+     * {@code amount * ((1 + percent / 100)^k - 1)} in one step. Days run from the day after
+     * {@code lastAccruedDate} up to today or the end date, whichever is first. Deposits never
+     * stamped were accrued by the old job and are taken as current up to yesterday.
+     */
+    Optional<DepositAccrual> accrualOf(Deposit deposit, LocalDate accrualDate) {
+        LocalDate accruedFrom = deposit.getLastAccruedDate();
+        LocalDate from = accruedFrom != null ? accruedFrom : accrualDate.minusDays(1);
+        LocalDate through = deposit.getEndDate() != null && deposit.getEndDate().toLocalDate().isBefore(accrualDate)
+            ? deposit.getEndDate().toLocalDate()
+            : accrualDate;
+        long days = Math.min(ChronoUnit.DAYS.between(from, through), maxCatchUpDays);
+        if (days <= 0) {
+            return Optional.empty();
+        }
+        double interest = deposit.getAmount() * (Math.pow(1 + deposit.getPercent() / 100, days) - 1);
+        return Optional.of(new DepositAccrual(deposit.getId(), accruedFrom, through, interest));
+    }
+
+    private static void advance(PartitionContext context, AccruedChunk chunk) {
+        context.advance(chunk.lastId(), chunk.accrued());
+    }
+
+    /**
+     * Settlements that stopped on some node are recovered first, so the deposits they released
+     * are paid out by this run.
+     */
+    public long findEndedDeposits() throws InterruptedException {
+        int recovered = depositService.recoverStaleSettlements(LocalDateTime.now(clock).minus(settlementStaleAfter), settlementBatchSize);
+        if (recovered > 0) {
+            log.warn("Recovered {} deposits left settling by a stopped settlement", recovered);
+        }
+        LocalDateTime now = LocalDate.now(clock).atStartOfDay();
+        long settled = jobRunner.runPartitioned(SETTLEMENT_JOB, now.toLocalDate(), Deposit.class, context -> settle(context, now));
         SimpleDateFormat dateFormat = getSimpleDateFormat();
-        log.info("Ended deposits found and updated at {}", dateFormat.format(System.currentTimeMillis()));
+        log.info("Ended deposits found and {} settled at {}", settled, dateFormat.format(clock.millis()));
+        return settled;
+    }
+
+    /**
+     * Hands the matured deposits of the partition to the settlement in {@code _id} ordered
+     * batches. Deposits a batch could not pay stay in progress and are passed over until the
+     * next run. Batch size and pace follow the {@link JobThrottle}.
+     */
+    private void settle(PartitionContext context, LocalDateTime endedBefore) throws InterruptedException {
+        String afterId = context.resumeAfter();
+        List<Deposit> batch;
+        int size;
+        do {
+            size = throttle.batchSize(settlementBatchSize);
+            batch = depositRepository.findMaturedChunk(context.range(), afterId, endedBefore, size);
+            if (batch.isEmpty()) {
+                break;
+            }
+            throttle.spend(batch.size());
+            afterId = batch.get(batch.size() - 1).getId();
+            int settled;
+            throttle.acquire();
+            try {
+                settled = depositService.settleMaturedDeposits(batch.stream().map(Deposit::getId).toList());
+            } finally {
+                throttle.release();
+            }
+            context.advance(afterId, settled);
+        } while (batch.size() == size && !context.isLeaseLost());
     }
-}
 
+    private record AccruedChunk(String lastId, long accrued) {
+    }
+}
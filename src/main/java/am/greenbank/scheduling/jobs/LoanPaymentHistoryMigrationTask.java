@@ -0,0 +1,179 @@
+package am.greenbank.scheduling.jobs;
+
+import am.greenbank.entities.loan.Loan;
+import am.greenbank.entities.loan.LoanPayment;
+import am.greenbank.entities.loan.LoanPaymentBucket;
+import am.greenbank.repositories.mongo.JobMongoTemplate;
+import com.mongodb.ErrorCategory;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Moves the legacy {@code paymentDays} and {@code paymentTransactionIds} lists out of loan
+ * documents into the monthly {@link LoanPaymentBucket}s and fills in the payment summary on the
+ * loan. Runs once after startup on its own thread, in batches with a pause in between. The old
+ * lists never held amounts, so legacy payments have none and {@code totalPaid} only covers
+ * payments made after the move.
+ */
+@Slf4j
+@Component
+public class LoanPaymentHistoryMigrationTask {
+    private static final String LEGACY_DAYS = "paymentDays";
+    private static final String LEGACY_TRANSACTION_IDS = "paymentTransactionIds";
+    private static final String LEGACY_MIGRATED = "legacyMigrated";
+
+    private final JobMongoTemplate jobMongoTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pause;
+
+    public LoanPaymentHistoryMigrationTask(
+        JobMongoTemplate jobMongoTemplate,
+        @Value("${am.greenbank.loans.payment-migration.enabled:true}") boolean enabled,
+        @Value("${am.greenbank.loans.payment-migration.batch-size:500}") int batchSize,
+        @Value("${am.greenbank.loans.payment-migration.pause:PT0.2S}") Duration pause
+    ) {
+        this.jobMongoTemplate = jobMongoTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pause = pause;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new CustomizableThreadFactory("loan-payments-migration-").newThread(this::migrate);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void migrate() {
+        long migrated = 0;
+        try {
+            List<LegacyLoan> loans;
+            while (!(loans = nextBatch()).isEmpty()) {
+                migrateBatch(loans);
+                migrated += loans.size();
+                Thread.sleep(pause.toMillis());
+            }
+            if (migrated > 0) {
+                log.info("Moved payment history out of {} loan documents", migrated);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Loan payment migration interrupted after {} loans", migrated);
+        } catch (Exception e) {
+            log.error("Loan payment migration failed after {} loans: ", migrated, e);
+        }
+    }
+
+    private List<LegacyLoan> nextBatch() {
+        Query query = Query.query(Criteria.where(LEGACY_DAYS).exists(true)).limit(batchSize);
+        query.fields().include(LEGACY_DAYS, LEGACY_TRANSACTION_IDS);
+        return jobMongoTemplate.find(query, LegacyLoan.class, jobMongoTemplate.getCollectionName(Loan.class));
+    }
+
+    /**
+     * Buckets are written first and the lists dropped after, so a batch cut short is picked up
+     * again. A bucket is marked once it received its loan's legacy payments and is skipped on the
+     * retry, its upsert then hits the existing id and that error is ignored.
+     */
+    private void migrateBatch(List<LegacyLoan> loans) {
+        BulkOperations buckets = jobMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LoanPaymentBucket.class);
+        BulkOperations loanUpdates = jobMongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Loan.class);
+        boolean anyPayments = false;
+        for (LegacyLoan loan : loans) {
+            Map<YearMonth, List<LoanPayment>> paymentsByMonth = paymentsByMonth(loan);
+            paymentsByMonth.forEach((month, payments) -> {
+                Query query = Query.query(
+                    Criteria.where("_id").is(LoanPaymentBucket.idOf(loan.getId(), month)).and(LEGACY_MIGRATED).ne(true)
+                );
+                Update update = new Update()
+                    .setOnInsert("loanId", loan.getId())
+                    .setOnInsert("month", month.toString())
+                    .inc("count", payments.size())
+                    .set(LEGACY_MIGRATED, true);
+                update.push("payments").sort(Sort.by("day")).each(payments.toArray());
+                buckets.upsert(query, update);
+            });
+            anyPayments |= !paymentsByMonth.isEmpty();
+
+            Query query = Query.query(Criteria.where("_id").is(loan.getId()).and(LEGACY_DAYS).exists(true));
+            Update update = new Update()
+                .inc("paymentCount", loan.days().size())
+                .unset(LEGACY_DAYS)
+                .unset(LEGACY_TRANSACTION_IDS);
+            loan.days().stream().max(LocalDate::compareTo).ifPresent(last -> update.max("lastPaymentDate", last));
+            loanUpdates.updateOne(query, update);
+        }
+        if (anyPayments) {
+            executeIgnoringDuplicates(buckets);
+        }
+        loanUpdates.execute();
+    }
+
+    /**
+     * Transaction ids are only paired with days when both lists have the same length.
+     */
+    private static Map<YearMonth, List<LoanPayment>> paymentsByMonth(LegacyLoan loan) {
+        List<LocalDate> days = loan.days();
+        List<String> transactionIds = loan.getPaymentTransactionIds();
+        boolean paired = transactionIds != null && transactionIds.size() == days.size();
+        Map<YearMonth, List<LoanPayment>> paymentsByMonth = new TreeMap<>();
+        for (int i = 0; i < days.size(); i++) {
+            LocalDate day = days.get(i);
+            if (day == null) {
+                continue;
+            }
+            LoanPayment payment = new LoanPayment(day, null, paired ? transactionIds.get(i) : null);
+            paymentsByMonth.computeIfAbsent(YearMonth.from(day), month -> new ArrayList<>()).add(payment);
+        }
+        return paymentsByMonth;
+    }
+
+    private static void executeIgnoringDuplicates(BulkOperations operations) {
+        try {
+            operations.execute();
+        } catch (BulkOperationException e) {
+            boolean onlyDuplicates = e.getErrors()
+                .stream()
+                .allMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY);
+            if (!onlyDuplicates) {
+                throw e;
+            }
+        }
+    }
+
+    @Data
+    static class LegacyLoan {
+        private String id;
+        private List<LocalDate> paymentDays;
+        private List<String> paymentTransactionIds;
+
+        List<LocalDate> days() {
+            return paymentDays == null ? Collections.emptyList() : paymentDays;
+        }
+    }
+}
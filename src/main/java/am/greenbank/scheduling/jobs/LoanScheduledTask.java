@@ -1,81 +1,192 @@
 package am.greenbank.scheduling.jobs;
 
-import am.greenbank.entities.Creditworthiness;
 import am.greenbank.entities.loan.Loan;
 import am.greenbank.entities.loan.LoanStatus;
-import am.greenbank.entities.user.User;
-import am.greenbank.exceptions.exceptions.UserNotFoundException;
-import am.greenbank.repositories.interfaces.CreditworthinessRepository;
+import am.greenbank.exceptions.exceptions.JobRunFailedException;
 import am.greenbank.repositories.interfaces.LoanRepository;
-import am.greenbank.repositories.interfaces.UserRepository;
-import lombok.RequiredArgsConstructor;
+import am.greenbank.scheduling.DistributedJobRunner;
+import am.greenbank.scheduling.JobThrottle;
+import am.greenbank.scheduling.PartitionContext;
+import am.greenbank.services.CreditProfileService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Sort;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.text.SimpleDateFormat;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
-@RequiredArgsConstructor
 public class LoanScheduledTask {
+    private static final String SETTLEMENT_JOB = "loan-settlement";
+    private static final String ACCRUAL_JOB = "loan-accrual";
+    private static final double VERIFY_TOLERANCE = 1e-6;
+
     private final LoanRepository loanRepository;
-    private final UserRepository userRepository;
-    private final CreditworthinessRepository creditworthinessRepository;
+    private final CreditProfileService creditProfileService;
+    private final DistributedJobRunner jobRunner;
+    private final Clock clock;
+    private final JobThrottle throttle;
+    private final int verifySampleSize;
+    private final int maxCatchUpDays;
     private static final Logger log = LoggerFactory.getLogger(VerificationNumberCollectionScheduledTask.class);
 
+    public LoanScheduledTask(
+        LoanRepository loanRepository,
+        CreditProfileService creditProfileService,
+        DistributedJobRunner jobRunner,
+        Clock clock,
+        JobThrottle throttle,
+        @Value("${am.greenbank.loans.accrual.verify-sample-size:0}") int verifySampleSize,
+        @Value("${am.greenbank.accrual.max-catch-up-days:366}") int maxCatchUpDays
+    ) {
+        this.loanRepository = loanRepository;
+        this.creditProfileService = creditProfileService;
+        this.jobRunner = jobRunner;
+        this.clock = clock;
+        this.throttle = throttle;
+        this.verifySampleSize = verifySampleSize;
+        this.maxCatchUpDays = maxCatchUpDays;
+    }
+
     private SimpleDateFormat getSimpleDateFormat() {
         return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
     }
 
-        @Scheduled(cron = "0 0 0 * * *")
+    /**
+     * Accrual runs first so loans that ended during missed runs are settled on what they owe. A
+     * failed accrual run skips the settlement until a later accrual run has caught up.
+     */
+    @Scheduled(cron = "0 0 0 * * *")
     private void loanDaily() {
-        findEndedLoans();
-        addLoanDaily();
+        try {
+            addLoanDaily();
+            findEndedLoans();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Loan jobs interrupted");
+        } catch (JobRunFailedException e) {
+            log.error("{}, loan settlement skipped", e.getMessage());
+        } catch (Exception e) {
+            log.error("Error occurred while running loan jobs: ", e);
+        }
     }
 
-    public void addLoanDaily() {
-        List<Loan> inProgressLoans = loanRepository.findAllByStatus(LoanStatus.IN_PROGRESS);
-        int yesterday = LocalDateTime.now().minusDays(1).getDayOfYear();
-        int today = LocalDateTime.now().getDayOfYear();
-        inProgressLoans.forEach(loan -> {
-            LocalDateTime startDate = loan.getStartDate();
-            LocalDateTime endDate = loan.getEndDate();
-            if (startDate.getDayOfYear() < yesterday && endDate.getDayOfYear() >= today) {
-                double amount = loan.getAmount();
-                double stayedAmount = loan.getStayedAmount();
-                double dailyInterestRate = loan.getDailyInterestRate();
-                if (stayedAmount == 0) {
-                    loan.setStatus(LoanStatus.PAYED);
-                } else {
-                    stayedAmount += amount * dailyInterestRate;
-                    loan.setStayedAmount(stayedAmount);
-                }
-            }
-        });
+    public long addLoanDaily() throws InterruptedException {
+        LocalDate today = LocalDate.now(clock);
+        long changedLoans = jobRunner.runPartitioned(ACCRUAL_JOB, today, Loan.class, context -> accrue(context, today));
+        SimpleDateFormat dateFormat = getSimpleDateFormat();
+        log.info("Loan percent added for {} loans at {}", changedLoans, dateFormat.format(clock.millis()));
+        return changedLoans;
+    }
+
+    /**
+     * One multi-update per partition, so the throttle can only hold it back as a whole and
+     * charge the budget for it afterwards.
+     */
+    private void accrue(PartitionContext context, LocalDate today) throws InterruptedException {
+        List<Loan> sample = verifySampleSize > 0
+            ? loanRepository.sampleDueForAccrual(context.range(), today, verifySampleSize)
+            : List.of();
+
+        long accrued;
+        throttle.acquire();
+        try {
+            accrued = loanRepository.accrueInterest(context.range(), today, maxCatchUpDays);
+        } finally {
+            throttle.release();
+        }
+        context.add(accrued);
+        throttle.spend(accrued);
 
-        loanRepository.saveAllLoans(inProgressLoans);
+        if (!sample.isEmpty()) {
+            verify(sample, today);
+        }
+    }
+
+    public long findEndedLoans() throws InterruptedException {
+        LocalDateTime now = LocalDate.now(clock).atStartOfDay();
+        long endedLoans = jobRunner.runPartitioned(
+            SETTLEMENT_JOB, now.toLocalDate(), Loan.class,
+            context -> settle(context, now)
+        );
         SimpleDateFormat dateFormat = getSimpleDateFormat();
-        log.info("Loan percent added for {} loans at {}", inProgressLoans.size(), dateFormat.format(System.currentTimeMillis()));
+        log.info("{} ended loans found and updated at {}", endedLoans, dateFormat.format(clock.millis()));
+        return endedLoans;
+    }
+
+    /**
+     * The settlement id is the partition id, so a retry reads back the loans a dead attempt
+     * already settled and replays them into the owners' credit profiles, which only count a
+     * loan once.
+     */
+    private void settle(PartitionContext context, LocalDateTime endedBefore) throws InterruptedException {
+        List<Loan> settled;
+        throttle.acquire();
+        try {
+            settled = loanRepository.settleEndedLoans(context.range(), endedBefore, context.partitionId());
+        } finally {
+            throttle.release();
+        }
+        creditProfileService.loansSettled(settled);
+        context.add(settled.size());
+        throttle.spend(settled.size());
     }
 
-    public void findEndedLoans() {
-        LocalDateTime now = LocalDate.now().atStartOfDay();
-        List<Loan> allByStatusAndEndDateBefore = loanRepository
-            .findAllByStatusAndEndDateBefore(LoanStatus.IN_PROGRESS, now);
-        allByStatusAndEndDateBefore.forEach(loan -> {
-            if (loan.getStayedAmount() == 0) {
-                loan.setStatus(LoanStatus.PAYED);
-            } else {
-                loan.setStatus(LoanStatus.NOT_PAYED);
+    /**
+     * Compares the loans written by the server-side accrual with what the in-memory accrual
+     * makes of the same loans as they were read before the update. Payments made while the
+     * job runs show up as mismatches too.
+     */
+    private void verify(List<Loan> before, LocalDate accrualDate) {
+        Map<String, Loan> after = loanRepository.findAllById(before.stream().map(Loan::getId).toList())
+            .stream()
+            .collect(Collectors.toMap(Loan::getId, Function.identity()));
+        int mismatches = 0;
+        for (Loan loan : before) {
+            Loan expected = accrue(loan, accrualDate);
+            Loan actual = after.get(loan.getId());
+            if (actual == null
+                || actual.getStatus() != expected.getStatus()
+                || Math.abs(actual.getStayedAmount() - expected.getStayedAmount()) > VERIFY_TOLERANCE) {
+                mismatches++;
+                log.warn(
+                    "Loan {} accrual mismatch, expected {} {} but found {}",
+                    loan.getId(), expected.getStatus(), expected.getStayedAmount(),
+                    actual == null ? "nothing" : actual.getStatus() + " " + actual.getStayedAmount()
+                );
             }
-        });
-        loanRepository.saveAllLoans(allByStatusAndEndDateBefore);
-        SimpleDateFormat dateFormat = getSimpleDateFormat();
-        log.info("Ended loans found and updated at {}", dateFormat.format(System.currentTimeMillis()));
+        }
+        log.info("Loan accrual verified on {} sampled loans, {} mismatches", before.size(), mismatches);
+    }
+
+    /**
+     * The accrual worked out in the JVM, kept as the reference for {@link #verify}.
+     */
+    private Loan accrue(Loan loan, LocalDate accrualDate) {
+        Loan expected = Loan.builder()
+            .status(loan.getStatus())
+            .stayedAmount(loan.getStayedAmount())
+            .build();
+        LocalDate from = loan.getLastAccruedDate() != null ? loan.getLastAccruedDate() : accrualDate.minusDays(1);
+        LocalDate through = loan.getEndDate().toLocalDate().isBefore(accrualDate)
+            ? loan.getEndDate().toLocalDate()
+            : accrualDate;
+        long days = Math.min(ChronoUnit.DAYS.between(from, through), maxCatchUpDays);
+        if (Objects.equals(loan.getStayedAmount(), 0.0)) {
+            expected.setStatus(LoanStatus.PAYED);
+        } else if (days > 0) {
+            expected.setStayedAmount(loan.getStayedAmount() + days * loan.getAmount() * loan.getDailyInterestRate());
+        }
+        return expected;
     }
 }
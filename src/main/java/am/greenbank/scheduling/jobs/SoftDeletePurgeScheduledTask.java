@@ -0,0 +1,132 @@
+package am.greenbank.scheduling.jobs;
+
+import am.greenbank.entities.account.Account;
+import am.greenbank.entities.cards.Card;
+import am.greenbank.entities.image.Image;
+import am.greenbank.entities.user.User;
+import am.greenbank.scheduling.DistributedJobRunner;
+import am.greenbank.scheduling.PartitionContext;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static am.greenbank.repositories.mongo.SoftDeleteMongoRepositoryImpl.DELETED;
+import static am.greenbank.repositories.mongo.SoftDeleteMongoRepositoryImpl.DELETED_AT;
+
+/**
+ * Moves tombstoned users, accounts, cards and images older than the retention period into
+ * {@code <collection>_archive} and removes them from the live collection, one batch at a time
+ * with a pause in between. Runs on one node of the cluster per day.
+ */
+@Slf4j
+@Component
+public class SoftDeletePurgeScheduledTask {
+    private static final List<Class<?>> SOFT_DELETED_TYPES = List.of(User.class, Account.class, Card.class, Image.class);
+    private static final String ARCHIVE_SUFFIX = "_archive";
+    private static final String JOB = "soft-delete-purge";
+
+    private final MongoTemplate mongoTemplate;
+    private final DistributedJobRunner jobRunner;
+    private final Clock clock;
+    private final Duration retention;
+    private final int batchSize;
+    private final Duration pause;
+
+    public SoftDeletePurgeScheduledTask(
+        MongoTemplate mongoTemplate,
+        DistributedJobRunner jobRunner,
+        Clock clock,
+        @Value("${am.greenbank.soft-delete.retention:P90D}") Duration retention,
+        @Value("${am.greenbank.soft-delete.purge.batch-size:500}") int batchSize,
+        @Value("${am.greenbank.soft-delete.purge.pause:PT0.2S}") Duration pause
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.jobRunner = jobRunner;
+        this.clock = clock;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.pause = pause;
+    }
+
+    @Scheduled(cron = "${am.greenbank.soft-delete.purge.cron:0 30 3 * * *}")
+    public void purge() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        try {
+            jobRunner.runOnce(JOB, now.toLocalDate(), context -> purge(context, now));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Soft delete purge interrupted");
+        } catch (Exception e) {
+            log.error("Error occurred while purging deleted documents: ", e);
+        }
+    }
+
+    private void purge(PartitionContext context, LocalDateTime now) throws InterruptedException {
+        LocalDateTime cutoff = now.minus(retention);
+        for (Class<?> type : SOFT_DELETED_TYPES) {
+            stampLegacyTombstones(type, now);
+            long archived = archive(context, type, cutoff);
+            context.add(archived);
+            if (archived > 0) {
+                log.info("Archived {} deleted documents from {}", archived, mongoTemplate.getCollectionName(type));
+            }
+            if (context.isLeaseLost()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Documents deleted before {@code deletedAt} existed start their retention period now.
+     */
+    private void stampLegacyTombstones(Class<?> type, LocalDateTime now) {
+        Query query = Query.query(Criteria.where(DELETED).is(true).and(DELETED_AT).exists(false));
+        mongoTemplate.updateMulti(query, Update.update(DELETED_AT, now), type);
+    }
+
+    private long archive(PartitionContext context, Class<?> type, LocalDateTime cutoff) throws InterruptedException {
+        String collection = mongoTemplate.getCollectionName(type);
+        Query expired = Query
+            .query(Criteria.where(DELETED).is(true).and(DELETED_AT).lt(cutoff))
+            .with(Sort.by(Sort.Direction.ASC, DELETED_AT))
+            .limit(batchSize);
+
+        long archived = 0;
+        List<Document> batch;
+        while (!(batch = mongoTemplate.find(expired, Document.class, collection)).isEmpty()) {
+            BulkOperations archiveOperations = mongoTemplate.bulkOps(
+                BulkOperations.BulkMode.UNORDERED, collection + ARCHIVE_SUFFIX
+            );
+            for (Document document : batch) {
+                Query byId = Query.query(Criteria.where("_id").is(document.get("_id")));
+                Document fields = new Document(document);
+                fields.remove("_id");
+                archiveOperations.upsert(byId, Update.fromDocument(new Document("$set", fields)));
+            }
+            archiveOperations.execute();
+
+            List<Object> ids = batch.stream().map(document -> document.get("_id")).toList();
+            Query archivedTombstones = Query.query(Criteria.where("_id").in(ids).and(DELETED).is(true));
+            archived += mongoTemplate.remove(archivedTombstones, collection).getDeletedCount();
+
+            if (batch.size() < batchSize || context.isLeaseLost()) {
+                break;
+            }
+            Thread.sleep(pause.toMillis());
+        }
+        return archived;
+    }
+}
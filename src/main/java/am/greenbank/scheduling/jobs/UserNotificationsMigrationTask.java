@@ -0,0 +1,113 @@
+package am.greenbank.scheduling.jobs;
+
+import am.greenbank.entities.Notification;
+import am.greenbank.entities.user.User;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Drops the legacy {@code notifications} id list from user documents and seeds the unread
+ * counter from the notification collection. Runs once after startup on its own thread, in
+ * batches with a pause in between so it does not compete with request traffic.
+ */
+@Slf4j
+@Component
+public class UserNotificationsMigrationTask {
+    private static final String LEGACY_FIELD = "notifications";
+
+    private final MongoTemplate mongoTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration pause;
+
+    public UserNotificationsMigrationTask(
+        MongoTemplate mongoTemplate,
+        @Value("${am.greenbank.notifications.migration.enabled:true}") boolean enabled,
+        @Value("${am.greenbank.notifications.migration.batch-size:500}") int batchSize,
+        @Value("${am.greenbank.notifications.migration.pause:PT0.2S}") Duration pause
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.pause = pause;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new CustomizableThreadFactory("notifications-migration-").newThread(this::migrate);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void migrate() {
+        long migrated = 0;
+        try {
+            List<String> userIds;
+            while (!(userIds = nextBatch()).isEmpty()) {
+                migrateBatch(userIds);
+                migrated += userIds.size();
+                Thread.sleep(pause.toMillis());
+            }
+            if (migrated > 0) {
+                log.info("Moved notification ids out of {} user documents", migrated);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Notification migration interrupted after {} users", migrated);
+        } catch (Exception e) {
+            log.error("Notification migration failed after {} users: ", migrated, e);
+        }
+    }
+
+    private List<String> nextBatch() {
+        Query query = Query.query(Criteria.where(LEGACY_FIELD).exists(true)).limit(batchSize);
+        query.fields().include("_id");
+        return mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(User.class))
+            .stream()
+            .map(document -> document.get("_id").toString())
+            .toList();
+    }
+
+    private void migrateBatch(List<String> userIds) {
+        Map<String, Integer> unreadByUser = countUnread(userIds);
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        for (String userId : userIds) {
+            Query query = Query.query(Criteria.where("_id").is(userId).and(LEGACY_FIELD).exists(true));
+            Update update = new Update()
+                .set("unreadNotifications", unreadByUser.getOrDefault(userId, 0))
+                .unset(LEGACY_FIELD);
+            operations.updateOne(query, update);
+        }
+        operations.execute();
+    }
+
+    private Map<String, Integer> countUnread(List<String> userIds) {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("userId").in(userIds).and("read").is(false)),
+            Aggregation.group("userId").count().as("unread")
+        );
+        return mongoTemplate.aggregate(aggregation, Notification.class, Document.class)
+            .getMappedResults()
+            .stream()
+            .collect(Collectors.toMap(document -> document.getString("_id"), document -> document.getInteger("unread")));
+    }
+}
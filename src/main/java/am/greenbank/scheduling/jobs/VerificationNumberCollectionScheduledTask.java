@@ -1,6 +1,7 @@
 package am.greenbank.scheduling.jobs;
 
 import am.greenbank.repositories.interfaces.VerificationNumbersRepository;
+import am.greenbank.scheduling.DistributedJobRunner;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,13 +10,16 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.Date;
 
 @Component
 @RequiredArgsConstructor
 public class VerificationNumberCollectionScheduledTask {
+    private static final String JOB = "verification-number-drop";
 
     private final VerificationNumbersRepository verificationNumbersRepository;
+    private final DistributedJobRunner jobRunner;
     private static final Logger log = LoggerFactory.getLogger(VerificationNumberCollectionScheduledTask.class);
     private static final SimpleDateFormat dateFormat = new SimpleDateFormat("HH:mm:ss");
 
@@ -23,8 +27,11 @@ public class VerificationNumberCollectionScheduledTask {
     @Async
     public void dropVerificationNumberCollection() {
         try {
-            verificationNumbersRepository.deleteAll();
+            jobRunner.runOnce(JOB, LocalDate.now(), context -> verificationNumbersRepository.deleteAll());
             log.info("VerificationNumber collection is dropped at {}", dateFormat.format(new Date()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Dropping VerificationNumber collection interrupted");
         } catch (Exception e) {
             log.error("Error occurred while dropping VerificationNumber collection: ", e);
         }
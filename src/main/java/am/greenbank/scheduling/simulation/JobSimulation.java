@@ -0,0 +1,123 @@
+package am.greenbank.scheduling.simulation;
+
+import am.greenbank.scheduling.jobs.DepositScheduledTask;
+import am.greenbank.scheduling.jobs.LoanScheduledTask;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Seeds a synthetic portfolio and runs the nightly deposit and loan jobs for the configured
+ * number of days, moving the clock one day ahead before every night. Logs the throughput of
+ * each job, the Mongo commands the jobs sent and the portfolio totals before and after.
+ */
+@Slf4j
+@Component
+@Profile("simulation")
+public class JobSimulation implements ApplicationRunner {
+    private final SyntheticPortfolio portfolio;
+    private final DepositScheduledTask depositScheduledTask;
+    private final LoanScheduledTask loanScheduledTask;
+    private final SimulationClock clock;
+    private final MongoOperationCounter operationCounter;
+    private final ConfigurableApplicationContext context;
+    private final int days;
+    private final int accounts;
+    private final int depositsPerAccount;
+    private final int loansPerAccount;
+    private final long seed;
+    private final boolean exitOnFinish;
+
+    public JobSimulation(
+        SyntheticPortfolio portfolio,
+        DepositScheduledTask depositScheduledTask,
+        LoanScheduledTask loanScheduledTask,
+        SimulationClock clock,
+        MongoOperationCounter operationCounter,
+        ConfigurableApplicationContext context,
+        @Value("${am.greenbank.simulation.days:365}") int days,
+        @Value("${am.greenbank.simulation.accounts:10000}") int accounts,
+        @Value("${am.greenbank.simulation.deposits-per-account:1}") int depositsPerAccount,
+        @Value("${am.greenbank.simulation.loans-per-account:1}") int loansPerAccount,
+        @Value("${am.greenbank.simulation.seed:42}") long seed,
+        @Value("${am.greenbank.simulation.exit-on-finish:true}") boolean exitOnFinish
+    ) {
+        this.portfolio = portfolio;
+        this.depositScheduledTask = depositScheduledTask;
+        this.loanScheduledTask = loanScheduledTask;
+        this.clock = clock;
+        this.operationCounter = operationCounter;
+        this.context = context;
+        this.days = days;
+        this.accounts = accounts;
+        this.depositsPerAccount = depositsPerAccount;
+        this.loansPerAccount = loansPerAccount;
+        this.seed = seed;
+        this.exitOnFinish = exitOnFinish;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        LocalDate start = LocalDate.now(clock);
+        portfolio.clear();
+        portfolio.seed(accounts, depositsPerAccount, loansPerAccount, seed);
+        log.info("Seeded {} accounts with {} deposits and {} loans each", accounts, depositsPerAccount, loansPerAccount);
+        report("Totals on " + start, portfolio.totals());
+
+        Map<String, JobStats> stats = new LinkedHashMap<>();
+        operationCounter.reset();
+        for (int day = 1; day <= days; day++) {
+            clock.advance(Duration.ofDays(1));
+            measure(stats, "deposit-accrual", depositScheduledTask::addDepositDaily);
+            measure(stats, "deposit-settlement", depositScheduledTask::findEndedDeposits);
+            measure(stats, "loan-accrual", loanScheduledTask::addLoanDaily);
+            measure(stats, "loan-settlement", loanScheduledTask::findEndedLoans);
+        }
+        Map<String, Long> operations = operationCounter.snapshot();
+
+        log.info("Simulated {} days from {} to {}", days, start, LocalDate.now(clock));
+        stats.forEach((job, jobStats) -> log.info(
+            "{}: {} documents in {} ms, {} documents/s",
+            job, jobStats.processed, jobStats.nanos / 1_000_000,
+            jobStats.nanos == 0 ? 0 : jobStats.processed * 1_000_000_000L / jobStats.nanos
+        ));
+        operations.forEach((command, count) -> log.info("Mongo {}: {}", command, count));
+        report("Totals on " + LocalDate.now(clock), portfolio.totals());
+
+        if (exitOnFinish) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    private static void measure(Map<String, JobStats> stats, String job, Job run) throws InterruptedException {
+        long started = System.nanoTime();
+        long processed = run.run();
+        JobStats jobStats = stats.computeIfAbsent(job, name -> new JobStats());
+        jobStats.nanos += System.nanoTime() - started;
+        jobStats.processed += processed;
+    }
+
+    private static void report(String title, Map<String, String> totals) {
+        log.info(title);
+        totals.forEach((name, value) -> log.info("  {} = {}", name, value));
+    }
+
+    private interface Job {
+        long run() throws InterruptedException;
+    }
+
+    private static class JobStats {
+        private long nanos;
+        private long processed;
+    }
+}
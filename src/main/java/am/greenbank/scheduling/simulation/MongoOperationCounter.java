@@ -0,0 +1,31 @@
+package am.greenbank.scheduling.simulation;
+
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts the commands the driver sends, by command name, across all threads.
+ */
+public class MongoOperationCounter implements CommandListener {
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        counts.computeIfAbsent(event.getCommandName(), name -> new LongAdder()).increment();
+    }
+
+    public Map<String, Long> snapshot() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counts.forEach((name, count) -> snapshot.put(name, count.sum()));
+        return snapshot;
+    }
+
+    public void reset() {
+        counts.clear();
+    }
+}
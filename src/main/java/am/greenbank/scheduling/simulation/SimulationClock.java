@@ -0,0 +1,39 @@
+package am.greenbank.scheduling.simulation;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * A clock that stands still until it is moved forward, shared by everything that asks for the
+ * time while a simulation runs.
+ */
+public class SimulationClock extends Clock {
+    private final ZoneId zone;
+    private volatile Instant instant;
+
+    public SimulationClock(Instant instant, ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    public void advance(Duration duration) {
+        instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return Clock.fixed(instant, zone);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}
@@ -0,0 +1,34 @@
+package am.greenbank.scheduling.simulation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+@Configuration
+@Profile("simulation")
+public class SimulationConfig {
+    /**
+     * Starts just after midnight of the configured day, today when none is set.
+     */
+    @Bean
+    public SimulationClock clock(@Value("${am.greenbank.simulation.start-date:}") String startDate) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate start = startDate.isBlank() ? LocalDate.now(zone) : LocalDate.parse(startDate);
+        return new SimulationClock(start.atStartOfDay(zone).plusMinutes(1).toInstant(), zone);
+    }
+
+    @Bean
+    public MongoOperationCounter mongoOperationCounter() {
+        return new MongoOperationCounter();
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer simulationOperationCounter(MongoOperationCounter mongoOperationCounter) {
+        return builder -> builder.addCommandListener(mongoOperationCounter);
+    }
+}
@@ -0,0 +1,195 @@
+package am.greenbank.scheduling.simulation;
+
+import am.greenbank.dtos.LoanQuoteDto;
+import am.greenbank.entities.Notification;
+import am.greenbank.entities.Option;
+import am.greenbank.entities.account.Account;
+import am.greenbank.entities.account.AccountType;
+import am.greenbank.entities.account.Currency;
+import am.greenbank.entities.deposit.Deposit;
+import am.greenbank.entities.deposit.DepositStatus;
+import am.greenbank.entities.job.JobPartition;
+import am.greenbank.entities.job.JobRun;
+import am.greenbank.entities.loan.CreditProfile;
+import am.greenbank.entities.loan.Loan;
+import am.greenbank.entities.loan.LoanStatus;
+import am.greenbank.entities.transaction.Transaction;
+import am.greenbank.helpers.util.BankUtil;
+import am.greenbank.repositories.interfaces.BulkWriter;
+import am.greenbank.services.quote.QuoteEngine;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+/**
+ * Synthetic accounts with deposits and loans for the simulation. Every document it writes is
+ * recognisable by its user id prefix, so a run can clear what the previous one left behind.
+ */
+@Component
+@Profile("simulation")
+@RequiredArgsConstructor
+public class SyntheticPortfolio {
+    private static final String USER_PREFIX = "simulation-";
+    private static final String USER_PATTERN = "^" + USER_PREFIX;
+    private static final String JOB_RUN_PATTERN = "^(deposit|loan)-(accrual|settlement):";
+    private static final String ACCOUNT_NAME = "Simulation account";
+    private static final String LOAN_NAME = "Simulation loan";
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final BulkWriter bulkWriter;
+    private final BankUtil bankUtil;
+    private final QuoteEngine quoteEngine;
+    private final Clock clock;
+
+    public void clear() {
+        Query byUser = Query.query(Criteria.where("userId").regex(USER_PATTERN));
+        mongoTemplate.remove(byUser, Deposit.class);
+        mongoTemplate.remove(byUser, Loan.class);
+        mongoTemplate.remove(byUser, Notification.class);
+        mongoTemplate.remove(Query.query(Criteria.where("_id").regex(USER_PATTERN)), CreditProfile.class);
+        mongoTemplate.remove(Query.query(Criteria.where("to.userId").regex(USER_PATTERN)), Transaction.class);
+        mongoTemplate.remove(Query.query(Criteria.where("accountName").is(ACCOUNT_NAME)), Account.class);
+        mongoTemplate.remove(Query.query(Criteria.where("_id").regex(JOB_RUN_PATTERN)), JobRun.class);
+        mongoTemplate.remove(Query.query(Criteria.where("runId").regex(JOB_RUN_PATTERN)), JobPartition.class);
+    }
+
+    /**
+     * Every account gets the given number of deposits and loans, started at random points of
+     * their term so maturities spread over the simulated days. All of them are accrued up to
+     * the current day.
+     */
+    public void seed(int accounts, int depositsPerAccount, int loansPerAccount, long seed) {
+        Random random = new Random(seed);
+        LocalDate today = LocalDate.now(clock);
+        Currency[] currencies = Currency.values();
+        for (int from = 0; from < accounts; from += SEED_BATCH_SIZE) {
+            List<Account> accountBatch = new ArrayList<>();
+            List<Deposit> depositBatch = new ArrayList<>();
+            List<Loan> loanBatch = new ArrayList<>();
+            for (int index = from; index < Math.min(from + SEED_BATCH_SIZE, accounts); index++) {
+                String userId = USER_PREFIX + index;
+                Account account = account(index, currencies[random.nextInt(currencies.length)]);
+                accountBatch.add(account);
+                for (int i = 0; i < depositsPerAccount; i++) {
+                    depositBatch.add(deposit(userId, account, today, random));
+                }
+                for (int i = 0; i < loansPerAccount; i++) {
+                    loanBatch.add(loan(userId, account, today, random));
+                }
+            }
+            bulkWriter.upsertAll(accountBatch, Account.class);
+            bulkWriter.upsertAll(depositBatch, Deposit.class);
+            bulkWriter.upsertAll(loanBatch, Loan.class);
+        }
+    }
+
+    /**
+     * Counts and sums per status and currency, plus the house account balances.
+     */
+    public Map<String, String> totals() {
+        Map<String, String> totals = new TreeMap<>();
+        sumByStatus(Deposit.class, "amount", "deposits", totals);
+        sumByStatus(Loan.class, "stayedAmount", "loans", totals);
+
+        Aggregation balances = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("accountName").is(ACCOUNT_NAME)),
+            Aggregation.group("currency").sum("balance").as("sum")
+        );
+        mongoTemplate.aggregate(balances, Account.class, Document.class).forEach(document ->
+            totals.put("accounts." + document.get("_id") + ".balance", format(document.get("sum")))
+        );
+        for (Currency currency : Currency.values()) {
+            totals.put("house." + currency + ".balance", format(bankUtil.getBankAccount(currency).getBalance()));
+        }
+        return totals;
+    }
+
+    private void sumByStatus(Class<?> type, String amountField, String label, Map<String, String> totals) {
+        Aggregation aggregation = Aggregation.newAggregation(
+            Aggregation.match(Criteria.where("userId").regex(USER_PATTERN)),
+            Aggregation.group("status", "currency").count().as("count").sum(amountField).as("sum")
+        );
+        mongoTemplate.aggregate(aggregation, type, Document.class).forEach(document -> {
+            Document key = document.get("_id", Document.class);
+            String prefix = label + "." + key.get("status") + "." + key.get("currency");
+            totals.put(prefix + ".count", String.valueOf(document.get("count")));
+            totals.put(prefix + ".sum", format(document.get("sum")));
+        });
+    }
+
+    private static String format(Object amount) {
+        return String.format("%.2f", ((Number) amount).doubleValue());
+    }
+
+    private Account account(int index, Currency currency) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        return Account.builder()
+            .accountName(ACCOUNT_NAME)
+            .accountNumber(String.format("9%015d", index))
+            .balance(0.0)
+            .currency(currency)
+            .isDefault(true)
+            .accountType(AccountType.CURRENT)
+            .createdAt(now)
+            .updatedAt(now)
+            .build();
+    }
+
+    private static Deposit deposit(String userId, Account account, LocalDate today, Random random) {
+        int duration = 3 + random.nextInt(22);
+        LocalDateTime start = today.minusDays(random.nextInt(duration * 30)).atStartOfDay();
+        return Deposit.builder()
+            .userId(userId)
+            .amount(10_000 + random.nextDouble() * 990_000)
+            .startDate(start)
+            .endDate(start.plusMonths(duration))
+            .status(DepositStatus.IN_PROGRESS)
+            .from(account.getAccountNumber())
+            .duration(duration)
+            .percent(0.01 + random.nextDouble() * 0.04)
+            .currency(account.getCurrency())
+            .depositName("Simulation deposit")
+            .lastAccruedDate(today)
+            .build();
+    }
+
+    private Loan loan(String userId, Account account, LocalDate today, Random random) {
+        int duration = 6 + random.nextInt(31);
+        double amount = 100_000 + random.nextDouble() * 4_900_000;
+        double percent = 1 + random.nextDouble() * 2;
+        LoanQuoteDto terms = quoteEngine.loanTerms(LOAN_NAME, new Option(duration, percent), amount);
+        LocalDateTime start = today.minusDays(random.nextInt(duration * 30)).atStartOfDay();
+        return Loan.builder()
+            .userId(userId)
+            .amount(amount)
+            .stayedAmount(amount)
+            .startDate(start)
+            .endDate(start.plusMonths(duration))
+            .status(LoanStatus.IN_PROGRESS)
+            .currency(account.getCurrency())
+            .percent(percent)
+            .dailyInterestRate(terms.getDailyInterestRate())
+            .loanName(LOAN_NAME)
+            .duration(duration)
+            .payment(terms.getPayment())
+            .paymentCount(0)
+            .totalPaid(0.0)
+            .lastAccruedDate(today)
+            .build();
+    }
+}
@@ -3,12 +3,14 @@ package am.greenbank.services;
 import am.greenbank.entities.account.Account;
 import am.greenbank.entities.account.AccountType;
 import am.greenbank.entities.account.Currency;
-import am.greenbank.entities.user.User;
 import am.greenbank.exceptions.exceptions.AccountNotFoundException;
 import am.greenbank.exceptions.exceptions.UserNotFoundException;
 import am.greenbank.helpers.genaretors.AccountDataGenerator;
+import am.greenbank.helpers.genaretors.NumberAllocator;
 import am.greenbank.repositories.interfaces.AccountRepository;
 import am.greenbank.repositories.interfaces.UserRepository;
+import am.greenbank.services.lookup.IdentifierLookupGuard;
+import am.greenbank.services.lookup.IdentifierType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -23,26 +25,22 @@ public class AccountService {
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
     private final AccountDataGenerator accountDataGenerator;
+    private final NumberAllocator numberAllocator;
+    private final IdentifierLookupGuard identifierLookupGuard;
 
     public Account getAccountById(String id) {
         return accountRepository.findAccountById(id).orElseThrow(AccountNotFoundException::new);
     }
 
     public Account getAccountByAccountNumber(String number) {
-        return accountRepository.findByAccountNumber(number).orElseThrow(AccountNotFoundException::new);
+        return identifierLookupGuard
+            .find(IdentifierType.ACCOUNT_NUMBER, number, accountRepository::findByAccountNumber)
+            .orElseThrow(AccountNotFoundException::new);
     }
 
     public Account createAccount(AccountType accountType, String ownerId, Currency currency) {
-        Account account;
-        String accountNumber;
-
-        do {
-            accountNumber = accountDataGenerator.generateAccountNumber();
-        } while (accountRepository.findByAccountNumber(accountNumber).isPresent());
-
-        account = Account.builder()
+        Account account = Account.builder()
             .accountName("")
-            .accountNumber(accountNumber)
             .accountType(accountType)
             .balance(accountDataGenerator.generateBalance())
             .currency(currency)
@@ -51,22 +49,23 @@ public class AccountService {
             .updatedAt(LocalDateTime.now())
             .build();
 
-        Account savedAccount = accountRepository.saveAccount(account);
-        User user = userRepository.findUserById(ownerId).orElseThrow(UserNotFoundException::new);
-        user.getAccounts().add(savedAccount);
-        userRepository.saveUser(user);
+        Account savedAccount = numberAllocator.saveWithAccountNumber(accountNumber -> {
+            account.setAccountNumber(accountNumber);
+            return accountRepository.saveAccount(account);
+        });
+        if (!userRepository.addAccount(ownerId, savedAccount.getId())) {
+            throw new UserNotFoundException();
+        }
         return savedAccount;
     }
 
 
     public Account updateAccountName(String accountId, String accountName) {
-        Account account = accountRepository.findAccountById(accountId).orElseThrow(AccountNotFoundException::new);
-        account.setAccountName(accountName);
-        return accountRepository.saveAccount(account);
+        return accountRepository.updateAccountName(accountId, accountName).orElseThrow(AccountNotFoundException::new);
     }
 
     public Map<String, Double> getTotalBalancesByCurrency() {
-        List<Account> allAccounts = accountRepository.findAll();
+        List<Account> allAccounts = accountRepository.findAllActive();
 
         return allAccounts.stream()
             .collect(Collectors.groupingBy(account -> String.valueOf(account.getCurrency()),
@@ -75,15 +74,9 @@ public class AccountService {
     }
 
     public void deleteById(String accountId) {
-        User user = userRepository.findByAccountId(accountId).orElseThrow(UserNotFoundException::new);
-        List<Account> accounts = user
-            .getAccounts()
-            .stream()
-            .filter(account -> !account.getId().equals(accountId))
-            .toList();
-        user.setAccounts(accounts);
-
+        if (!userRepository.removeAccount(accountId)) {
+            throw new UserNotFoundException();
+        }
         accountRepository.deleteById(accountId);
-        userRepository.saveUser(user);
     }
 }
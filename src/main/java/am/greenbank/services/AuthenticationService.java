@@ -13,7 +13,9 @@ import am.greenbank.exceptions.exceptions.UserAlreadyExistsException;
 import am.greenbank.exceptions.exceptions.UserNotFoundException;
 import am.greenbank.exceptions.exceptions.VerificationException;
 import am.greenbank.helpers.genaretors.AccountDataGenerator;
+import am.greenbank.helpers.genaretors.NumberAllocator;
 import am.greenbank.repositories.interfaces.AccountRepository;
+import am.greenbank.repositories.interfaces.BulkWriter;
 import am.greenbank.repositories.interfaces.TokenRepository;
 import am.greenbank.repositories.interfaces.UserRepository;
 import am.greenbank.requests.LoginRequest;
@@ -31,6 +33,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -38,11 +41,13 @@ import java.util.Optional;
 public class AuthenticationService {
     private final UserRepository userRepository;
     private final TokenRepository tokenRepository;
+    private final BulkWriter bulkWriter;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
     private final AccountRepository accountRepository;
     private final AccountDataGenerator accountDataGenerator;
+    private final NumberAllocator numberAllocator;
     private final VerificationNumberService verificationNumberService;
     private final UserService userService;
     //        private final ConfirmationTokenService confirmTokenService;
@@ -59,14 +64,10 @@ public class AuthenticationService {
         var user = userRepository.findByEmail(request.getEmail()).orElseThrow();
         if (user.getCreditworthinessId() == null) {
             user.setCreditworthinessId(defaultCreditworthinessId);
+            userRepository.updateCreditworthinessId(user.getId(), defaultCreditworthinessId);
         }
 
-        if (user.getNotifications() == null) {
-            user.setNotifications(Collections.emptyList());
-        }
-
-        User userSaved = userRepository.saveUser(user);
-        revokeAllUserTokens(userSaved);
+        revokeAllUserTokens(user);
         return user;
     }
 
@@ -92,7 +93,6 @@ public class AuthenticationService {
         Account defaultAccount = createDefaultAccount();
         user.setAccounts(List.of(defaultAccount));
         user.setCards(Collections.emptyList());
-        user.setNotifications(Collections.emptyList());
         user.setCreditworthinessId(defaultCreditworthinessId);
         User save = userRepository.saveUser(user);
         VerificationNumber number = verificationNumberService.createNumber(save);
@@ -119,19 +119,16 @@ public class AuthenticationService {
 
     private Account createDefaultAccount() {
         Account account = new Account();
-        String accountNumber;
-
-        do {
-            accountNumber = accountDataGenerator.generateAccountNumber();
-        } while (accountRepository.findByAccountNumber(accountNumber).isPresent());
         account.setIsDefault(true);
         account.setAccountName("Default name");
-        account.setAccountNumber(accountNumber);
         account.setAccountType(AccountType.CURRENT);
         account.setBalance(accountDataGenerator.generateBalance());
         account.setCurrency(Currency.AMD);
         account.setCreatedAt(LocalDateTime.now());
-        return accountRepository.saveAccount(account);
+        return numberAllocator.saveWithAccountNumber(accountNumber -> {
+            account.setAccountNumber(accountNumber);
+            return accountRepository.saveAccount(account);
+        });
     }
 
     private void saveUserToken(User user, String refreshToken) {
@@ -152,11 +149,12 @@ public class AuthenticationService {
             return;
         }
 
-        validUserTokens.forEach(token -> {
-            token.setExpired(true);
-            token.setRevoked(true);
-        });
-        tokenRepository.saveAllTokens(validUserTokens);
+        revokeTokens(validUserTokens);
+    }
+
+    private void revokeTokens(List<Token> tokens) {
+        List<String> tokenIds = tokens.stream().map(Token::getId).toList();
+        bulkWriter.updateMany(tokenIds, Token.class, Map.of("expired", true, "revoked", true));
     }
 
     public String refreshAccessToken(String refreshToken) {
@@ -179,12 +177,7 @@ public class AuthenticationService {
             return;
         }
 
-        validUserTokens.forEach(token -> {
-            token.setExpired(true);
-            token.setRevoked(true);
-        });
-
-        tokenRepository.saveAllTokens(validUserTokens);
+        revokeTokens(validUserTokens);
     }
 
     public String forgetPasswordEmail(String email) {
@@ -197,13 +190,11 @@ public class AuthenticationService {
             );
         }
 
-        user.setCanChangePassword(false);
-
         VerificationNumber number = verificationNumberService.createNumber(user);
         EmailStatus emailStatus = emailSender.sendEmail(user.getEmail(), buildEmail(user.getFirstName(), number.getNumber()));
 
         switch (emailStatus) {
-            case SENT -> userRepository.saveUser(user);
+            case SENT -> userRepository.updateCanChangePassword(user.getId(), false);
             case NOT_SENT -> throw new EmailNotSendException("Email doesn't send try again later");
         }
 
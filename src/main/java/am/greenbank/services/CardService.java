@@ -12,14 +12,16 @@ import am.greenbank.exceptions.exceptions.CardNotFoundException;
 import am.greenbank.exceptions.exceptions.UserNotFoundException;
 import am.greenbank.helpers.genaretors.AccountDataGenerator;
 import am.greenbank.helpers.genaretors.CardDataGenerator;
+import am.greenbank.helpers.genaretors.NumberAllocator;
 import am.greenbank.repositories.interfaces.AccountRepository;
 import am.greenbank.repositories.interfaces.CardRepository;
 import am.greenbank.repositories.interfaces.UserRepository;
+import am.greenbank.services.lookup.IdentifierLookupGuard;
+import am.greenbank.services.lookup.IdentifierType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -29,6 +31,8 @@ public class CardService {
     private final UserRepository userRepository;
     private final CardDataGenerator cardDataGenerator;
     private final AccountDataGenerator accountDataGenerator;
+    private final NumberAllocator numberAllocator;
+    private final IdentifierLookupGuard identifierLookupGuard;
 
     public Card getCardById(String cardId) {
         return cardRepository.findCardById(cardId).orElseThrow(CardNotFoundException::new);
@@ -45,28 +49,17 @@ public class CardService {
             );
         }
         Card card = createCard(cardType, account, user, colour);
-        List<Account> userAccounts = user.getAccounts();
-        userAccounts.add(account);
-        user.setAccounts(userAccounts);
-        Card savedCard = cardRepository.saveCard(card);
-        List<Card> userCards = user.getCards();
-        userCards.add(savedCard);
-        user.setCards(userCards);
-        userRepository.saveUser(user);
+        Card savedCard = numberAllocator.saveWithCardNumber(cardType, cardNumber -> {
+            card.setCardNumber(cardNumber);
+            return cardRepository.saveCard(card);
+        });
+        userRepository.addCard(user.getId(), savedCard.getId(), account.getId());
         return savedCard;
     }
 
     private Card createCard(CardType cardType, Account account, User user, CardColour colour) {
-        String cardNumber;
-
-        do {
-            cardNumber = cardDataGenerator.generateCardNumber(cardType);
-        } while (cardRepository.findByCardNumber(cardNumber).isPresent());
-
-
         return Card.builder()
             .cardName(cardType.name())
-            .cardNumber(cardNumber)
             .cardType(cardType)
             .expirationDate(cardDataGenerator.getExpirationDate())
             .account(account)
@@ -78,16 +71,8 @@ public class CardService {
     }
 
     private Account createAccountForCardAndSaveIt(Currency currency) {
-        Account account;
-        String accountNumber;
-
-        do {
-            accountNumber = accountDataGenerator.generateAccountNumber();
-        } while (accountRepository.findByAccountNumber(accountNumber).isPresent());
-
         Account tempAccount = Account.builder()
             .accountName("")
-            .accountNumber(accountNumber)
             .balance(accountDataGenerator.generateBalance())
             .currency(currency)
             .isDefault(false)
@@ -96,30 +81,26 @@ public class CardService {
             .updatedAt(LocalDateTime.now())
             .build();
 
-        account = accountRepository.saveAccount(tempAccount);
-        return account;
+        return numberAllocator.saveWithAccountNumber(accountNumber -> {
+            tempAccount.setAccountNumber(accountNumber);
+            return accountRepository.saveAccount(tempAccount);
+        });
     }
 
     public Card updateCardName(String cardId, String cardName) {
-        Card card = cardRepository.findCardById(cardId).orElseThrow(CardNotFoundException::new);
-        card.setCardName(cardName);
-        return cardRepository.saveCard(card);
+        return cardRepository.updateCardName(cardId, cardName).orElseThrow(CardNotFoundException::new);
     }
 
     public Card getCardByCardNumber(String number) {
-        return cardRepository.findByCardNumber(number).orElseThrow(CardNotFoundException::new);
+        return identifierLookupGuard
+            .find(IdentifierType.CARD_NUMBER, number, cardRepository::findByCardNumber)
+            .orElseThrow(CardNotFoundException::new);
     }
 
     public void deleteById(String cardId) {
-        User user = userRepository.findByCardId(cardId).orElseThrow(UserNotFoundException::new);
-        List<Card> cards = user
-            .getCards()
-            .stream()
-            .filter(card -> !card.getId().equals(cardId))
-            .toList();
-        user.setCards(cards);
-
+        if (!userRepository.removeCard(cardId)) {
+            throw new UserNotFoundException();
+        }
         cardRepository.deleteById(cardId);
-        userRepository.saveUser(user);
     }
 }
\ No newline at end of file
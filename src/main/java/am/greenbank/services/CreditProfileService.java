@@ -0,0 +1,112 @@
+package am.greenbank.services;
+
+import am.greenbank.entities.Creditworthiness;
+import am.greenbank.entities.loan.CreditProfile;
+import am.greenbank.entities.loan.CreditProfileChange;
+import am.greenbank.entities.loan.Loan;
+import am.greenbank.repositories.interfaces.CreditProfileRepository;
+import am.greenbank.repositories.interfaces.CreditworthinessRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps every user's {@link CreditProfile} in step with their loans and answers loan
+ * eligibility from it with a single read.
+ */
+@Service
+@RequiredArgsConstructor
+public class CreditProfileService {
+    private static final long LATE_PAYMENT_COOLDOWN_DAYS = 10;
+
+    private final CreditProfileRepository creditProfileRepository;
+    private final CreditworthinessRepository creditworthinessRepository;
+    private final Clock clock;
+
+    public void loanOpened(Loan loan) {
+        apply(List.of(CreditProfileChange.opened(loan)));
+    }
+
+    public void paymentApplied(Loan before, Loan after) {
+        apply(List.of(CreditProfileChange.between(before, after)));
+    }
+
+    /**
+     * Users with a loan that ended unpaid drop to the lowest tier. Loans already taken out of
+     * their owner's profile by an earlier attempt are not counted again.
+     */
+    public void loansSettled(List<Loan> settled) {
+        List<CreditProfileChange> changes = settled.stream().map(CreditProfileChange::settled).toList();
+        if (changes.stream().anyMatch(change -> change.notPaidLoans() > 0)) {
+            String lowestTierId = lowestTierId();
+            changes = changes.stream()
+                .map(change -> change.notPaidLoans() > 0 ? change.withTier(lowestTierId) : change)
+                .toList();
+        }
+        apply(changes);
+    }
+
+    /**
+     * Profiles built from scratch out of the loans given, for the users given.
+     */
+    public List<CreditProfile> rebuild(Collection<String> userIds, List<Loan> loans) {
+        Map<String, List<Loan>> loansByUserId = loans.stream().collect(Collectors.groupingBy(Loan::getUserId));
+        List<CreditProfile> profiles = userIds.stream()
+            .map(userId -> CreditProfile.of(userId, loansByUserId.getOrDefault(userId, List.of())))
+            .toList();
+        if (profiles.stream().anyMatch(profile -> profile.getNotPaidLoans() > 0)) {
+            String lowestTierId = lowestTierId();
+            profiles.stream().filter(profile -> profile.getNotPaidLoans() > 0).forEach(profile -> profile.setTierId(lowestTierId));
+        }
+        return profiles;
+    }
+
+    /**
+     * A user with an unpaid loan gets what their tier allows. Anyone else may borrow unless a
+     * loan paid off late was paid off less than ten days ago, or the loans in progress have
+     * missed more days than there are loans.
+     */
+    public boolean canGetLoan(String userId) {
+        Optional<CreditProfile> found = creditProfileRepository.findById(userId);
+        if (found.isEmpty()) {
+            return true;
+        }
+        CreditProfile profile = found.get();
+        if (profile.getNotPaidLoans() > 0) {
+            return tierAllowsLoan(profile.getTierId());
+        }
+        LocalDate today = LocalDate.now(clock);
+        boolean latePaymentsSettled = profile.getLastLatePaidDate() == null
+            || ChronoUnit.DAYS.between(profile.getLastLatePaidDate(), today) >= LATE_PAYMENT_COOLDOWN_DAYS;
+        return latePaymentsSettled && profile.missedDays(today) <= profile.inProgressLoans();
+    }
+
+    private boolean tierAllowsLoan(String tierId) {
+        Optional<Creditworthiness> tier = tierId == null ? Optional.empty() : creditworthinessRepository.findById(tierId);
+        return tier.or(this::lowestTier).map(Creditworthiness::isCanGetLoan).orElse(false);
+    }
+
+    private String lowestTierId() {
+        return lowestTier().map(Creditworthiness::getId).orElse(null);
+    }
+
+    private Optional<Creditworthiness> lowestTier() {
+        List<Creditworthiness> tiers = creditworthinessRepository.findAll(Sort.by(Sort.Direction.ASC, "order"));
+        return tiers.isEmpty() ? Optional.empty() : Optional.of(tiers.get(tiers.size() - 1));
+    }
+
+    private void apply(List<CreditProfileChange> changes) {
+        if (changes.stream().anyMatch(change -> !change.isEmpty())) {
+            creditProfileRepository.applyChanges(changes);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import am.greenbank.entities.user.User;
 import am.greenbank.exceptions.exceptions.CreditworthinessInUseException;
 import am.greenbank.exceptions.exceptions.CreditworthinessNotFoundException;
 import am.greenbank.exceptions.exceptions.CreditworthinessWithNameAlreadyExistsException;
+import am.greenbank.repositories.interfaces.BulkWriter;
 import am.greenbank.repositories.interfaces.CreditworthinessRepository;
 import am.greenbank.repositories.interfaces.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -19,12 +20,13 @@ public class CreditworthinessService {
 
     private final CreditworthinessRepository creditworthinessRepository;
     private final UserRepository userRepository;
+    private final BulkWriter bulkWriter;
 
     public Creditworthiness addCreditworthiness(Creditworthiness creditworthiness) {
         validateCreditworthinessNameNotExist(creditworthiness.getName());
         List<Creditworthiness> creditworthinesses = getAllCreditworthinesses();
         adjustOrderForNewCreditworthiness(creditworthiness, creditworthinesses);
-        creditworthinessRepository.saveAllCreditworthinesses(creditworthinesses);
+        bulkWriter.updateFields(creditworthinesses, Creditworthiness.class, "order");
         return creditworthinessRepository.save(creditworthiness);
     }
 
@@ -139,7 +141,7 @@ public class CreditworthinessService {
             Creditworthiness remainingCreditworthiness = remainingCreditworthinesses.get(i);
             remainingCreditworthiness.setOrder(remainingCreditworthiness.getOrder() - 1);
         }
-        creditworthinessRepository.saveAllCreditworthinesses(remainingCreditworthinesses);
+        bulkWriter.updateFields(remainingCreditworthinesses, Creditworthiness.class, "order");
         creditworthinessRepository.deleteById(creditworthinessId);
     }
 
@@ -1,6 +1,8 @@
 package am.greenbank.services;
 
+import am.greenbank.entities.Notification;
 import am.greenbank.entities.account.Account;
+import am.greenbank.entities.account.Currency;
 import am.greenbank.entities.deposit.Deposit;
 import am.greenbank.entities.deposit.DepositStatus;
 import am.greenbank.entities.deposit.DepositType;
@@ -8,17 +10,30 @@ import am.greenbank.entities.transaction.Transaction;
 import am.greenbank.entities.transaction.TransactionEntity;
 import am.greenbank.entities.transaction.TransactionType;
 import am.greenbank.exceptions.exceptions.*;
+import am.greenbank.helpers.mappers.NotificationMapper;
 import am.greenbank.helpers.util.BankUtil;
 import am.greenbank.repositories.interfaces.AccountRepository;
 import am.greenbank.repositories.interfaces.DepositRepository;
 import am.greenbank.repositories.interfaces.DepositTypeRepository;
 import am.greenbank.repositories.interfaces.TransactionRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class DepositService {
@@ -28,6 +43,8 @@ public class DepositService {
     private final TransactionRepository transactionRepository;
     private final BankUtil bankUtil;
     private final NotificationServie notificationServie;
+    private final NotificationMapper notificationMapper;
+    private final Clock clock;
 
     public Deposit createDeposit(Deposit deposit) {
         String fromAccountNumber = deposit.getFrom();
@@ -72,18 +89,22 @@ public class DepositService {
             )
             .amount(amount)
             .description("Creating deposit " + deposit.getDepositName())
-            .date(LocalDateTime.now())
+            .date(LocalDateTime.now(clock))
             .done(true)
             .currency(deposit.getCurrency())
             .build();
 
-        if (userAccount.getBalance() < amount) {
+        LocalDateTime depositStart = LocalDateTime.now(clock);
+        deposit.setStartDate(depositStart);
+        deposit.setEndDate(depositStart.plusMonths(deposit.getDuration()));
+        deposit.setStatus(DepositStatus.IN_PROGRESS);
+        // interest starts the second day, the first accrual covers the day after this one
+        deposit.setLastAccruedDate(depositStart.toLocalDate().plusDays(1));
+
+        if (!accountRepository.debitBalance(userAccount.getId(), amount)) {
             throw new TransactionException(transaction, "Insufficient funds");
         }
-        userAccount.setBalance(userAccount.getBalance() - amount);
-        bankAccount.setBalance(bankAccount.getBalance() + amount);
-        accountRepository.saveAccount(userAccount);
-        accountRepository.saveAccount(bankAccount);
+        accountRepository.incrementBalance(bankAccount.getId(), amount);
         Transaction savedTransaction = transactionRepository.save(transaction);
         return depositRepository.save(deposit);
     }
@@ -126,20 +147,18 @@ public class DepositService {
             )
             .amount(amount)
             .description("Adding to deposit " + deposit.getDepositName())
-            .date(LocalDateTime.now())
+            .date(LocalDateTime.now(clock))
             .done(true)
             .currency(deposit.getCurrency())
             .build();
-        if (userAccount.getBalance() < amount) {
+        if (!accountRepository.debitBalance(userAccount.getId(), amount)) {
             throw new TransactionException(transaction, "Insufficient funds");
         }
-        userAccount.setBalance(userAccount.getBalance() - amount);
-        bankAccount.setBalance(bankAccount.getBalance() + amount);
-        deposit.setAmount(deposit.getAmount() + amount);
-        accountRepository.saveAccount(userAccount);
-        accountRepository.saveAccount(bankAccount);
+        accountRepository.incrementBalance(bankAccount.getId(), amount);
         Transaction savedTransaction = transactionRepository.save(transaction);
-        return depositRepository.save(deposit);
+        return depositRepository
+            .incrementAmount(depositId, amount)
+            .orElseThrow(() -> new DepositNotFoundException("Deposit Not Found"));
     }
 
     public Deposit closeDeposit(String depositId) {
@@ -147,7 +166,128 @@ public class DepositService {
         Account userAccount = accountRepository.findByAccountNumber(deposit.getFrom()).orElseThrow(AccountNotFoundException::new);
         Account bankAccount = bankUtil.getBankAccount(deposit.getCurrency());
         Double amount = deposit.getAmount();
-        Transaction transaction = Transaction
+        Transaction transaction = returningTransaction(deposit, bankAccount, userAccount);
+        if (!accountRepository.debitBalance(bankAccount.getId(), amount)) {
+            throw new TransactionException(transaction, "Transaction can not be done at this moment please try later");
+        }
+        accountRepository.incrementBalance(userAccount.getId(), amount);
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        return depositRepository
+            .updateStatus(depositId, DepositStatus.CLOSED)
+            .orElseThrow(() -> new DepositNotFoundException("Deposit Not Found"));
+    }
+
+    /**
+     * Pays out a batch of matured deposits. The batch is claimed into settling first, so a
+     * deposit is paid once even when several nodes settle at the same time. Per currency the
+     * deposits are flagged as paying out, the house account is debited once with the summed
+     * amount if it covers it, the user accounts are credited with one bulk write, the
+     * transactions are inserted and only then are the deposits closed. Deposits whose account is
+     * gone, or whose house account cannot cover its currency, go back in progress for the next
+     * run, and so does the rest of the batch when a step fails. A currency interrupted while its
+     * money moved is left settling for {@link #recoverStaleSettlements}. Returns how many
+     * deposits were paid out.
+     */
+    public int settleMaturedDeposits(List<String> depositIds) {
+        String settlementId = new ObjectId().toHexString();
+        List<Deposit> claimed = depositRepository.claimForSettlement(depositIds, settlementId, LocalDateTime.now(clock));
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        Set<String> unpaidIds = claimed.stream().map(Deposit::getId).collect(Collectors.toCollection(LinkedHashSet::new));
+        List<String> payingIds = List.of();
+        List<Notification> notifications = new ArrayList<>();
+        try {
+            Map<String, Account> accountsByNumber = accountRepository
+                .findAllByAccountNumbers(claimed.stream().map(Deposit::getFrom).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity(), (first, second) -> first));
+            Map<Currency, List<Deposit>> depositsByCurrency = claimed.stream()
+                .filter(deposit -> accountsByNumber.containsKey(deposit.getFrom()))
+                .collect(Collectors.groupingBy(Deposit::getCurrency, () -> new EnumMap<>(Currency.class), Collectors.toList()));
+
+            for (Map.Entry<Currency, List<Deposit>> currencyDeposits : depositsByCurrency.entrySet()) {
+                List<Deposit> deposits = currencyDeposits.getValue();
+                List<String> ids = deposits.stream().map(Deposit::getId).toList();
+                Account bankAccount = bankUtil.getBankAccount(currencyDeposits.getKey());
+                double total = deposits.stream().mapToDouble(Deposit::getAmount).sum();
+                if (depositRepository.markPayingOut(ids, settlementId) != ids.size()) {
+                    continue;
+                }
+                payingIds = ids;
+                if (!accountRepository.debitBalance(bankAccount.getId(), total)) {
+                    payingIds = List.of();
+                    continue;
+                }
+
+                Map<String, Double> credits = new HashMap<>();
+                List<Transaction> transactions = new ArrayList<>(deposits.size());
+                for (Deposit deposit : deposits) {
+                    Account userAccount = accountsByNumber.get(deposit.getFrom());
+                    credits.merge(userAccount.getId(), deposit.getAmount(), Double::sum);
+                    transactions.add(returningTransaction(deposit, bankAccount, userAccount));
+                    notifications.add(notificationMapper.getDepositClosingNotification(
+                        deposit.getUserId(), deposit.getDepositName(), deposit.getAmount(), deposit.getCurrency(), deposit.getFrom()
+                    ));
+                }
+                accountRepository.incrementBalances(credits);
+                transactionRepository.insertAll(transactions);
+                depositRepository.completeSettlement(ids, settlementId);
+                ids.forEach(unpaidIds::remove);
+                payingIds = List.of();
+            }
+        } finally {
+            payingIds.forEach(unpaidIds::remove);
+            if (!unpaidIds.isEmpty()) {
+                depositRepository.releaseSettlement(new ArrayList<>(unpaidIds), settlementId);
+            }
+        }
+
+        notificationServie.sendNotifications(notifications);
+        return notifications.size();
+    }
+
+    /**
+     * Finishes settlements that stopped, claimed before {@code claimedBefore}. Deposits whose
+     * money never started moving go back in progress, deposits whose returning transaction was
+     * written are closed. A deposit flagged as paying out without its transaction may have been
+     * paid in part, it stays settling and is reported for reconciliation. Returns how many
+     * deposits were released or closed.
+     */
+    public int recoverStaleSettlements(LocalDateTime claimedBefore, int batchSize) {
+        int recovered = 0;
+        String afterId = null;
+        List<Deposit> batch;
+        do {
+            batch = depositRepository.findStaleSettlements(claimedBefore, afterId, batchSize);
+            for (Deposit deposit : batch) {
+                recovered += recoverStaleSettlement(deposit);
+                afterId = deposit.getId();
+            }
+        } while (batch.size() == batchSize);
+        return recovered;
+    }
+
+    private int recoverStaleSettlement(Deposit deposit) {
+        List<String> ids = List.of(deposit.getId());
+        if (!Boolean.TRUE.equals(deposit.getPayingOut())) {
+            depositRepository.releaseSettlement(ids, deposit.getSettlementId());
+            return 1;
+        }
+        if (transactionRepository.existsByToNumberAndDescriptionAndAmountAndDateGreaterThanEqual(
+            deposit.getFrom(), returningDescription(deposit), deposit.getAmount(), deposit.getSettlingSince()
+        )) {
+            depositRepository.completeSettlement(ids, deposit.getSettlementId());
+            return 1;
+        }
+        log.error("Deposit {} of settlement {} stopped while being paid out, reconcile it by hand",
+            deposit.getId(), deposit.getSettlementId());
+        return 0;
+    }
+
+    private Transaction returningTransaction(Deposit deposit, Account bankAccount, Account userAccount) {
+        return Transaction
             .builder()
             .from(
                 TransactionEntity
@@ -164,22 +304,15 @@ public class DepositService {
                     .type(TransactionType.ACCOUNT)
                     .build()
             )
-            .amount(amount)
-            .description("returning to deposit " + deposit.getDepositName())
-            .date(LocalDateTime.now())
+            .amount(deposit.getAmount())
+            .description(returningDescription(deposit))
+            .date(LocalDateTime.now(clock))
             .done(true)
             .currency(deposit.getCurrency())
             .build();
-        if (bankAccount.getBalance() < amount) {
-            throw new TransactionException(transaction, "Transaction can not be done at this moment please try later");
-        }
+    }
 
-        userAccount.setBalance(userAccount.getBalance() + amount);
-        bankAccount.setBalance(bankAccount.getBalance() - amount);
-        accountRepository.saveAccount(userAccount);
-        accountRepository.saveAccount(bankAccount);
-        Transaction savedTransaction = transactionRepository.save(transaction);
-        deposit.setStatus(DepositStatus.CLOSED);
-        return depositRepository.save(deposit);
+    private static String returningDescription(Deposit deposit) {
+        return "returning to deposit " + deposit.getDepositName();
     }
 }
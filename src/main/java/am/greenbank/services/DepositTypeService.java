@@ -4,18 +4,21 @@ import am.greenbank.entities.Option;
 import am.greenbank.entities.deposit.Deposit;
 import am.greenbank.entities.deposit.DepositType;
 import am.greenbank.exceptions.exceptions.*;
+import am.greenbank.repositories.interfaces.BulkWriter;
 import am.greenbank.repositories.interfaces.DepositRepository;
 import am.greenbank.repositories.interfaces.DepositTypeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class DepositTypeService {
     private final DepositTypeRepository depositTypeRepository;
     private final DepositRepository depositRepository;
+    private final BulkWriter bulkWriter;
 
     public DepositType createDepositType(DepositType depositType) {
         if (depositTypeRepository.findByName(depositType.getName()).isPresent()) {
@@ -71,9 +74,11 @@ public class DepositTypeService {
             throw new DepositTypeAlreadyExistsException("Deposit type with this name already exists");
         }
         if (newDepositName != null && !newDepositName.equals(depositName)) {
-            List<Deposit> allByDepositName = depositRepository.findAllByDepositName(depositName);
-            allByDepositName.forEach(deposit -> deposit.setDepositName(newDepositName));
-            depositRepository.saveAllDeposits(allByDepositName);
+            List<String> depositIds = depositRepository.findAllByDepositName(depositName)
+                .stream()
+                .map(Deposit::getId)
+                .toList();
+            bulkWriter.updateMany(depositIds, Deposit.class, Map.of("depositName", newDepositName));
             depositType.setName(newDepositName);
         }
         if (available != null) {
@@ -1,6 +1,5 @@
 package am.greenbank.services;
 
-import am.greenbank.requests.QRType;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
@@ -47,13 +46,6 @@ public class JwtService {
         return buildToken(new HashMap<>(), Optional.ofNullable(userDetails), refreshExpiration);
     }
 
-    public String generateQRCodeData(String number, QRType qrType) {
-        HashMap<String, Object> claims = new HashMap<>();
-        claims.put("number", number);
-        claims.put("type", qrType);
-        return buildToken(claims, Optional.empty(), jwtExpiration);
-    }
-
     private String buildToken(Map<String, Object> extraClaims, Optional<UserDetails> userDetailsOptional, long expiration) {
         return Jwts
             .builder()
@@ -1,8 +1,11 @@
 package am.greenbank.services;
 
-import am.greenbank.entities.Creditworthiness;
+import am.greenbank.dtos.LoanQuoteDto;
+import am.greenbank.entities.Option;
 import am.greenbank.entities.account.Account;
+import am.greenbank.entities.loan.AppliedLoanPayment;
 import am.greenbank.entities.loan.Loan;
+import am.greenbank.entities.loan.LoanPayment;
 import am.greenbank.entities.loan.LoanStatus;
 import am.greenbank.entities.loan.LoanType;
 import am.greenbank.entities.transaction.Transaction;
@@ -11,11 +14,12 @@ import am.greenbank.entities.transaction.TransactionType;
 import am.greenbank.exceptions.exceptions.*;
 import am.greenbank.helpers.util.BankUtil;
 import am.greenbank.repositories.interfaces.*;
+import am.greenbank.services.quote.QuoteEngine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -25,13 +29,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class LoanService {
     private final LoanRepository loanRepository;
+    private final LoanPaymentRepository loanPaymentRepository;
     private final LoanTypeRepository loanTypeRepository;
     private final AccountRepository accountRepository;
     private final TransactionRepository transactionRepository;
     private final UserRepository userRepository;
     private final NotificationServie notificationServie;
-    private final CreditworthinessRepository creditworthinessRepository;
+    private final CreditProfileService creditProfileService;
+    private final QuoteEngine quoteEngine;
     private final BankUtil bankUtil;
+    private final Clock clock;
 
     public Loan createLoan(Loan loan, String toAccountNumber) {
         Account userAccount = accountRepository.findByAccountNumber(toAccountNumber).orElseThrow(AccountNotFoundException::new);
@@ -41,36 +48,34 @@ public class LoanService {
         LoanType loanType = loanTypeRepository.findByName(loan.getLoanName()).orElseThrow(
             () -> new LoanTypeNotFoundException("Loan type not found")
         );
-        boolean optionExists = loanType.getOptions()
+        Option option = loanType.getOptions()
             .stream()
-            .anyMatch(
+            .filter(
                 loanTypeOption ->
                     loanTypeOption.getDuration().equals(loan.getDuration()) &&
                         loanTypeOption.getPercent().equals(loan.getPercent())
-            );
-        if (!optionExists) {
-            throw new OptionNotFoundException("This option for this loan type doesn't exist");
-        }
+            )
+            .findFirst()
+            .orElseThrow(() -> new OptionNotFoundException("This option for this loan type doesn't exist"));
 
         Account bankAccount = bankUtil.getBankAccount(loan.getCurrency());
         Double loanAmount = loan.getAmount();
-        bankAccount.setBalance(bankAccount.getBalance() - loanAmount);
-        userAccount.setBalance(userAccount.getBalance() + loanAmount);
-        Integer duration = loan.getDuration();
-        Double percent = loan.getPercent();
-        double dailyInterestRate = percent / 100 / 30;
-        double payment = (loanAmount / (duration * 30)) + (loanAmount * dailyInterestRate);
-        LocalDateTime loanStart = LocalDateTime.now();
+        LoanQuoteDto terms = quoteEngine.loanTerms(loan.getLoanName(), option, loanAmount);
+        LocalDateTime loanStart = LocalDateTime.now(clock);
         loan.setStartDate(loanStart);
         loan.setEndDate(loanStart.plusMonths(loan.getDuration()));
-        loan.setPayment(payment);
+        loan.setPayment(terms.getPayment());
         loan.setStatus(LoanStatus.IN_PROGRESS);
         loan.setStayedAmount(loanAmount);
-        loan.setDailyInterestRate(dailyInterestRate);
-
-        accountRepository.saveAccount(userAccount);
-        accountRepository.saveAccount(bankAccount);
-        return loanRepository.save(loan);
+        loan.setDailyInterestRate(terms.getDailyInterestRate());
+        // interest starts the second day, the first accrual covers the day after this one
+        loan.setLastAccruedDate(loanStart.toLocalDate().plusDays(1));
+
+        accountRepository.incrementBalance(userAccount.getId(), loanAmount);
+        accountRepository.incrementBalance(bankAccount.getId(), -loanAmount);
+        Loan savedLoan = loanRepository.save(loan);
+        creditProfileService.loanOpened(savedLoan);
+        return savedLoan;
     }
 
     public List<Loan> getLoansByUserId(String userId) {
@@ -88,8 +93,9 @@ public class LoanService {
                 "Currency not match loan is " + loan.getCurrency() + " your account is " + userAccount.getCurrency()
             );
         }
-        if (amount < loan.getPayment()) {
-            throw new MinimalPaymentAmountException("Minimal amount for this loan payment is" + loan.getPayment());
+        double minimalPayment = minimalPayment(loan);
+        if (amount < minimalPayment) {
+            throw new MinimalPaymentAmountException("Minimal amount for this loan payment is" + minimalPayment);
         }
         Account bankAccount = bankUtil.getBankAccount(loan.getCurrency());
         if (loan.getStayedAmount() < amount) {
@@ -115,28 +121,35 @@ public class LoanService {
             )
             .amount(amount)
             .description("Paying loan " + loan.getLoanName())
-            .date(LocalDateTime.now())
+            .date(LocalDateTime.now(clock))
             .done(true)
             .currency(loan.getCurrency())
             .build();
 
-        if (userAccount.getBalance() < amount) {
-            throw new TransactionException(transaction, "Insufficient funds");
-        }
-
-        loan.setStayedAmount(loan.getStayedAmount() - amount);
-        userAccount.setBalance(userAccount.getBalance() - amount);
-        bankAccount.setBalance(bankAccount.getBalance() + amount);
+        boolean paidOff = loan.getStayedAmount() - amount == 0;
 
-        if (loan.getStayedAmount() == 0) {
-            loan.setStatus(LoanStatus.PAYED);
+        if (!accountRepository.debitBalance(userAccount.getId(), amount)) {
+            throw new TransactionException(transaction, "Insufficient funds");
         }
-
-        accountRepository.saveAccount(userAccount);
-        accountRepository.saveAccount(bankAccount);
+        accountRepository.incrementBalance(bankAccount.getId(), amount);
         Transaction savedTransaction = transactionRepository.save(transaction);
-        loan.getPaymentDays().add(LocalDate.from(savedTransaction.getDate()));
-        return loanRepository.save(loan);
+        LocalDate paymentDay = LocalDate.from(savedTransaction.getDate());
+        AppliedLoanPayment applied = loanRepository
+            .applyPayment(loanId, amount, paymentDay, paidOff)
+            .orElseThrow(() -> new LoanNotFoundException("Loan Not Found"));
+        loanPaymentRepository.append(loanId, new LoanPayment(paymentDay, amount, savedTransaction.getId()));
+        creditProfileService.paymentApplied(applied.before(), applied.after());
+        return applied.after();
+    }
+
+    /**
+     * The installment from the schedule of the loan's option. Loans opened before the schedules
+     * had their payment worked out in a different order, the lower of the two is asked so a
+     * rounding difference never turns down the payment they were given.
+     */
+    private double minimalPayment(Loan loan) {
+        double expected = quoteEngine.expectedPayment(loan);
+        return loan.getPayment() == null ? expected : Math.min(expected, loan.getPayment());
     }
 
     public Loan getLoan(String loanId) {
@@ -144,50 +157,6 @@ public class LoanService {
     }
 
     public boolean canGiveLoanToUser(String userId) {
-        Sort sort = Sort.by(Sort.Direction.ASC, "order");
-        List<Creditworthiness> creditworthinesses = creditworthinessRepository.findAll(sort);
-        List<Loan> allByUserId = loanRepository.findAllByUserId(userId);
-        if (allByUserId.isEmpty()) {
-            return true;
-        }
-
-        boolean hasNotPayedLoan = allByUserId
-            .stream()
-            .anyMatch(loan -> loan.getStatus() == LoanStatus.NOT_PAYED);
-
-        if (hasNotPayedLoan) {
-            return creditworthinesses.get(creditworthinesses.size() - 1).isCanGetLoan();
-        }
-
-        //TODO BETTER checking
-        int missDaysCount = 0;
-        int inProgressLoansCount = 0;
-        int payedLoansCount = 0;
-        int successfullyPayedLoansCount = 0;
-        int today = LocalDateTime.now().getDayOfYear();
-        for (Loan loan : allByUserId) {
-            if (loan.getStatus() == LoanStatus.IN_PROGRESS) {
-                inProgressLoansCount++;
-                int startDay = loan.getStartDate().getDayOfYear();
-                if (startDay != today) {
-                    missDaysCount += Math.abs((today - startDay) - loan.getPaymentDays().size());
-                }
-            } else if (loan.getStatus() == LoanStatus.PAYED) {
-                payedLoansCount++;
-                List<LocalDate> paymentDays = loan.getPaymentDays();
-                LocalDate lastPaymentDay = paymentDays.get(paymentDays.size() - 1);
-                if (loan.getEndDate().isBefore(lastPaymentDay.atStartOfDay())) {
-                    if (today - lastPaymentDay.getDayOfYear() >= 10) {
-                        successfullyPayedLoansCount++;
-                    }
-                } else if (lastPaymentDay.atStartOfDay().isBefore(loan.getEndDate()) || lastPaymentDay.atStartOfDay().isEqual(loan.getEndDate())) {
-                    successfullyPayedLoansCount++;
-                }
-            }
-        }
-
-        boolean bool1 = payedLoansCount == successfullyPayedLoansCount;
-        boolean bool2 = missDaysCount <= inProgressLoansCount;
-        return bool1 && bool2;
+        return creditProfileService.canGetLoan(userId);
     }
 }
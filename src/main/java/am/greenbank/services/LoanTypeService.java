@@ -4,18 +4,21 @@ import am.greenbank.entities.loan.Loan;
 import am.greenbank.entities.loan.LoanType;
 import am.greenbank.entities.Option;
 import am.greenbank.exceptions.exceptions.*;
+import am.greenbank.repositories.interfaces.BulkWriter;
 import am.greenbank.repositories.interfaces.LoanRepository;
 import am.greenbank.repositories.interfaces.LoanTypeRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class LoanTypeService {
     private final LoanTypeRepository loanTypeRepository;
     private final LoanRepository loanRepository;
+    private final BulkWriter bulkWriter;
 
     public LoanType createLoanType(LoanType loanType) {
         if (loanTypeRepository.findByName(loanType.getName()).isPresent()) {
@@ -80,10 +83,11 @@ public class LoanTypeService {
         }
 
         if (newLoanName != null && !newLoanName.equals(loanName)) {
-            List<Loan> allByLoanName = loanRepository.findAllByLoanName(loanName);
-
-            allByLoanName.forEach(loan -> loan.setLoanName(newLoanName));
-            loanRepository.saveAllLoans(allByLoanName);
+            List<String> loanIds = loanRepository.findAllByLoanName(loanName)
+                .stream()
+                .map(Loan::getId)
+                .toList();
+            bulkWriter.updateMany(loanIds, Loan.class, Map.of("loanName", newLoanName));
 
             loanType.setName(newLoanName);
         }
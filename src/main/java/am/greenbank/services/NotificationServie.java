@@ -4,7 +4,6 @@ import am.greenbank.entities.Notification;
 import am.greenbank.entities.transaction.Transaction;
 import am.greenbank.entities.user.User;
 import am.greenbank.exceptions.exceptions.NotificationNotFoundException;
-import am.greenbank.exceptions.exceptions.UserNotFoundException;
 import am.greenbank.repositories.interfaces.NotificationRepository;
 import am.greenbank.repositories.interfaces.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +15,9 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,10 +27,16 @@ public class NotificationServie {
     private final SimpMessagingTemplate simpMessagingTemplate;
 
     public List<Notification> getAllByUserId(String userId) {
-        return notificationRepository.findAllByUserId(userId);
+        return notificationRepository.findAllByUserIdOrderByTimeDesc(userId);
     }
 
     public Notification readNotificationById(String notificationId, String userId) {
+        Optional<Notification> markedRead = notificationRepository.markRead(notificationId, userId);
+        if (markedRead.isPresent()) {
+            userRepository.incrementUnreadNotifications(userId, -1);
+            return markedRead.get();
+        }
+
         Notification notification = notificationRepository.findById(notificationId)
             .orElseThrow(() -> new NotificationNotFoundException("Notification not found"));
 
@@ -36,8 +44,7 @@ public class NotificationServie {
             throw new AccessDeniedException("User can access to data connected to him");
         }
 
-        notification.setRead(true);
-        return notificationRepository.save(notification);
+        return notification;
     }
 
     public Notification getNotificationById(String notificationId) {
@@ -54,16 +61,29 @@ public class NotificationServie {
             .forEach(
                 notification -> {
                     Notification savedNotification = notificationRepository.save(notification);
-                    updateUserNotifications(savedNotification.getUserId(), savedNotification.getId());
+                    if (!savedNotification.isRead()) {
+                        userRepository.incrementUnreadNotifications(savedNotification.getUserId(), 1);
+                    }
                     notifyUser(savedNotification, savedNotification.getUserId());
                 }
             );
     }
 
-    private void updateUserNotifications(String userId, String notificationId) {
-        User user = userRepository.findUserById(userId).orElseThrow(UserNotFoundException::new);
-        user.getNotifications().add(notificationId);
-        userRepository.saveUser(user);
+    /**
+     * Same as {@link #sendNotification} for a batch: one insert for all notifications and one
+     * bulk write for the unread counters.
+     */
+    public void sendNotifications(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        List<Notification> savedNotifications = notificationRepository.insertAll(notifications);
+        Map<String, Long> unreadByUser = savedNotifications
+            .stream()
+            .filter(notification -> !notification.isRead())
+            .collect(Collectors.groupingBy(Notification::getUserId, Collectors.counting()));
+        userRepository.incrementUnreadNotifications(unreadByUser);
+        savedNotifications.forEach(notification -> notifyUser(notification, notification.getUserId()));
     }
 }
 
@@ -0,0 +1,163 @@
+package am.greenbank.services;
+
+import am.greenbank.exceptions.exceptions.InvalidQRCodeException;
+import am.greenbank.requests.QRType;
+import io.jsonwebtoken.io.Decoders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and verifies compact QR payment tokens.
+ * <p>
+ * Layout: version (1) | type (1) | expiry, epoch seconds (4) | nonce (8) | digit count (1) |
+ * number as packed BCD | first 10 bytes of HMAC-SHA256 over everything before it. A 16 digit
+ * number encodes to 33 bytes, 44 characters of base64url.
+ * <p>
+ * Nonces of redeemed tokens are kept until the token expires, so each QR code pays once per node.
+ */
+@Service
+public class QRTokenService {
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 15;
+    private static final int MAC_LENGTH = 10;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+    private final Base64.Decoder decoder = Base64.getUrlDecoder();
+    private final Map<Long, Long> redeemedNonces = new ConcurrentHashMap<>();
+    private final ThreadLocal<Mac> macs;
+    private final long expirationSeconds;
+    private final int maxRedeemedNonces;
+
+    public QRTokenService(
+        @Value("${application.security.jwt.secret-key}") String secretKey,
+        @Value("${application.security.qr.expiration:3600000}") long expirationMillis,
+        @Value("${application.security.qr.max-redeemed-nonces:1000000}") int maxRedeemedNonces
+    ) {
+        SecretKeySpec key = new SecretKeySpec(deriveKey(Decoders.BASE64.decode(secretKey)), MAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> newMac(key));
+        this.expirationSeconds = expirationMillis / 1000;
+        this.maxRedeemedNonces = maxRedeemedNonces;
+    }
+
+    public String generate(String number, QRType type) {
+        if (number.isEmpty() || number.length() > 32 || !number.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("QR number should contain from 1 to 32 digits");
+        }
+
+        int numberLength = (number.length() + 1) / 2;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + numberLength + MAC_LENGTH);
+        buffer.put(VERSION);
+        buffer.put((byte) type.ordinal());
+        buffer.putInt((int) (System.currentTimeMillis() / 1000 + expirationSeconds));
+        buffer.putLong(secureRandom.nextLong());
+        buffer.put((byte) number.length());
+        for (int i = 0; i < number.length(); i += 2) {
+            int high = number.charAt(i) - '0';
+            int low = i + 1 < number.length() ? number.charAt(i + 1) - '0' : 0;
+            buffer.put((byte) (high << 4 | low));
+        }
+
+        byte[] bytes = buffer.array();
+        Mac mac = macs.get();
+        mac.update(bytes, 0, bytes.length - MAC_LENGTH);
+        System.arraycopy(mac.doFinal(), 0, bytes, bytes.length - MAC_LENGTH, MAC_LENGTH);
+        return encoder.encodeToString(bytes);
+    }
+
+    public QRToken verify(String token) {
+        byte[] bytes;
+        try {
+            bytes = decoder.decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidQRCodeException("Incorrect QR Data");
+        }
+
+        if (bytes.length <= HEADER_LENGTH + MAC_LENGTH || bytes[0] != VERSION) {
+            throw new InvalidQRCodeException("Incorrect QR Data");
+        }
+
+        Mac mac = macs.get();
+        mac.update(bytes, 0, bytes.length - MAC_LENGTH);
+        byte[] expectedMac = mac.doFinal();
+        byte[] actualMac = new byte[MAC_LENGTH];
+        System.arraycopy(bytes, bytes.length - MAC_LENGTH, actualMac, 0, MAC_LENGTH);
+        byte[] truncatedExpectedMac = new byte[MAC_LENGTH];
+        System.arraycopy(expectedMac, 0, truncatedExpectedMac, 0, MAC_LENGTH);
+        if (!MessageDigest.isEqual(truncatedExpectedMac, actualMac)) {
+            throw new InvalidQRCodeException("Incorrect QR Data");
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 1, bytes.length - 1 - MAC_LENGTH);
+        int typeOrdinal = buffer.get();
+        long expiresAt = Integer.toUnsignedLong(buffer.getInt());
+        long nonce = buffer.getLong();
+        int digits = buffer.get();
+        if (typeOrdinal < 0 || typeOrdinal >= QRType.values().length
+            || (digits + 1) / 2 != buffer.remaining()) {
+            throw new InvalidQRCodeException("Incorrect QR Data");
+        }
+
+        if (expiresAt < System.currentTimeMillis() / 1000) {
+            throw new InvalidQRCodeException("QR expired");
+        }
+
+        StringBuilder number = new StringBuilder(digits);
+        for (int i = 0; i < digits; i++) {
+            int packed = bytes[HEADER_LENGTH + i / 2];
+            number.append((char) ('0' + (i % 2 == 0 ? (packed >> 4) & 0x0F : packed & 0x0F)));
+        }
+
+        return new QRToken(number.toString(), QRType.values()[typeOrdinal], nonce, expiresAt);
+    }
+
+    public void redeem(QRToken qrToken) {
+        if (redeemedNonces.size() >= maxRedeemedNonces) {
+            removeExpiredNonces();
+            if (redeemedNonces.size() >= maxRedeemedNonces) {
+                throw new InvalidQRCodeException("QR payments are temporarily unavailable");
+            }
+        }
+
+        if (redeemedNonces.putIfAbsent(qrToken.nonce(), qrToken.expiresAt()) != null) {
+            throw new InvalidQRCodeException("QR already used");
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.security.qr.cleanup-interval:PT1M}")
+    public void removeExpiredNonces() {
+        long now = System.currentTimeMillis() / 1000;
+        redeemedNonces.values().removeIf(expiresAt -> expiresAt < now);
+    }
+
+    private static byte[] deriveKey(byte[] secret) {
+        Mac mac = newMac(new SecretKeySpec(secret, MAC_ALGORITHM));
+        return mac.doFinal("greenbank-qr-token".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Mac newMac(SecretKeySpec key) {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record QRToken(String number, QRType type, long nonce, long expiresAt) {
+    }
+}
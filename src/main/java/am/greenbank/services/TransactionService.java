@@ -11,9 +11,10 @@ import am.greenbank.repositories.interfaces.AccountRepository;
 import am.greenbank.repositories.interfaces.CardRepository;
 import am.greenbank.repositories.interfaces.TransactionRepository;
 import am.greenbank.repositories.interfaces.UserRepository;
+import am.greenbank.repositories.mongo.codecs.CodecMongoReader;
 import am.greenbank.requests.QRType;
-import io.jsonwebtoken.ExpiredJwtException;
-import io.jsonwebtoken.JwtException;
+import am.greenbank.services.lookup.IdentifierLookupGuard;
+import am.greenbank.services.lookup.IdentifierType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -24,10 +25,13 @@ import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static am.greenbank.helpers.util.ReferenceUtil.referenceId;
+
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
@@ -35,49 +39,69 @@ public class TransactionService {
     private final AccountRepository accountRepository;
     private final CardRepository cardRepository;
     private final UserRepository userRepository;
-    private final JwtService jwtService;
+    private final QRTokenService qrTokenService;
+    private final UserReferenceResolver userReferenceResolver;
+    private final IdentifierLookupGuard identifierLookupGuard;
     private final MongoTemplate mongoTemplate;
+    private final CodecMongoReader codecMongoReader;
+    private final Clock clock;
+    private final TransferLatency transferLatency;
 
     public Transaction createTransaction(Transaction transaction) {
+        return transferLatency.record(() -> transfer(transaction));
+    }
+
+    private Transaction transfer(Transaction transaction) {
         Account from = getAccountFromTransactionEntity(transaction.getFrom());
         Account to;
+        QRTokenService.QRToken qrToken = null;
         transaction.setCurrency(from.getCurrency());
         try {
-            to = getAccountFromTransactionEntity(transaction.getTo());
-        } catch (JwtException exception) {
-            String msg;
-            if (exception instanceof ExpiredJwtException) {
-                msg = "QR expired";
+            if (isQR(transaction.getTo())) {
+                qrToken = qrTokenService.verify(transaction.getTo().getNumber());
+                to = updateTransactionEntityAndGetAccountByQRToken(transaction.getTo(), qrToken);
             } else {
-                msg = "Incorrect QR Data";
+                to = getAccountFromTransactionEntity(transaction.getTo());
             }
-
-            throw new TransactionException(transaction, msg);
-        } catch (NotFoundException exception) {
+        } catch (InvalidQRCodeException | NotFoundException exception) {
             throw new TransactionException(transaction, exception.getLocalizedMessage());
         }
         validateCurrency(transaction, from, to);
         Double amount = transaction.getAmount();
-        validateAmount(transaction, from, amount);
-        from.setBalance(from.getBalance() - amount);
-        to.setBalance(to.getBalance() + amount);
-        transaction.setDate(LocalDateTime.now());
+        transaction.setDate(LocalDateTime.now(clock));
 //        transaction.setDate(LocalDateTime.now());
         transaction.setDone(true);
         User userFrom = userRepository.findByAccountId(from.getId())
             .orElseThrow(UserNotFoundException::new);
         User userTo = userRepository.findByAccountId(to.getId())
             .orElseThrow(UserNotFoundException::new);
-        accountRepository.saveAccount(from);
-        accountRepository.saveAccount(to);
+        if (!accountRepository.debitBalance(from.getId(), amount)) {
+            throw new TransactionException(transaction, "Insufficient funds");
+        }
+        if (qrToken != null) {
+            redeemQRToken(transaction, qrToken, from, amount);
+        }
+        accountRepository.incrementBalance(to.getId(), amount);
         transaction.getFrom().setUserId(userFrom.getId());
         transaction.getTo().setUserId(userTo.getId());
         return transactionRepository.save(transaction);
     }
 
-    private void validateAmount(Transaction transaction, Account from, Double amount) {
-        if (from.getBalance() < amount) {
-            throw new TransactionException(transaction, "Insufficient funds");
+    private static boolean isQR(TransactionEntity transactionEntity) {
+        return transactionEntity.getType() == TransactionType.QR_ACCOUNT
+            || transactionEntity.getType() == TransactionType.QR_CARD;
+    }
+
+    /**
+     * Runs after the debit, so a token is never spent on a transfer that had no funds. A token
+     * that was already spent gives the debited amount back.
+     */
+    private void redeemQRToken(Transaction transaction, QRTokenService.QRToken qrToken, Account from, Double amount) {
+        try {
+            qrTokenService.redeem(qrToken);
+        } catch (InvalidQRCodeException exception) {
+            accountRepository.incrementBalance(from.getId(), amount);
+            throw new TransactionException(transaction, exception.getLocalizedMessage());
         }
     }
 
@@ -98,13 +122,14 @@ public class TransactionService {
     }
 
     private Account updateTransactionEntityAndGetAccountByPhone(TransactionEntity transactionEntity) {
-        User user = userRepository.findByPhone(transactionEntity.getNumber())
+        User user = identifierLookupGuard
+            .find(IdentifierType.PHONE, transactionEntity.getNumber(), userRepository::findByPhone)
             .orElseThrow(() -> new UserNotFoundException("User with phone number: "
                 + transactionEntity.getNumber() + " not found"));
 
 
-        Account account = user
-            .getAccounts()
+        Account account = userReferenceResolver
+            .resolveAccounts(user)
             .stream()
             .filter(Account::getIsDefault)
             .findAny()
@@ -116,31 +141,39 @@ public class TransactionService {
     }
 
     private Account getAccountByNumber(String accountNumber) {
-        return accountRepository.findByAccountNumber(accountNumber)
+        return identifierLookupGuard
+            .find(IdentifierType.ACCOUNT_NUMBER, accountNumber, accountRepository::findByAccountNumber)
             .orElseThrow(() -> new AccountNotFoundException("Account: " + accountNumber + " not found"));
     }
 
     private Account getAccountByCardNumber(String cardNumber) {
-        return cardRepository.findByCardNumber(cardNumber)
-            .map(Card::getAccount)
+        Card card = identifierLookupGuard
+            .find(IdentifierType.CARD_NUMBER, cardNumber, cardRepository::findByCardNumber)
             .orElseThrow(() -> new CardNotFoundException("Card: " + cardNumber + " not found"));
+        // load the real entity rather than the lazy reference, the account is modified and saved
+        String accountId = referenceId(card.getAccount(), Account::getId);
+        return accountRepository.findAccountById(accountId)
+            .orElseThrow(() -> new AccountNotFoundException("Account for card: " + cardNumber + " not found"));
     }
 
     private Account updateTransactionEntityAndGetAccountByQRData(TransactionEntity transactionEntity) {
-        String number = jwtService.extractClaim(transactionEntity.getNumber(), claims -> claims.get("number", String.class));
-        QRType type = QRType.valueOf(
-            jwtService.extractClaim(
-                transactionEntity.getNumber(), claims -> claims.get("type", String.class)
-            )
+        return updateTransactionEntityAndGetAccountByQRToken(
+            transactionEntity, qrTokenService.verify(transactionEntity.getNumber())
         );
+    }
 
-        if (type.equals(QRType.ACCOUNT)) {
+    private Account updateTransactionEntityAndGetAccountByQRToken(
+        TransactionEntity transactionEntity, QRTokenService.QRToken qrToken
+    ) {
+        if (qrToken.type().equals(QRType.ACCOUNT)) {
             transactionEntity.setType(TransactionType.ACCOUNT);
-            return getAccountByNumber(number);
+            transactionEntity.setNumber(qrToken.number());
+            return getAccountByNumber(qrToken.number());
         }
 
         transactionEntity.setType(TransactionType.CARD);
-        return getAccountByCardNumber(number);
+        transactionEntity.setNumber(qrToken.number());
+        return getAccountByCardNumber(qrToken.number());
     }
 
 
@@ -175,7 +208,7 @@ public class TransactionService {
             .with(pageable)
             .with(Sort.by(Sort.Direction.DESC, "date"));
 
-        List<Transaction> transactions = mongoTemplate.find(query, Transaction.class);
+        List<Transaction> transactions = codecMongoReader.find(query, Transaction.class);
 
         Query countQuery = new Query(criteria);
         long count = mongoTemplate.count(countQuery, Transaction.class);
@@ -0,0 +1,46 @@
+package am.greenbank.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times the transfer path and keeps its p99 over roughly the last minute, the signal the
+ * nightly jobs back off on.
+ */
+@Component
+public class TransferLatency {
+    private static final double P99 = 0.99;
+
+    private final Timer timer;
+
+    public TransferLatency(MeterRegistry meterRegistry) {
+        this.timer = Timer.builder("greenbank.transfer.latency")
+            .description("Time to create a transfer")
+            .publishPercentiles(P99)
+            .distributionStatisticExpiry(Duration.ofMinutes(1))
+            .distributionStatisticBufferLength(3)
+            .register(meterRegistry);
+    }
+
+    public <T> T record(Supplier<T> transfer) {
+        return timer.record(transfer);
+    }
+
+    /**
+     * Zero while no transfer was timed in the window.
+     */
+    public double p99Millis() {
+        for (ValueAtPercentile percentile : timer.takeSnapshot().percentileValues()) {
+            if (percentile.percentile() == P99) {
+                return percentile.value(TimeUnit.MILLISECONDS);
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,86 @@
+package am.greenbank.services;
+
+import am.greenbank.entities.account.Account;
+import am.greenbank.entities.cards.Card;
+import am.greenbank.entities.user.User;
+import am.greenbank.repositories.interfaces.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static am.greenbank.helpers.util.ReferenceUtil.referenceId;
+
+/**
+ * Resolves the lazy account and card references of a user with one {@code $in} query per
+ * collection instead of one query per referenced document. A lazy reference list loads as a
+ * whole with one such query the first time it is touched, so the user's own lists are used as
+ * loaded and only the accounts behind cards need a query of their own.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserReferenceResolver {
+    private final AccountRepository accountRepository;
+
+    public List<Account> resolveAccounts(User user) {
+        return active(user.getAccounts(), Account::isDeleted);
+    }
+
+    public List<Card> resolveCards(User user) {
+        return active(user.getCards(), Card::isDeleted);
+    }
+
+    /**
+     * Resolves the user's cards together with the account behind each card.
+     */
+    public List<Card> resolveCardsWithAccounts(User user) {
+        List<Card> cards = resolveCards(user);
+        List<String> accountIds = cards
+            .stream()
+            .map(card -> referenceId(card.getAccount(), Account::getId))
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        Map<String, Account> accountsById = accountRepository
+            .findAccountsByIds(accountIds)
+            .stream()
+            .collect(Collectors.toMap(Account::getId, Function.identity()));
+        cards.forEach(card -> {
+            Account account = accountsById.get(referenceId(card.getAccount(), Account::getId));
+            if (account != null) {
+                card.setAccount(account);
+            }
+        });
+        return cards;
+    }
+
+    /**
+     * Replaces the user's lazy account and card references with batch-loaded entities.
+     * Card accounts stay lazy.
+     */
+    public User resolveReferences(User user) {
+        user.setAccounts(resolveAccounts(user));
+        user.setCards(resolveCards(user));
+        return user;
+    }
+
+    /**
+     * The loaded list still holds tombstoned documents, which the repositories leave out.
+     */
+    private static <T> List<T> active(List<T> references, Predicate<T> deleted) {
+        if (references == null) {
+            return new ArrayList<>();
+        }
+        return references
+            .stream()
+            .filter(Objects::nonNull)
+            .filter(deleted.negate())
+            .collect(Collectors.toCollection(ArrayList::new));
+    }
+}
@@ -1,5 +1,6 @@
 package am.greenbank.services;
 
+import am.greenbank.config.BulkheadPasswordEncoder;
 import am.greenbank.entities.account.Account;
 import am.greenbank.entities.cards.Card;
 import am.greenbank.entities.user.User;
@@ -11,13 +12,17 @@ import am.greenbank.exceptions.exceptions.UserNotFoundException;
 import am.greenbank.repositories.interfaces.*;
 import am.greenbank.services.email.EmailSender;
 import am.greenbank.services.email.EmailStatus;
+import am.greenbank.services.lookup.IdentifierLookupGuard;
+import am.greenbank.services.lookup.IdentifierType;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static am.greenbank.helpers.util.ReferenceUtil.referenceIds;
 
 @Service
 @RequiredArgsConstructor
@@ -27,16 +32,41 @@ public class UserService {
     private final CardRepository cardRepository;
     private final AccountRepository accountRepository;
     private final TemplateRepository templateRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final BulkheadPasswordEncoder passwordEncoder;
     private final VerificationNumberService verificationNumberService;
     private final EmailSender emailSender;
+    private final UserReferenceResolver userReferenceResolver;
+    private final IdentifierLookupGuard identifierLookupGuard;
 
     public User getUserById(String id) {
         return userRepository.findUserById(id).orElseThrow(UserNotFoundException::new);
     }
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<Account> getUserAccounts(String userId) {
+        return getUserAccounts(getUserById(userId));
+    }
+
+    public List<Account> getUserAccounts(User user) {
+        return userReferenceResolver.resolveAccounts(user);
+    }
+
+    public List<Card> getUserCards(String userId) {
+        return userReferenceResolver.resolveCardsWithAccounts(getUserById(userId));
+    }
+
+    /**
+     * One page of the admin listing, continuing after {@code afterId}. Fetches one extra user
+     * to tell whether another page follows.
+     */
+    public List<User> getUsersPage(String afterId, int pageSize) {
+        return userRepository.findUsersAfter(afterId, pageSize + 1);
+    }
+
+    /**
+     * Cursor over all users for the admin export. Must be closed by the caller.
+     */
+    public Stream<User> streamUsers() {
+        return userRepository.streamUsers();
     }
 
     public User updateUser(String id, User user) {
@@ -45,35 +75,16 @@ public class UserService {
             throw new UserAlreadyExistsException("phone");
         }
 
-        return userRepository.findUserById(id)
-            .map(userById -> {
-                userById.setFirstName(Optional.ofNullable(user.getFirstName()).orElse(userById.getFirstName()));
-                userById.setLastName(Optional.ofNullable(user.getLastName()).orElse(userById.getLastName()));
-                userById.setBirthday(Optional.ofNullable(user.getBirthday()).orElse(userById.getBirthday()));
-                userById.setPhone(Optional.ofNullable(user.getPhone()).orElse(userById.getPhone()));
-                userById.setImg(Optional.ofNullable(user.getImg()).orElse(userById.getImg()));
-                return userRepository.saveUser(userById);
-            })
-            .orElseThrow(UserNotFoundException::new);
+        User updatedUser = userRepository.updateProfile(id, user).orElseThrow(UserNotFoundException::new);
+        identifierLookupGuard.add(IdentifierType.PHONE, updatedUser.getPhone());
+        return updatedUser;
     }
 
     public void deleteUser(String id) {
         User user = userRepository.findUserById(id).orElseThrow(UserNotFoundException::new);
         tokenRepository.deleteAllByUser(user);
-        cardRepository.deleteAllById(
-            user
-                .getCards()
-                .stream()
-                .map(Card::getId)
-                .toList()
-        );
-        accountRepository.deleteAllById(
-            user
-                .getAccounts()
-                .stream()
-                .map(Account::getId)
-                .toList()
-        );
+        cardRepository.deleteAllById(referenceIds(user.getCards(), Card::getId));
+        accountRepository.deleteAllById(referenceIds(user.getAccounts(), Account::getId));
         templateRepository.deleteAllByUserId(id);
         userRepository.deleteById(id);
     }
@@ -85,7 +96,7 @@ public class UserService {
 
     public void enableUser(String email) {
         User user = userRepository.findByEmail(email).orElseThrow(UserNotFoundException::new);
-        user.setEnabled(true);
+        userRepository.enableUser(user.getId());
     }
 
     public User getUserByAccount(Account account) {
@@ -109,7 +120,8 @@ public class UserService {
 
         changePassword(newPassword, user);
 
-        return userRepository.saveUser(user);
+        return userRepository.updatePassword(userId, user.getPassword(), user.getOldPasswords())
+            .orElseThrow(UserNotFoundException::new);
     }
 
     public void resetPassword(String userId, String password) {
@@ -117,7 +129,7 @@ public class UserService {
 
         changePassword(password, user);
 
-        userRepository.saveUser(user);
+        userRepository.updatePassword(userId, user.getPassword(), user.getOldPasswords());
     }
 
     private void changePassword(String newPassword, User user) {
@@ -128,9 +140,7 @@ public class UserService {
 
         List<String> oldPasswords = user.getOldPasswords();
 
-        boolean passwordHasBeenInPrevious3Passwords = oldPasswords
-            .stream()
-            .anyMatch(password -> passwordEncoder.matches(newPassword, password));
+        boolean passwordHasBeenInPrevious3Passwords = passwordEncoder.matchesAny(newPassword, oldPasswords);
 
         if (passwordHasBeenInPrevious3Passwords) {
             throw new PasswordMatchException("New password shouldn't match previous 3 passwords.");
@@ -149,13 +159,11 @@ public class UserService {
         User user = userRepository.findByEmail(email)
             .orElseThrow(() -> new UserNotFoundException("User with this email doesn't exists"));
 
-        user.setCanChangeEmail(false);
-
         VerificationNumber number = verificationNumberService.createNumber(user);
         EmailStatus emailStatus = emailSender.sendEmail(user.getEmail(), user.getFirstName(), number.getNumber());
 
         switch (emailStatus) {
-            case SENT -> userRepository.saveUser(user);
+            case SENT -> userRepository.updateCanChangeEmail(user.getId(), false);
             case NOT_SENT -> throw new EmailNotSendException("Email doesn't send try again later");
         }
 
@@ -173,13 +181,11 @@ public class UserService {
 
         VerificationNumber number = verificationNumberService.createNumber(user);
         EmailStatus emailStatus = emailSender.sendEmail(user.getEmail(), user.getFirstName(), number.getNumber());
-        switch (emailStatus) {
-            case SENT -> userRepository.saveUser(user);
-            case NOT_SENT -> throw new EmailNotSendException("Email doesn't send try again later");
+        if (emailStatus == EmailStatus.NOT_SENT) {
+            throw new EmailNotSendException("Email doesn't send try again later");
         }
 
-        user.setFutureEmail(email);
-        User savedUser = userRepository.saveUser(user);
-        return savedUser.getId();
+        userRepository.updateFutureEmail(userId, email);
+        return user.getId();
     }
 }
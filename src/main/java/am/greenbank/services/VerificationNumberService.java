@@ -7,6 +7,8 @@ import am.greenbank.helpers.genaretors.MailVerificationNumberGenerator;
 import am.greenbank.repositories.interfaces.UserRepository;
 import am.greenbank.repositories.interfaces.VerificationNumbersRepository;
 import am.greenbank.requests.VerifyRequest;
+import am.greenbank.services.lookup.IdentifierLookupGuard;
+import am.greenbank.services.lookup.IdentifierType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +20,7 @@ public class VerificationNumberService {
     private final VerificationNumbersRepository verificationNumbersRepository;
     private final MailVerificationNumberGenerator mailVerificationNumberGenerator;
     private final UserRepository userRepository;
+    private final IdentifierLookupGuard identifierLookupGuard;
 
     public VerificationNumber saveVerificationNumber(VerificationNumber number) {
         return verificationNumbersRepository.save(number);
@@ -101,33 +104,29 @@ public class VerificationNumberService {
             throw new EmailNotMatchException("The email is not same that you provided before");
         }
 
-        user.setEmail(newEmail);
-        user.setFutureEmail(null);
-        user.setCanChangeEmail(false);
-
-        return userRepository.saveUser(user).getId();
+        String id = userRepository.updateEmail(userId, newEmail).orElseThrow(UserNotFoundException::new).getId();
+        identifierLookupGuard.add(IdentifierType.EMAIL, newEmail);
+        return id;
     }
 
     private String enableCanChangeEmail(String userId) {
-        User user = userRepository.findUserById(userId).orElseThrow(UserNotFoundException::new);
-        user.setCanChangeEmail(true);
-
-        return userRepository.saveUser(user).getId();
+        if (!userRepository.updateCanChangeEmail(userId, true)) {
+            throw new UserNotFoundException();
+        }
+        return userId;
     }
 
     private void enableUser(VerificationNumber verifyNumber) {
-        User user = userRepository.findUserById(verifyNumber.getUser().getId()).orElseThrow(UserNotFoundException::new);
-        if (!user.isEnabled()) {
-            user.setEnabled(true);
-            userRepository.saveUser(user);
+        if (!userRepository.enableUser(verifyNumber.getUser().getId())) {
+            throw new UserNotFoundException();
         }
     }
 
     private String enableCanChangePassword(String userId) {
-        User user = userRepository.findUserById(userId).orElseThrow(UserNotFoundException::new);
-        user.setCanChangePassword(true);
-
-        return userRepository.saveUser(user).getId();
+        if (!userRepository.updateCanChangePassword(userId, true)) {
+            throw new UserNotFoundException();
+        }
+        return userId;
     }
 
     private void checkExpiration(LocalDateTime expiresAt, String stringNumber) {
@@ -0,0 +1,103 @@
+package am.greenbank.services.lookup;
+
+import am.greenbank.entities.account.Account;
+import am.greenbank.entities.cards.Card;
+import am.greenbank.entities.user.User;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+
+/**
+ * Keeps the lookup filters of this node in step with identifiers written by other nodes.
+ * Needs a replica set, so it only runs when enabled. The filters are trusted only once every
+ * subscription is active, and no longer once one of them fails.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "am.greenbank.identifier-filter.change-streams", havingValue = "true")
+public class IdentifierFilterChangeStream implements SmartLifecycle {
+    private static final Duration SUBSCRIBE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final MongoTemplate mongoTemplate;
+    private final IdentifierLookupGuard identifierLookupGuard;
+    private MessageListenerContainer container;
+
+    @Override
+    public void start() {
+        container = new DefaultMessageListenerContainer(mongoTemplate);
+        List<Subscription> subscriptions = List.of(
+            listen(User.class, Map.of("email", IdentifierType.EMAIL, "phone", IdentifierType.PHONE)),
+            listen(Account.class, Map.of("accountNumber", IdentifierType.ACCOUNT_NUMBER)),
+            listen(Card.class, Map.of("cardNumber", IdentifierType.CARD_NUMBER))
+        );
+        container.start();
+        identifierLookupGuard.changeStreamsLive(awaitActive(subscriptions));
+    }
+
+    private static boolean awaitActive(List<Subscription> subscriptions) {
+        try {
+            for (Subscription subscription : subscriptions) {
+                if (!subscription.await(SUBSCRIBE_TIMEOUT)) {
+                    log.warn("Identifier change stream did not start within {}", SUBSCRIBE_TIMEOUT);
+                    return false;
+                }
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void stop() {
+        identifierLookupGuard.changeStreamsLive(false);
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return container != null && container.isRunning();
+    }
+
+    private Subscription listen(Class<?> entityType, Map<String, IdentifierType> fields) {
+        ChangeStreamRequest<Document> request = ChangeStreamRequest.builder(
+                (Message<ChangeStreamDocument<Document>, Document> message) -> {
+                    Document document = message.getBody();
+                    if (document != null) {
+                        fields.forEach((field, type) -> identifierLookupGuard.add(type, document.getString(field)));
+                    }
+                }
+            )
+            .collection(mongoTemplate.getCollectionName(entityType))
+            .filter(newAggregation(match(Criteria.where("operationType").in("insert", "update", "replace"))))
+            .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+            .build();
+        return container.register(request, Document.class, error -> {
+            log.error("Identifier change stream on {} failed: ", entityType.getSimpleName(), error);
+            identifierLookupGuard.changeStreamsLive(false);
+        });
+    }
+}
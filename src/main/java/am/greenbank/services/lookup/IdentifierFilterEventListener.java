@@ -0,0 +1,31 @@
+package am.greenbank.services.lookup;
+
+import am.greenbank.entities.account.Account;
+import am.greenbank.entities.cards.Card;
+import am.greenbank.entities.user.User;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds the identifiers of every saved user, account and card to the lookup filters.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdentifierFilterEventListener extends AbstractMongoEventListener<Object> {
+    private final IdentifierLookupGuard identifierLookupGuard;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        Object source = event.getSource();
+        if (source instanceof User user) {
+            identifierLookupGuard.add(IdentifierType.EMAIL, user.getEmail());
+            identifierLookupGuard.add(IdentifierType.PHONE, user.getPhone());
+        } else if (source instanceof Account account) {
+            identifierLookupGuard.add(IdentifierType.ACCOUNT_NUMBER, account.getAccountNumber());
+        } else if (source instanceof Card card) {
+            identifierLookupGuard.add(IdentifierType.CARD_NUMBER, card.getCardNumber());
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package am.greenbank.services.lookup;
+
+import am.greenbank.entities.account.Account;
+import am.greenbank.entities.cards.Card;
+import am.greenbank.entities.user.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Per-node Bloom filters over account numbers, card numbers, phones and emails. A lookup for
+ * a value the filter has never seen is answered as not found without a Mongo query. The filter
+ * only knows values written by other nodes through the change streams, so it answers only while
+ * they are live and were live before the startup scan began. Otherwise, and until the scan has
+ * finished, every value is treated as possibly present. Uniqueness checks never go through it.
+ */
+@Slf4j
+@Component
+public class IdentifierLookupGuard {
+    private static final int SCAN_BATCH_SIZE = 1000;
+
+    private final MongoTemplate mongoTemplate;
+    private final Map<IdentifierType, ScalableBloomFilter> filters = new EnumMap<>(IdentifierType.class);
+    private final Map<IdentifierType, Counter> rejections = new EnumMap<>(IdentifierType.class);
+    private volatile boolean ready;
+    private volatile boolean changeStreamsLive;
+
+    public IdentifierLookupGuard(
+        MongoTemplate mongoTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${am.greenbank.identifier-filter.initial-capacity:100000}") long initialCapacity,
+        @Value("${am.greenbank.identifier-filter.false-positive-rate:0.01}") double falsePositiveRate
+    ) {
+        this.mongoTemplate = mongoTemplate;
+        for (IdentifierType type : IdentifierType.values()) {
+            ScalableBloomFilter filter = new ScalableBloomFilter(initialCapacity, falsePositiveRate);
+            filters.put(type, filter);
+            Gauge.builder("greenbank.identifier.filter.bytes", filter, ScalableBloomFilter::sizeInBytes)
+                .tag("identifier", type.getValue())
+                .register(meterRegistry);
+            Gauge.builder("greenbank.identifier.filter.items", filter, ScalableBloomFilter::approximateCount)
+                .tag("identifier", type.getValue())
+                .register(meterRegistry);
+            Gauge.builder("greenbank.identifier.filter.false-positive-rate", filter, ScalableBloomFilter::expectedFalsePositiveRate)
+                .tag("identifier", type.getValue())
+                .register(meterRegistry);
+            rejections.put(type, Counter.builder("greenbank.identifier.filter.rejected")
+                .description("Lookups answered as not found without a database query")
+                .tag("identifier", type.getValue())
+                .register(meterRegistry));
+        }
+    }
+
+    public boolean mightExist(IdentifierType type, String value) {
+        if (!ready || !changeStreamsLive || value == null) {
+            return true;
+        }
+        if (filters.get(type).mightContain(value)) {
+            return true;
+        }
+        rejections.get(type).increment();
+        return false;
+    }
+
+    /**
+     * Runs {@code lookup} only when the value may exist, empty otherwise.
+     */
+    public <T> Optional<T> find(IdentifierType type, String value, Function<String, Optional<T>> lookup) {
+        return mightExist(type, value) ? lookup.apply(value) : Optional.empty();
+    }
+
+    public void add(IdentifierType type, String value) {
+        if (value != null) {
+            filters.get(type).put(value);
+        }
+    }
+
+    /**
+     * Called by the change streams once every subscription is active, and again with false
+     * when one of them fails. A lost stream is not trusted again until the node restarts.
+     */
+    public void changeStreamsLive(boolean live) {
+        if (live && !ready) {
+            changeStreamsLive = true;
+        } else if (!live && changeStreamsLive) {
+            changeStreamsLive = false;
+            log.warn("Identifier change streams lost, lookups go to the database");
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startBuilding() {
+        if (!changeStreamsLive) {
+            log.info("Identifier change streams are not live, lookups go to the database");
+            return;
+        }
+        Thread thread = new CustomizableThreadFactory("identifier-filter-").newThread(this::build);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void build() {
+        try {
+            scan(User.class, Map.of("email", IdentifierType.EMAIL, "phone", IdentifierType.PHONE));
+            scan(Account.class, Map.of("accountNumber", IdentifierType.ACCOUNT_NUMBER));
+            scan(Card.class, Map.of("cardNumber", IdentifierType.CARD_NUMBER));
+            ready = true;
+            filters.forEach((type, filter) ->
+                log.info("Identifier filter {} built with {} values", type.getValue(), filter.approximateCount())
+            );
+        } catch (Exception e) {
+            log.error("Building identifier filters failed, lookups keep going to the database: ", e);
+        }
+    }
+
+    /**
+     * Streams only the identifier fields, tombstones included, they only cost false positives.
+     */
+    private void scan(Class<?> entityType, Map<String, IdentifierType> fields) {
+        Query query = new Query().cursorBatchSize(SCAN_BATCH_SIZE);
+        query.fields().include(fields.keySet().toArray(String[]::new));
+        try (Stream<Document> documents = mongoTemplate.stream(query, Document.class, mongoTemplate.getCollectionName(entityType))) {
+            documents.forEach(document ->
+                fields.forEach((field, type) -> add(type, document.getString(field)))
+            );
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package am.greenbank.services.lookup;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum IdentifierType {
+    ACCOUNT_NUMBER("account-number"),
+    CARD_NUMBER("card-number"),
+    PHONE("phone"),
+    EMAIL("email");
+
+    private final String value;
+}
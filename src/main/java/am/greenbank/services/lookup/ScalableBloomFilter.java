@@ -0,0 +1,139 @@
+package am.greenbank.services.lookup;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter that grows by adding stages instead of degrading once it is full. Each new stage
+ * is twice as large with half the false positive rate of the previous one, so the compound rate
+ * stays below twice the configured one however many values are added. Safe for concurrent use.
+ */
+public final class ScalableBloomFilter {
+    private static final int GROWTH_FACTOR = 2;
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final List<Stage> stages = new CopyOnWriteArrayList<>();
+
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        stages.add(new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO)));
+    }
+
+    public void put(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1) | 1;
+        if (contains(h1, h2)) {
+            return;
+        }
+        currentStage().put(h1, h2);
+    }
+
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        return contains(h1, mix(h1) | 1);
+    }
+
+    public long sizeInBytes() {
+        return stages.stream().mapToLong(stage -> stage.words.length() * (long) Long.BYTES).sum();
+    }
+
+    public long approximateCount() {
+        return stages.stream().mapToLong(stage -> stage.count.get()).sum();
+    }
+
+    /**
+     * False positive rate for the values added so far, combined over all stages.
+     */
+    public double expectedFalsePositiveRate() {
+        double missAll = 1;
+        for (Stage stage : stages) {
+            missAll *= 1 - stage.falsePositiveRate();
+        }
+        return 1 - missAll;
+    }
+
+    private boolean contains(long h1, long h2) {
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Stage currentStage() {
+        Stage last = stages.get(stages.size() - 1);
+        if (last.count.get() < last.capacity) {
+            return last;
+        }
+        synchronized (stages) {
+            last = stages.get(stages.size() - 1);
+            if (last.count.get() >= last.capacity) {
+                last = new Stage(last.capacity * GROWTH_FACTOR, last.targetFalsePositiveRate * TIGHTENING_RATIO);
+                stages.add(last);
+            }
+            return last;
+        }
+    }
+
+    private static long hash(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static final class Stage {
+        private final long capacity;
+        private final double targetFalsePositiveRate;
+        private final long bits;
+        private final int hashes;
+        private final AtomicLongArray words;
+        private final AtomicLong count = new AtomicLong();
+
+        private Stage(long capacity, double targetFalsePositiveRate) {
+            this.capacity = Math.max(1, capacity);
+            this.targetFalsePositiveRate = targetFalsePositiveRate;
+            long optimalBits = (long) Math.ceil(-this.capacity * Math.log(targetFalsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) ((optimalBits + 63) / 64));
+            this.bits = words.length() * 64L;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / this.capacity * Math.log(2)));
+        }
+
+        private void put(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+            count.incrementAndGet();
+        }
+
+        private boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bits);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private double falsePositiveRate() {
+            return Math.pow(1 - Math.exp(-hashes * (double) count.get() / bits), hashes);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package am.greenbank.services.quote;
+
+import am.greenbank.entities.Option;
+
+/**
+ * A deposit option's figures for one unit of the amount. The deposit grows by {@code percent}
+ * of itself every day of 30-day months, from the second day on like the accrual.
+ */
+record DepositFactors(double interest, double[] monthlyInterest, double[] balance) {
+    static DepositFactors of(Option option) {
+        int duration = option.getDuration();
+        double dailyGrowth = 1 + option.getPercent() / 100;
+        double monthlyGrowth = Math.pow(dailyGrowth, QuoteEngine.DAYS_IN_MONTH);
+        double[] monthlyInterest = new double[duration];
+        double[] balance = new double[duration];
+        double previous = 1.0;
+        for (int month = 0; month < duration; month++) {
+            balance[month] = month == 0 ? Math.pow(dailyGrowth, QuoteEngine.DAYS_IN_MONTH - 1) : previous * monthlyGrowth;
+            monthlyInterest[month] = balance[month] - previous;
+            previous = balance[month];
+        }
+        return new DepositFactors(previous - 1, monthlyInterest, balance);
+    }
+}
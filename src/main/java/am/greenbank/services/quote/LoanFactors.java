@@ -0,0 +1,32 @@
+package am.greenbank.services.quote;
+
+import am.greenbank.entities.Option;
+
+/**
+ * A loan option's figures for one unit of the amount. The loan is paid in daily installments
+ * over 30-day months, every month repays {@code 1 / duration} of the amount plus 30 days of
+ * simple interest on the whole amount.
+ */
+record LoanFactors(
+    double dailyInterestRate,
+    double payment,
+    double totalInterest,
+    double[] principal,
+    double[] interest,
+    double[] remainingPrincipal
+) {
+    static LoanFactors of(Option option) {
+        int duration = option.getDuration();
+        double dailyInterestRate = option.getPercent() / 100 / 30;
+        double payment = 1.0 / (duration * QuoteEngine.DAYS_IN_MONTH) + dailyInterestRate;
+        double[] principal = new double[duration];
+        double[] interest = new double[duration];
+        double[] remainingPrincipal = new double[duration];
+        for (int month = 0; month < duration; month++) {
+            principal[month] = 1.0 / duration;
+            interest[month] = dailyInterestRate * QuoteEngine.DAYS_IN_MONTH;
+            remainingPrincipal[month] = (double) (duration - month - 1) / duration;
+        }
+        return new LoanFactors(dailyInterestRate, payment, dailyInterestRate * QuoteEngine.DAYS_IN_MONTH * duration, principal, interest, remainingPrincipal);
+    }
+}
@@ -0,0 +1,32 @@
+package am.greenbank.services.quote;
+
+import am.greenbank.entities.deposit.DepositType;
+import am.greenbank.entities.loan.LoanType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the quote tables whenever a loan or deposit type is saved or deleted on this node.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuoteCatalogEventListener extends AbstractMongoEventListener<Object> {
+    private final QuoteEngine quoteEngine;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Object> event) {
+        if (event.getSource() instanceof LoanType || event.getSource() instanceof DepositType) {
+            quoteEngine.refresh();
+        }
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<Object> event) {
+        if (LoanType.class.equals(event.getType()) || DepositType.class.equals(event.getType())) {
+            quoteEngine.refresh();
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package am.greenbank.services.quote;
+
+import am.greenbank.dtos.DepositQuoteDto;
+import am.greenbank.dtos.DepositScheduleEntryDto;
+import am.greenbank.dtos.LoanQuoteDto;
+import am.greenbank.dtos.LoanScheduleEntryDto;
+import am.greenbank.entities.Option;
+import am.greenbank.entities.deposit.DepositType;
+import am.greenbank.entities.loan.Loan;
+import am.greenbank.entities.loan.LoanType;
+import am.greenbank.exceptions.exceptions.DepositTypeNotFoundException;
+import am.greenbank.exceptions.exceptions.LoanTypeNotFoundException;
+import am.greenbank.exceptions.exceptions.OptionNotFoundException;
+import am.greenbank.exceptions.exceptions.UnsupportedValueException;
+import am.greenbank.repositories.interfaces.DepositTypeRepository;
+import am.greenbank.repositories.interfaces.LoanTypeRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Quotes loan payments and deposit yields for every option of the loan and deposit types. The
+ * figures for one unit of the amount are worked out once per option whenever the catalog
+ * changes, a quote multiplies them by the amount. Catalog changes made on this node rebuild the
+ * tables right away, changes made on other nodes are picked up by the periodic refresh.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuoteEngine {
+    static final int DAYS_IN_MONTH = 30;
+
+    private final LoanTypeRepository loanTypeRepository;
+    private final DepositTypeRepository depositTypeRepository;
+    private volatile Tables tables;
+
+    @Scheduled(
+        initialDelayString = "${am.greenbank.quotes.refresh-interval:PT1M}",
+        fixedDelayString = "${am.greenbank.quotes.refresh-interval:PT1M}"
+    )
+    public void refresh() {
+        List<LoanType> loanTypes = loanTypeRepository.findAll();
+        List<DepositType> depositTypes = depositTypeRepository.findAll();
+        Map<QuoteKey, LoanFactors> loanFactors = new HashMap<>();
+        loanTypes.forEach(type -> addOptions(loanFactors, type.getName(), type.getOptions(), LoanFactors::of));
+        Map<QuoteKey, DepositFactors> depositFactors = new HashMap<>();
+        depositTypes.forEach(type -> addOptions(depositFactors, type.getName(), type.getOptions(), DepositFactors::of));
+        tables = new Tables(
+            loanTypes.stream().map(LoanType::getName).collect(Collectors.toUnmodifiableSet()),
+            Map.copyOf(loanFactors),
+            depositTypes.stream().map(DepositType::getName).collect(Collectors.toUnmodifiableSet()),
+            Map.copyOf(depositFactors)
+        );
+    }
+
+    private static <F> void addOptions(Map<QuoteKey, F> factors, String typeName, List<Option> options, Function<Option, F> factorsOf) {
+        if (options == null) {
+            return;
+        }
+        options.stream()
+            .filter(QuoteEngine::isValid)
+            .forEach(option -> factors.computeIfAbsent(QuoteKey.of(typeName, option), key -> factorsOf.apply(option)));
+    }
+
+    private static boolean isValid(Option option) {
+        return option.getDuration() != null && option.getDuration() > 0 && option.getPercent() != null;
+    }
+
+    private Tables tables() {
+        if (tables == null) {
+            refresh();
+        }
+        return tables;
+    }
+
+    public LoanQuoteDto quoteLoan(String loanName, Option option, double amount, boolean withSchedule) {
+        Tables current = tables();
+        if (!current.loanTypes().contains(loanName)) {
+            throw new LoanTypeNotFoundException("Loan type not found");
+        }
+        LoanFactors factors = current.loanFactors().get(QuoteKey.of(loanName, option));
+        if (factors == null) {
+            throw new OptionNotFoundException("This option for this loan type doesn't exist");
+        }
+        return loanQuote(loanName, option, checkedAmount(amount), factors, withSchedule);
+    }
+
+    public DepositQuoteDto quoteDeposit(String depositName, Option option, double amount, boolean withSchedule) {
+        Tables current = tables();
+        if (!current.depositTypes().contains(depositName)) {
+            throw new DepositTypeNotFoundException("Deposit type not found");
+        }
+        DepositFactors factors = current.depositFactors().get(QuoteKey.of(depositName, option));
+        if (factors == null) {
+            throw new OptionNotFoundException("This option for this deposit type doesn't exist");
+        }
+        return depositQuote(depositName, option, checkedAmount(amount), factors, withSchedule);
+    }
+
+    /**
+     * Terms of a loan being opened on an option the caller already found in the catalog. An
+     * option this node has not picked up yet is worked out on the spot.
+     */
+    public LoanQuoteDto loanTerms(String loanName, Option option, double amount) {
+        return loanQuote(loanName, option, amount, loanFactors(loanName, option), false);
+    }
+
+    /**
+     * The installment the schedule of the loan's option expects, the option does not have to
+     * be in the catalog anymore.
+     */
+    public double expectedPayment(Loan loan) {
+        Option option = new Option(loan.getDuration(), loan.getPercent());
+        return loan.getAmount() * loanFactors(loan.getLoanName(), option).payment();
+    }
+
+    private LoanFactors loanFactors(String loanName, Option option) {
+        LoanFactors factors = tables().loanFactors().get(QuoteKey.of(loanName, option));
+        return factors != null ? factors : LoanFactors.of(option);
+    }
+
+    private static double checkedAmount(double amount) {
+        if (!(amount > 0)) {
+            throw new UnsupportedValueException("Amount must be positive");
+        }
+        return amount;
+    }
+
+    private static LoanQuoteDto loanQuote(String loanName, Option option, double amount, LoanFactors factors, boolean withSchedule) {
+        List<LoanScheduleEntryDto> schedule = null;
+        if (withSchedule) {
+            schedule = new ArrayList<>(factors.principal().length);
+            for (int month = 0; month < factors.principal().length; month++) {
+                double principal = amount * factors.principal()[month];
+                double interest = amount * factors.interest()[month];
+                schedule.add(new LoanScheduleEntryDto(month + 1, principal, interest, principal + interest, amount * factors.remainingPrincipal()[month]));
+            }
+        }
+        return LoanQuoteDto
+            .builder()
+            .loanName(loanName)
+            .duration(option.getDuration())
+            .percent(option.getPercent())
+            .amount(amount)
+            .dailyInterestRate(factors.dailyInterestRate())
+            .payment(amount * factors.payment())
+            .totalInterest(amount * factors.totalInterest())
+            .schedule(schedule)
+            .build();
+    }
+
+    private static DepositQuoteDto depositQuote(String depositName, Option option, double amount, DepositFactors factors, boolean withSchedule) {
+        List<DepositScheduleEntryDto> schedule = null;
+        if (withSchedule) {
+            schedule = new ArrayList<>(factors.balance().length);
+            for (int month = 0; month < factors.balance().length; month++) {
+                schedule.add(new DepositScheduleEntryDto(month + 1, amount * factors.monthlyInterest()[month], amount * factors.balance()[month]));
+            }
+        }
+        double interest = amount * factors.interest();
+        return DepositQuoteDto
+            .builder()
+            .depositName(depositName)
+            .duration(option.getDuration())
+            .percent(option.getPercent())
+            .amount(amount)
+            .interest(interest)
+            .total(amount + interest)
+            .schedule(schedule)
+            .build();
+    }
+
+    private record Tables(
+        Set<String> loanTypes,
+        Map<QuoteKey, LoanFactors> loanFactors,
+        Set<String> depositTypes,
+        Map<QuoteKey, DepositFactors> depositFactors
+    ) {
+    }
+}
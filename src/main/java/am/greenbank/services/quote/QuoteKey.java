@@ -0,0 +1,9 @@
+package am.greenbank.services.quote;
+
+import am.greenbank.entities.Option;
+
+record QuoteKey(String typeName, Integer duration, Double percent) {
+    static QuoteKey of(String typeName, Option option) {
+        return new QuoteKey(typeName, option.getDuration(), option.getPercent());
+    }
+}
@@ -0,0 +1,103 @@
+package am.greenbank.services.ratelimit;
+
+import am.greenbank.repositories.interfaces.RateLimitCounterRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fixed-window limiter shared by every node through the {@code rateLimitCounters} collection.
+ * Each node leases up to {@code lease-size} permits with a single {@code $inc} and serves
+ * the rest of the lease from memory, so only one check in {@code lease-size} reaches Mongo.
+ */
+@Component
+@ConditionalOnProperty(name = "am.greenbank.rate-limit.mode", havingValue = "distributed")
+public class DistributedRateLimiter implements RateLimiter {
+    private final RateLimitCounterRepository rateLimitCounterRepository;
+    private final RateLimitPolicy rateLimitPolicy;
+    private final int leaseSize;
+    private final Map<String, Lease> leases = new ConcurrentHashMap<>();
+
+    public DistributedRateLimiter(
+        RateLimitCounterRepository rateLimitCounterRepository,
+        RateLimitPolicy rateLimitPolicy,
+        @Value("${am.greenbank.rate-limit.lease-size:1}") int leaseSize
+    ) {
+        this.rateLimitCounterRepository = rateLimitCounterRepository;
+        this.rateLimitPolicy = rateLimitPolicy;
+        this.leaseSize = Math.max(1, leaseSize);
+    }
+
+    @Override
+    public boolean tryAcquire(RateLimitedOperation operation, String key) {
+        int limit = rateLimitPolicy.getLimit(operation);
+        long windowMillis = rateLimitPolicy.getWindow(operation).toMillis();
+        long window = System.currentTimeMillis() / windowMillis;
+        String leaseKey = operation.getValue() + ":" + key;
+        Lease lease = leases.computeIfAbsent(leaseKey, k -> new Lease());
+
+        synchronized (lease) {
+            if (lease.window != window) {
+                lease.window = window;
+                lease.remaining = 0;
+                lease.exhausted = false;
+            }
+
+            if (lease.remaining > 0) {
+                lease.remaining--;
+                return true;
+            }
+
+            if (lease.exhausted) {
+                return false;
+            }
+
+            int requested = Math.min(leaseSize, limit);
+            LocalDateTime expiresAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli((window + 1) * windowMillis), ZoneId.systemDefault()
+            );
+            long count = rateLimitCounterRepository.incrementAndGet(leaseKey + ":" + window, requested, expiresAt);
+            long granted = Math.min(requested, limit - (count - requested));
+            lease.exhausted = count >= limit;
+
+            if (granted <= 0) {
+                return false;
+            }
+
+            lease.remaining = granted - 1;
+            return true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${am.greenbank.rate-limit.cleanup-interval:PT5M}")
+    public void removeExpiredLeases() {
+        long now = System.currentTimeMillis();
+        leases.entrySet().removeIf(entry -> {
+            RateLimitedOperation operation = operationOf(entry.getKey());
+            return operation == null || entry.getValue().window < now / rateLimitPolicy.getWindow(operation).toMillis();
+        });
+    }
+
+    private static RateLimitedOperation operationOf(String leaseKey) {
+        String value = leaseKey.substring(0, leaseKey.indexOf(':'));
+        for (RateLimitedOperation operation : RateLimitedOperation.values()) {
+            if (operation.getValue().equals(value)) {
+                return operation;
+            }
+        }
+        return null;
+    }
+
+    private static final class Lease {
+        private long window = -1;
+        private long remaining;
+        private boolean exhausted;
+    }
+}
@@ -0,0 +1,43 @@
+package am.greenbank.services.ratelimit;
+
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "am.greenbank.rate-limit.mode", havingValue = "local", matchIfMissing = true)
+public class LocalRateLimiter implements RateLimiter {
+    private final RateLimitPolicy rateLimitPolicy;
+    private final Map<String, LimitedBucket> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean tryAcquire(RateLimitedOperation operation, String key) {
+        return buckets
+            .computeIfAbsent(operation.getValue() + ":" + key, k -> newBucket(operation))
+            .bucket()
+            .tryConsume(1);
+    }
+
+    @Scheduled(fixedDelayString = "${am.greenbank.rate-limit.cleanup-interval:PT5M}")
+    public void removeIdleBuckets() {
+        buckets.values().removeIf(limitedBucket -> limitedBucket.bucket().getAvailableTokens() >= limitedBucket.limit());
+    }
+
+    private LimitedBucket newBucket(RateLimitedOperation operation) {
+        int limit = rateLimitPolicy.getLimit(operation);
+        Bucket bucket = Bucket.builder()
+            .addLimit(Bandwidth.simple(limit, rateLimitPolicy.getWindow(operation)))
+            .build();
+        return new LimitedBucket(bucket, limit);
+    }
+
+    private record LimitedBucket(Bucket bucket, int limit) {
+    }
+}
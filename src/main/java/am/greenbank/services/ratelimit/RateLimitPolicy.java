@@ -0,0 +1,34 @@
+package am.greenbank.services.ratelimit;
+
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+public class RateLimitPolicy {
+    private static final String PREFIX = "am.greenbank.rate-limit.operations.";
+    private static final int DEFAULT_LIMIT = 5;
+    private static final Duration DEFAULT_WINDOW = Duration.ofMinutes(1);
+
+    private final Map<RateLimitedOperation, Integer> limits = new EnumMap<>(RateLimitedOperation.class);
+    private final Map<RateLimitedOperation, Duration> windows = new EnumMap<>(RateLimitedOperation.class);
+
+    public RateLimitPolicy(Environment environment) {
+        for (RateLimitedOperation operation : RateLimitedOperation.values()) {
+            String prefix = PREFIX + operation.getValue();
+            limits.put(operation, environment.getProperty(prefix + ".limit", Integer.class, DEFAULT_LIMIT));
+            windows.put(operation, environment.getProperty(prefix + ".window", Duration.class, DEFAULT_WINDOW));
+        }
+    }
+
+    public int getLimit(RateLimitedOperation operation) {
+        return limits.get(operation);
+    }
+
+    public Duration getWindow(RateLimitedOperation operation) {
+        return windows.get(operation);
+    }
+}
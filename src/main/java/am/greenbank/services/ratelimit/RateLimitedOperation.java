@@ -0,0 +1,14 @@
+package am.greenbank.services.ratelimit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum RateLimitedOperation {
+    LOGIN("login"),
+    FORGET_PASSWORD("forget-password"),
+    RESET_VERIFY_NUMBER("reset-verify-number");
+
+    private final String value;
+}
@@ -0,0 +1,5 @@
+package am.greenbank.services.ratelimit;
+
+public interface RateLimiter {
+    boolean tryAcquire(RateLimitedOperation operation, String key);
+}
@@ -0,0 +1,102 @@
+package am.greenbank.entities.loan;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CreditProfileChangeTest {
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 10, 0);
+    private static final LocalDateTime END = START.plusDays(30);
+
+    @Test
+    void openedLoanKeepsItsProgress() {
+        CreditProfileChange change = CreditProfileChange.opened(loan(LoanStatus.IN_PROGRESS, null, 0));
+
+        assertThat(change.progress()).isEqualTo(new LoanProgress(START.toLocalDate().toEpochDay(), 0));
+        assertThat(change.leftProgress()).isFalse();
+        assertThat(change.isEmpty()).isFalse();
+    }
+
+    @Test
+    void paymentInProgressUpdatesTheProgress() {
+        Loan before = loan(LoanStatus.IN_PROGRESS, null, 2);
+        Loan after = loan(LoanStatus.IN_PROGRESS, START.toLocalDate().plusDays(3), 3);
+
+        CreditProfileChange change = CreditProfileChange.between(before, after);
+
+        assertThat(change.progress().payments()).isEqualTo(3);
+        assertThat(change.paidLoans()).isZero();
+    }
+
+    @Test
+    void payingOffInTimeCountsAPaidLoan() {
+        Loan before = loan(LoanStatus.IN_PROGRESS, null, 29);
+        Loan after = loan(LoanStatus.PAYED, END.toLocalDate().minusDays(1), 30);
+
+        CreditProfileChange change = CreditProfileChange.between(before, after);
+
+        assertThat(change.leftProgress()).isTrue();
+        assertThat(change.progress()).isNull();
+        assertThat(change.paidLoans()).isEqualTo(1);
+        assertThat(change.latePaidLoans()).isZero();
+        assertThat(change.latePaidOn()).isNull();
+    }
+
+    @Test
+    void payingOffAfterTheEndDateCountsAsPaidLate() {
+        LocalDate paidOn = END.toLocalDate().plusDays(5);
+
+        CreditProfileChange change = CreditProfileChange.between(
+            loan(LoanStatus.IN_PROGRESS, null, 20),
+            loan(LoanStatus.PAYED, paidOn, 21)
+        );
+
+        assertThat(change)
+            .extracting(CreditProfileChange::paidLoans, CreditProfileChange::latePaidLoans, CreditProfileChange::latePaidOn)
+            .containsExactly(1L, 1L, paidOn);
+    }
+
+    @Test
+    void paymentOnALoanOutOfProgressChangesNothing() {
+        CreditProfileChange change = CreditProfileChange.between(
+            loan(LoanStatus.PAYED, null, 30),
+            loan(LoanStatus.PAYED, null, 31)
+        );
+
+        assertThat(change.isEmpty()).isTrue();
+    }
+
+    @Test
+    void settledUnpaidLoanCountsAsNotPaid() {
+        CreditProfileChange change = CreditProfileChange.settled(loan(LoanStatus.NOT_PAYED, null, 10));
+
+        assertThat(change.leftProgress()).isTrue();
+        assertThat(change.notPaidLoans()).isEqualTo(1);
+        assertThat(change.paidLoans()).isZero();
+    }
+
+    @Test
+    void withTierKeepsEverythingElse() {
+        CreditProfileChange change = CreditProfileChange.settled(loan(LoanStatus.NOT_PAYED, null, 10));
+
+        CreditProfileChange tiered = change.withTier("tier-1");
+
+        assertThat(tiered.tierId()).isEqualTo("tier-1");
+        assertThat(tiered.withTier(null)).isEqualTo(change);
+    }
+
+    private static Loan loan(LoanStatus status, LocalDate lastPaymentDate, int paymentCount) {
+        return Loan.builder()
+            .id("l1")
+            .userId("u1")
+            .status(status)
+            .startDate(START)
+            .endDate(END)
+            .lastPaymentDate(lastPaymentDate)
+            .paymentCount(paymentCount)
+            .build();
+    }
+}
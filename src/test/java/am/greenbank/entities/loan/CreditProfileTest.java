@@ -0,0 +1,68 @@
+package am.greenbank.entities.loan;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CreditProfileTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    @Test
+    void missedDaysAreSummedPerLoan() {
+        CreditProfile profile = CreditProfile.of("u1", List.of(
+            loan("l1", LoanStatus.IN_PROGRESS, TODAY.minusDays(10), null, 8),
+            loan("l2", LoanStatus.IN_PROGRESS, TODAY.minusDays(5), null, 2)
+        ));
+
+        assertThat(profile.inProgressLoans()).isEqualTo(2);
+        assertThat(profile.missedDays(TODAY)).isEqualTo(2 + 3);
+    }
+
+    @Test
+    void paymentsAheadOnOneLoanDoNotHideMissedDaysOnAnother() {
+        CreditProfile profile = CreditProfile.of("u1", List.of(
+            loan("l1", LoanStatus.IN_PROGRESS, TODAY.minusDays(2), null, 6),
+            loan("l2", LoanStatus.IN_PROGRESS, TODAY.minusDays(6), null, 2)
+        ));
+
+        assertThat(profile.missedDays(TODAY)).isEqualTo(4 + 4);
+    }
+
+    @Test
+    void loansOutOfProgressOnlyCountTowardsTheirOutcome() {
+        LocalDate start = TODAY.minusDays(60);
+        LocalDate lateOn = start.plusDays(40);
+        LocalDate laterOn = start.plusDays(45);
+
+        CreditProfile profile = CreditProfile.of("u1", List.of(
+            loan("l1", LoanStatus.PAYED, start, start.plusDays(20), 30),
+            loan("l2", LoanStatus.PAYED, start, lateOn, 30),
+            loan("l3", LoanStatus.PAYED, start, laterOn, 30),
+            loan("l4", LoanStatus.NOT_PAYED, start, null, 3)
+        ));
+
+        assertThat(profile.inProgressLoans()).isZero();
+        assertThat(profile.missedDays(TODAY)).isZero();
+        assertThat(profile.getPaidLoans()).isEqualTo(3);
+        assertThat(profile.getLatePaidLoans()).isEqualTo(2);
+        assertThat(profile.getLastLatePaidDate()).isEqualTo(laterOn);
+        assertThat(profile.getNotPaidLoans()).isEqualTo(1);
+    }
+
+    private static Loan loan(String id, LoanStatus status, LocalDate start, LocalDate lastPaymentDate, int paymentCount) {
+        LocalDateTime startDate = start.atTime(10, 0);
+        return Loan.builder()
+            .id(id)
+            .userId("u1")
+            .status(status)
+            .startDate(startDate)
+            .endDate(startDate.plusDays(30))
+            .lastPaymentDate(lastPaymentDate)
+            .paymentCount(paymentCount)
+            .build();
+    }
+}
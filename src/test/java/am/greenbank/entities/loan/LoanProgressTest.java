@@ -0,0 +1,45 @@
+package am.greenbank.entities.loan;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoanProgressTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    @Test
+    void loanTakenTodayHasMissedNothing() {
+        assertThat(new LoanProgress(TODAY.toEpochDay(), 0).missedDays(TODAY)).isZero();
+    }
+
+    @Test
+    void oneDayWithoutPaymentIsOneMissedDay() {
+        assertThat(new LoanProgress(TODAY.minusDays(1).toEpochDay(), 0).missedDays(TODAY)).isEqualTo(1);
+    }
+
+    @Test
+    void missedDaysArePaymentsShortOfOnePerDay() {
+        assertThat(new LoanProgress(TODAY.minusDays(10).toEpochDay(), 7).missedDays(TODAY)).isEqualTo(3);
+    }
+
+    @Test
+    void payingAheadCountsAsMissedToo() {
+        assertThat(new LoanProgress(TODAY.minusDays(2).toEpochDay(), 5).missedDays(TODAY)).isEqualTo(3);
+    }
+
+    @Test
+    void ofTakesTheStartDayAndPaymentCount() {
+        Loan loan = Loan.builder().startDate(TODAY.atTime(15, 30)).paymentCount(4).build();
+
+        assertThat(LoanProgress.of(loan)).isEqualTo(new LoanProgress(TODAY.toEpochDay(), 4));
+    }
+
+    @Test
+    void ofCountsNoPaymentsWhenNeverPaid() {
+        Loan loan = Loan.builder().startDate(TODAY.atStartOfDay()).build();
+
+        assertThat(LoanProgress.of(loan).payments()).isZero();
+    }
+}
@@ -0,0 +1,152 @@
+package am.greenbank.repositories.mongo;
+
+import am.greenbank.entities.deposit.Deposit;
+import am.greenbank.entities.job.JobPartition;
+import am.greenbank.entities.job.JobPartitionStatus;
+import am.greenbank.entities.job.JobRun;
+import am.greenbank.entities.job.KeyRange;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MongoJobStoreTest {
+    private static final String RUN_ID = "deposit-accrual:2024-01-01";
+
+    private MongoTemplate mongoTemplate;
+    private MongoJobStore jobStore;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        jobStore = new MongoJobStore(mongoTemplate);
+        when(mongoTemplate.getCollectionName(Deposit.class)).thenReturn("deposit");
+    }
+
+    @Test
+    void splitKeyRangesChainsBucketBoundariesIntoOpenEndedRanges() {
+        ObjectId first = new ObjectId();
+        ObjectId second = new ObjectId();
+        ObjectId third = new ObjectId();
+        ObjectId last = new ObjectId();
+        bucketsAre(bucket(first, second), bucket(second, third), bucket(third, last));
+
+        List<KeyRange> ranges = jobStore.splitKeyRanges(Deposit.class, 3);
+
+        assertThat(ranges).containsExactly(
+            new KeyRange(null, second.toHexString()),
+            new KeyRange(second.toHexString(), third.toHexString()),
+            new KeyRange(third.toHexString(), null)
+        );
+    }
+
+    @Test
+    void splitKeyRangesOfAnEmptyCollectionIsOneOpenRange() {
+        bucketsAre();
+
+        assertThat(jobStore.splitKeyRanges(Deposit.class, 16)).containsExactly(KeyRange.ALL);
+    }
+
+    @Test
+    void splitKeyRangesOfASingleBucketIsOneOpenRange() {
+        bucketsAre(bucket(new ObjectId(), new ObjectId()));
+
+        assertThat(jobStore.splitKeyRanges(Deposit.class, 16)).containsExactly(KeyRange.ALL);
+    }
+
+    @Test
+    void acquirePlanningLosesToTheRunOfAnotherNode() {
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(JobRun.class)))
+            .thenThrow(new DuplicateKeyException("E11000"));
+
+        assertThat(jobStore.acquirePlanning(RUN_ID, "node-a", Duration.ofMinutes(2))).isFalse();
+    }
+
+    @Test
+    void publishPartitionsDoesNothingWithoutThePlanningLease() {
+        when(mongoTemplate.exists(any(Query.class), eq(JobRun.class))).thenReturn(false);
+
+        assertThat(jobStore.publishPartitions(RUN_ID, "node-a", List.of(KeyRange.ALL))).isFalse();
+        verify(mongoTemplate, never()).insertAll(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishPartitionsInsertsOnePendingPartitionPerRange() {
+        when(mongoTemplate.exists(any(Query.class), eq(JobRun.class))).thenReturn(true);
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(JobRun.class)))
+            .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        List<KeyRange> ranges = List.of(new KeyRange(null, "b"), new KeyRange("b", null));
+
+        assertThat(jobStore.publishPartitions(RUN_ID, "node-a", ranges)).isTrue();
+
+        ArgumentCaptor<List<JobPartition>> inserted = ArgumentCaptor.forClass(List.class);
+        verify(mongoTemplate).insertAll(inserted.capture());
+        assertThat(inserted.getValue())
+            .extracting(JobPartition::getId, JobPartition::range, JobPartition::getStatus)
+            .containsExactly(
+                tuple(RUN_ID + ":0", ranges.get(0), JobPartitionStatus.PENDING),
+                tuple(RUN_ID + ":1", ranges.get(1), JobPartitionStatus.PENDING)
+            );
+    }
+
+    @Test
+    void claimPartitionSkipsPartitionsOutOfAttemptsAndCountsTheAttempt() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(JobPartition.class)))
+            .thenReturn(null);
+
+        Optional<JobPartition> claimed = jobStore.claimPartition(RUN_ID, "node-a", Duration.ofMinutes(2), 3);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(query.capture(), update.capture(), any(FindAndModifyOptions.class), eq(JobPartition.class));
+        assertThat(claimed).isEmpty();
+        assertThat(query.getValue().getQueryObject().get("attempts", Document.class)).containsEntry("$lt", 3);
+        assertThat(update.getValue().getUpdateObject().get("$inc", Document.class)).containsEntry("attempts", 1);
+    }
+
+    @Test
+    void exhaustedPartitionsAreThoseOutOfAttempts() {
+        jobStore.countExhaustedPartitions(RUN_ID, 3);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).count(query.capture(), eq(JobPartition.class));
+        Document filter = query.getValue().getQueryObject();
+        assertThat(filter).containsEntry("runId", RUN_ID);
+        assertThat(filter.get("attempts", Document.class)).containsEntry("$gte", 3);
+        assertThat(filter.get("status", Document.class)).containsEntry("$ne", JobPartitionStatus.DONE);
+    }
+
+    private void bucketsAre(Document... buckets) {
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("deposit"), eq(Document.class)))
+            .thenReturn(new AggregationResults<>(new ArrayList<>(List.of(buckets)), new Document()));
+    }
+
+    private static Document bucket(ObjectId min, ObjectId max) {
+        return new Document("_id", new Document("min", min).append("max", max)).append("count", 64);
+    }
+}
@@ -0,0 +1,104 @@
+package am.greenbank.scheduling;
+
+import am.greenbank.entities.job.JobPartition;
+import am.greenbank.entities.job.JobPartitionStatus;
+import am.greenbank.entities.job.JobRun;
+import am.greenbank.entities.job.JobRunStatus;
+import am.greenbank.exceptions.exceptions.JobRunFailedException;
+import am.greenbank.repositories.interfaces.JobStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DistributedJobRunnerTest {
+    private static final String JOB = "deposit-accrual";
+    private static final LocalDate RUN_DATE = LocalDate.of(2024, 1, 1);
+    private static final String RUN_ID = JOB + ":" + RUN_DATE;
+
+    private JobStore jobStore;
+    private DistributedJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        jobStore = mock(JobStore.class);
+        runner = new DistributedJobRunner(
+            jobStore, "node-a", 1, Duration.ofMinutes(2), Duration.ofSeconds(30), Duration.ofMillis(10), 3
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        runner.destroy();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void runFinishesWhenEveryPartitionIsDone() throws InterruptedException {
+        runIs(JobRunStatus.READY);
+        when(jobStore.claimPartition(eq(RUN_ID), eq("node-a"), any(Duration.class), eq(3)))
+            .thenReturn(Optional.of(partition()), Optional.empty());
+
+        long processed = runner.runOnce(JOB, RUN_DATE, context -> context.add(5));
+
+        assertThat(processed).isEqualTo(5);
+        verify(jobStore).completePartition(RUN_ID + ":0", "node-a", 5);
+        verify(jobStore, never()).failRun(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void partitionOutOfAttemptsFailsTheRun() {
+        runIs(JobRunStatus.READY);
+        when(jobStore.claimPartition(eq(RUN_ID), eq("node-a"), any(Duration.class), eq(3)))
+            .thenReturn(Optional.of(partition()), Optional.empty());
+        when(jobStore.countExhaustedPartitions(RUN_ID, 3)).thenReturn(1L);
+
+        assertThatThrownBy(() -> runner.runOnce(JOB, RUN_DATE, context -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(JobRunFailedException.class);
+
+        verify(jobStore).releasePartition(RUN_ID + ":0", "node-a");
+        verify(jobStore, never()).completePartition(anyString(), anyString(), anyLong());
+        verify(jobStore).failRun(RUN_ID);
+    }
+
+    @Test
+    void joiningAFailedRunFailsRightAway() {
+        runIs(JobRunStatus.FAILED);
+
+        assertThatThrownBy(() -> runner.runOnce(JOB, RUN_DATE, context -> context.add(1)))
+            .isInstanceOf(JobRunFailedException.class);
+
+        verify(jobStore, never()).claimPartition(anyString(), anyString(), any(Duration.class), anyInt());
+    }
+
+    private void runIs(JobRunStatus status) {
+        when(jobStore.findRun(RUN_ID)).thenReturn(Optional.of(JobRun.builder().id(RUN_ID).status(status).build()));
+    }
+
+    private static JobPartition partition() {
+        return JobPartition.builder()
+            .id(RUN_ID + ":0")
+            .runId(RUN_ID)
+            .status(JobPartitionStatus.RUNNING)
+            .owner("node-a")
+            .attempts(3)
+            .build();
+    }
+}
@@ -0,0 +1,78 @@
+package am.greenbank.scheduling;
+
+import am.greenbank.services.TransferLatency;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The scheduler pool from application.yml has to keep adjusting the throttle while the nightly
+ * jobs hold scheduler threads, or the jobs never back off.
+ */
+class JobThrottleSchedulingTest {
+    private static final CountDownLatch NIGHTLY_JOBS_STARTED = new CountDownLatch(2);
+    private static final CountDownLatch NIGHTLY_JOBS_RELEASED = new CountDownLatch(1);
+
+    private final TransferLatency transferLatency = mock(TransferLatency.class);
+
+    @Test
+    void throttleAdjustsWhileNightlyJobsRun() {
+        when(transferLatency.p99Millis()).thenReturn(1000.0);
+
+        new ApplicationContextRunner()
+            .withInitializer(new ConfigDataApplicationContextInitializer())
+            .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withPropertyValues("am.greenbank.jobs.throttle.adjust-interval=PT0.02S")
+            .withConfiguration(AutoConfigurations.of(TaskSchedulingAutoConfiguration.class))
+            .withBean(TransferLatency.class, () -> transferLatency)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean(JobThrottle.class)
+            .withUserConfiguration(NightlyJobs.class)
+            .run(context -> {
+                try {
+                    assertThat(NIGHTLY_JOBS_STARTED.await(5, TimeUnit.SECONDS)).isTrue();
+                    verify(transferLatency, timeout(5000).atLeast(3)).p99Millis();
+                    assertThat(context.getBean(JobThrottle.class).batchSize(1000)).isLessThan(1000);
+                } finally {
+                    NIGHTLY_JOBS_RELEASED.countDown();
+                }
+            });
+    }
+
+    @Configuration
+    @EnableScheduling
+    static class NightlyJobs {
+        @Scheduled(initialDelay = 0, fixedDelay = 60_000)
+        void depositDaily() throws InterruptedException {
+            runUntilReleased();
+        }
+
+        @Scheduled(initialDelay = 0, fixedDelay = 60_000)
+        void loanDaily() throws InterruptedException {
+            runUntilReleased();
+        }
+
+        private static void runUntilReleased() throws InterruptedException {
+            NIGHTLY_JOBS_STARTED.countDown();
+            NIGHTLY_JOBS_RELEASED.await(10, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package am.greenbank.scheduling.jobs;
+
+import am.greenbank.entities.deposit.Deposit;
+import am.greenbank.entities.deposit.DepositAccrual;
+import am.greenbank.repositories.interfaces.DepositRepository;
+import am.greenbank.scheduling.DistributedJobRunner;
+import am.greenbank.scheduling.JobThrottle;
+import am.greenbank.services.DepositService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.Mockito.mock;
+
+class DepositScheduledTaskTest {
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    private final DepositScheduledTask task = task(366);
+
+    @Test
+    void accruesOneDayOfInterest() {
+        DepositAccrual accrual = task.accrualOf(deposit(TODAY.minusDays(1), null), TODAY).orElseThrow();
+
+        assertThat(accrual.depositId()).isEqualTo("d1");
+        assertThat(accrual.accruedFrom()).isEqualTo(TODAY.minusDays(1));
+        assertThat(accrual.accruedThrough()).isEqualTo(TODAY);
+        assertThat(accrual.interest()).isCloseTo(1000 * 0.01, within(1e-9));
+    }
+
+    @Test
+    void compoundsMissedDaysInOneStep() {
+        DepositAccrual accrual = task.accrualOf(deposit(TODAY.minusDays(3), null), TODAY).orElseThrow();
+
+        assertThat(accrual.interest()).isCloseTo(1000 * (Math.pow(1.01, 3) - 1), within(1e-9));
+    }
+
+    @Test
+    void neverStampedDepositsAreCurrentUpToYesterday() {
+        DepositAccrual accrual = task.accrualOf(deposit(null, null), TODAY).orElseThrow();
+
+        assertThat(accrual.accruedFrom()).isNull();
+        assertThat(accrual.interest()).isCloseTo(1000 * 0.01, within(1e-9));
+    }
+
+    @Test
+    void stopsAtTheEndDate() {
+        LocalDateTime endDate = TODAY.minusDays(2).atTime(12, 0);
+
+        DepositAccrual accrual = task.accrualOf(deposit(TODAY.minusDays(5), endDate), TODAY).orElseThrow();
+
+        assertThat(accrual.accruedThrough()).isEqualTo(endDate.toLocalDate());
+        assertThat(accrual.interest()).isCloseTo(1000 * (Math.pow(1.01, 3) - 1), within(1e-9));
+    }
+
+    @Test
+    void nothingIsOwedOnceAccruedThroughToday() {
+        assertThat(task.accrualOf(deposit(TODAY, null), TODAY)).isEmpty();
+    }
+
+    @Test
+    void nothingIsOwedOnceAccruedThroughTheEndDate() {
+        Optional<DepositAccrual> accrual = task.accrualOf(deposit(TODAY.minusDays(2), TODAY.minusDays(2).atStartOfDay()), TODAY);
+
+        assertThat(accrual).isEmpty();
+    }
+
+    @Test
+    void catchUpIsCappedAtMaxCatchUpDays() {
+        DepositAccrual accrual = task(1).accrualOf(deposit(TODAY.minusDays(10), null), TODAY).orElseThrow();
+
+        assertThat(accrual.accruedThrough()).isEqualTo(TODAY);
+        assertThat(accrual.interest()).isCloseTo(1000 * 0.01, within(1e-9));
+    }
+
+    private static Deposit deposit(LocalDate lastAccruedDate, LocalDateTime endDate) {
+        return Deposit.builder()
+            .id("d1")
+            .amount(1000.0)
+            .percent(1.0)
+            .endDate(endDate)
+            .lastAccruedDate(lastAccruedDate)
+            .build();
+    }
+
+    private static DepositScheduledTask task(int maxCatchUpDays) {
+        return new DepositScheduledTask(
+            mock(DepositRepository.class),
+            mock(DepositService.class),
+            mock(DistributedJobRunner.class),
+            Clock.systemUTC(),
+            mock(JobThrottle.class),
+            1000,
+            4,
+            500,
+            maxCatchUpDays,
+            Duration.ofHours(1)
+        );
+    }
+}
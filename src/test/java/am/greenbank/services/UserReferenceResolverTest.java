@@ -0,0 +1,150 @@
+package am.greenbank.services;
+
+import am.greenbank.entities.account.Account;
+import am.greenbank.entities.cards.Card;
+import am.greenbank.entities.user.User;
+import am.greenbank.repositories.interfaces.AccountRepository;
+import com.mongodb.DBRef;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoExceptionTranslator;
+import org.springframework.data.mongodb.core.convert.DefaultDbRefResolver;
+import org.springframework.data.mongodb.core.convert.LazyLoadingProxy;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the queries a user with {@code n} accounts and {@code n} cards costs when read through
+ * the mapping converter with lazy references. Every DBRef fetched on its own and every bulk
+ * {@code $in} counts as one query, and so does every repository call.
+ */
+class UserReferenceResolverTest {
+    private final AtomicInteger queries = new AtomicInteger();
+    private final Set<Object> deletedIds = new HashSet<>();
+    private final AccountRepository accountRepository = mock(AccountRepository.class);
+    private final UserReferenceResolver resolver = new UserReferenceResolver(accountRepository);
+    private final MappingMongoConverter converter = converter();
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void touchingCardAccountsQueriesOncePerCard(int n) {
+        User user = converter.read(User.class, userDocument(n));
+
+        user.getAccounts().forEach(Account::getAccountNumber);
+        user.getCards().forEach(card -> card.getAccount().getAccountNumber());
+
+        assertThat(queries).hasValue(2 + n);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void resolvingReferencesQueriesOncePerCollection(int n) {
+        User user = converter.read(User.class, userDocument(n));
+
+        resolver.resolveReferences(user);
+
+        assertThat(user.getAccounts()).hasSize(n).noneMatch(LazyLoadingProxy.class::isInstance);
+        assertThat(user.getCards()).hasSize(n).noneMatch(LazyLoadingProxy.class::isInstance);
+        assertThat(queries).hasValue(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void resolvingCardsWithAccountsQueriesOncePerCollection(int n) {
+        User user = converter.read(User.class, userDocument(n));
+        when(accountRepository.findAccountsByIds(anyList())).thenAnswer(invocation -> {
+            queries.incrementAndGet();
+            List<String> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> Account.builder().id(id).build()).toList();
+        });
+
+        List<Card> cards = resolver.resolveCardsWithAccounts(user);
+
+        assertThat(cards).hasSize(n).extracting(Card::getAccount).noneMatch(LazyLoadingProxy.class::isInstance);
+        assertThat(queries).hasValue(2);
+    }
+
+    @Test
+    void deletedReferencesAreLeftOut() {
+        Document document = userDocument(3);
+        deletedIds.add(document.getList("accounts", DBRef.class).get(1).getId());
+        deletedIds.add(document.getList("cards", DBRef.class).get(0).getId());
+        User user = converter.read(User.class, document);
+
+        assertThat(resolver.resolveAccounts(user)).hasSize(2).noneMatch(Account::isDeleted);
+        assertThat(resolver.resolveCards(user)).hasSize(2).noneMatch(Card::isDeleted);
+    }
+
+    private MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter mappingConverter = new MappingMongoConverter(new CountingDbRefResolver(), mappingContext);
+        mappingConverter.setCustomConversions(conversions);
+        mappingConverter.afterPropertiesSet();
+        return mappingConverter;
+    }
+
+    private static Document userDocument(int n) {
+        List<DBRef> accounts = new ArrayList<>();
+        List<DBRef> cards = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            accounts.add(new DBRef("accounts", new ObjectId()));
+            cards.add(new DBRef("card", new ObjectId()));
+        }
+        return new Document("_id", new ObjectId()).append("accounts", accounts).append("cards", cards);
+    }
+
+    private static MongoDatabaseFactory databaseFactory() {
+        MongoDatabaseFactory databaseFactory = mock(MongoDatabaseFactory.class);
+        when(databaseFactory.getExceptionTranslator()).thenReturn(new MongoExceptionTranslator());
+        return databaseFactory;
+    }
+
+    /**
+     * Answers with stub documents instead of going to the database, cards point at an account
+     * of their own.
+     */
+    private class CountingDbRefResolver extends DefaultDbRefResolver {
+        CountingDbRefResolver() {
+            super(databaseFactory());
+        }
+
+        @Override
+        public Document fetch(DBRef dbRef) {
+            queries.incrementAndGet();
+            return document(dbRef);
+        }
+
+        @Override
+        public List<Document> bulkFetch(List<DBRef> dbRefs) {
+            queries.incrementAndGet();
+            return dbRefs.stream().map(this::document).toList();
+        }
+
+        private Document document(DBRef dbRef) {
+            Document document = new Document("_id", dbRef.getId()).append("deleted", deletedIds.contains(dbRef.getId()));
+            if ("card".equals(dbRef.getCollectionName())) {
+                document.append("account", new DBRef("accounts", new ObjectId()));
+            }
+            return document;
+        }
+    }
+}
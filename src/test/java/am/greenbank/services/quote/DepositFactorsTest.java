@@ -0,0 +1,31 @@
+package am.greenbank.services.quote;
+
+import am.greenbank.entities.Option;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class DepositFactorsTest {
+    private final DepositFactors factors = DepositFactors.of(Option.builder().duration(3).percent(0.1).build());
+
+    @Test
+    void firstMonthGrowsFromTheSecondDayOn() {
+        assertThat(factors.balance()[0]).isCloseTo(Math.pow(1.001, 29), within(1e-12));
+    }
+
+    @Test
+    void laterMonthsGrowByThirtyDays() {
+        assertThat(factors.balance()[1]).isCloseTo(Math.pow(1.001, 59), within(1e-12));
+        assertThat(factors.balance()[2]).isCloseTo(Math.pow(1.001, 89), within(1e-12));
+    }
+
+    @Test
+    void monthlyInterestAddsUpToTheTotal() {
+        assertThat(factors.interest()).isCloseTo(Math.pow(1.001, 89) - 1, within(1e-12));
+        assertThat(Arrays.stream(factors.monthlyInterest()).sum()).isCloseTo(factors.interest(), within(1e-12));
+        assertThat(factors.monthlyInterest()[0]).isCloseTo(factors.balance()[0] - 1, within(1e-12));
+    }
+}
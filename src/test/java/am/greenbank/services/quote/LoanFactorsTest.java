@@ -0,0 +1,38 @@
+package am.greenbank.services.quote;
+
+import am.greenbank.entities.Option;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LoanFactorsTest {
+    private final LoanFactors factors = LoanFactors.of(Option.builder().duration(12).percent(3.0).build());
+
+    @Test
+    void monthlyPercentIsSpreadOverThirtyDays() {
+        assertThat(factors.dailyInterestRate()).isCloseTo(0.001, within(1e-12));
+    }
+
+    @Test
+    void dailyPaymentsCoverTheAmountAndTheInterest() {
+        assertThat(factors.payment()).isCloseTo(1.0 / 360 + 0.001, within(1e-12));
+        assertThat(factors.payment() * 12 * QuoteEngine.DAYS_IN_MONTH).isCloseTo(1 + factors.totalInterest(), within(1e-9));
+    }
+
+    @Test
+    void interestIsChargedOnTheWholeAmountEveryMonth() {
+        assertThat(factors.totalInterest()).isCloseTo(0.36, within(1e-12));
+        assertThat(factors.interest()).hasSize(12);
+        assertThat(Arrays.stream(factors.interest())).allSatisfy(interest -> assertThat(interest).isCloseTo(0.03, within(1e-12)));
+    }
+
+    @Test
+    void principalIsRepaidInEqualParts() {
+        assertThat(Arrays.stream(factors.principal()).sum()).isCloseTo(1.0, within(1e-12));
+        assertThat(factors.remainingPrincipal()[0]).isCloseTo(11.0 / 12, within(1e-12));
+        assertThat(factors.remainingPrincipal()[11]).isZero();
+    }
+}